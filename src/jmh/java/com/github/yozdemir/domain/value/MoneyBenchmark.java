@@ -0,0 +1,70 @@
+package com.github.yozdemir.domain.value;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Balance updates (add of an amount, compare and subtract of a fee) applied with BigDecimal, with Money and
+ * with the units of Money summed as longs. Each operation applies the updates of all amounts, and the
+ * allocations per operation are reported when run with the gc profiler: -Djmh.args="MoneyBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private static final int AMOUNTS = 1_024;
+    private static final BigDecimal DECIMAL_FEE = new BigDecimal("1.2500");
+    private static final Money FEE = Money.of(DECIMAL_FEE);
+
+    private BigDecimal[] decimals;
+    private Money[] amounts;
+
+    @Setup
+    public void setUp() {
+        decimals = new BigDecimal[AMOUNTS];
+        amounts = new Money[AMOUNTS];
+        for (int i = 0; i < AMOUNTS; i++) {
+            decimals[i] = BigDecimal.valueOf(i * 7919L % 100_000L, 2).setScale(Money.SCALE);
+            amounts[i] = Money.of(decimals[i]);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal balance = BigDecimal.ZERO.setScale(Money.SCALE);
+        for (BigDecimal amount : decimals) {
+            balance = balance.add(amount);
+            if (balance.compareTo(DECIMAL_FEE) > 0)
+                balance = balance.subtract(DECIMAL_FEE);
+        }
+        return balance;
+    }
+
+    @Benchmark
+    public Money money() {
+        Money balance = Money.ZERO;
+        for (Money amount : amounts) {
+            balance = balance.add(amount);
+            if (FEE.isLessThan(balance))
+                balance = balance.subtract(FEE);
+        }
+        return balance;
+    }
+
+    @Benchmark
+    public long units() {
+        long balance = 0L;
+        for (Money amount : amounts) {
+            balance = Math.addExact(balance, amount.getUnits());
+            if (FEE.getUnits() < balance)
+                balance = Math.subtractExact(balance, FEE.getUnits());
+        }
+        return balance;
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.yozdemir.security;
+
+import com.github.yozdemir.cache.VerifiedTokenCache;
+import com.github.yozdemir.config.MessageSourceConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Verification of the tokens of a set of users, round robin, with the verified token cache and without it,
+ * where every request parses and verifies its token again. Each operation verifies a single token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    private static final String SECRET = "secret";
+    private static final int TOKENS = 100;
+
+    private JwtUtils cached;
+    private JwtUtils parsed;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        final MessageSourceConfig messageConfig = new MessageSourceConfig();
+        cached = new JwtUtils(messageConfig,
+                new VerifiedTokenCache(new SimpleMeterRegistry(), Clock.systemUTC(), TOKENS), SECRET, 60000);
+        parsed = new JwtUtils(messageConfig,
+                new VerifiedTokenCache(new SimpleMeterRegistry(), Clock.systemUTC(), TOKENS) {
+                    @Override
+                    public VerifiedToken get(String token, Function<String, VerifiedToken> verifier) {
+                        return verifier.apply(token);
+                    }
+                }, SECRET, 60000);
+        final List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+        tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++)
+            tokens[i] = cached.generateJwtToken(new UserDetailsImpl((long) i, "user" + i, null, null, null, null, authorities, true));
+    }
+
+    @Benchmark
+    public VerifiedToken cached() {
+        return cached.verifyJwtToken(nextToken());
+    }
+
+    @Benchmark
+    public VerifiedToken parsed() {
+        return parsed.verifyJwtToken(nextToken());
+    }
+
+    private String nextToken() {
+        next = next + 1 == TOKENS ? 0 : next + 1;
+        return tokens[next];
+    }
+}
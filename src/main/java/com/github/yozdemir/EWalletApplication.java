@@ -3,7 +3,6 @@ package com.github.yozdemir;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.ComponentScan;
 import org.springframework.core.env.Environment;
 
 import java.net.InetAddress;
@@ -11,7 +10,6 @@ import java.net.UnknownHostException;
 
 @Slf4j
 @SpringBootApplication
-@ComponentScan(basePackages = "com.github.yozdemir")
 public class EWalletApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,131 @@
+package com.github.yozdemir.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.yozdemir.dto.response.TransactionResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of the latest transactions of each user, latest first. Every user keeps at most the
+ * configured number of transactions, and the users are evicted by size when all their transactions
+ * exceed the configured limit, which bounds the memory used by the cache. Lists are loaded on the
+ * first read of a user, then the writers add and update the transactions of the cached users after
+ * their transaction commits. Cached lists are immutable and replaced on every change, and the
+ * transactions in them are shared and must not be modified.
+ */
+@Component
+public class RecentTransactionCache {
+
+    private final Cache<Long, List<TransactionResponse>> transactions;
+    private final int size;
+
+    public RecentTransactionCache(MeterRegistry meterRegistry,
+                                  @Value("${app.transaction.recent.size:20}") int size,
+                                  @Value("${app.transaction.recent.maxTransactions:50000}") long maxTransactions) {
+        this.size = size;
+        // users without transactions are cached too, so every user weighs at least one
+        this.transactions = Caffeine.newBuilder()
+                .maximumWeight(maxTransactions)
+                .weigher((Long userId, List<TransactionResponse> recent) -> Math.max(1, recent.size()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, transactions, "recentTransactions");
+    }
+
+    /**
+     * Number of the transactions kept for each user.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Fetches the latest transactions of the given user, loading them with the given loader on a miss.
+     *
+     * @param userId
+     * @param loader returns the latest transactions of the user, latest first
+     * @return latest transactions of the user, latest first
+     */
+    public List<TransactionResponse> getRecent(Long userId, Function<Long, List<TransactionResponse>> loader) {
+        return transactions.get(userId, id -> limit(loader.apply(id)));
+    }
+
+    /**
+     * Adds the given new transaction to the latest transactions of the given users after the current
+     * transaction commits, or immediately when there is no transaction. Users that are not cached are
+     * skipped, their transactions are loaded on their next read. The transaction is only built when
+     * one of the users is cached.
+     *
+     * @param transaction
+     * @param userIds
+     */
+    public void addAfterCommit(Supplier<TransactionResponse> transaction, Long... userIds) {
+        afterCommit(() -> {
+            final List<Long> cachedUserIds = Arrays.stream(userIds).distinct()
+                    .filter(transactions.asMap()::containsKey)
+                    .toList();
+            if (cachedUserIds.isEmpty())
+                return;
+            final TransactionResponse response = transaction.get();
+            cachedUserIds.forEach(userId -> transactions.asMap().computeIfPresent(userId, (id, recent) -> {
+                final List<TransactionResponse> added = new ArrayList<>(recent.size() + 1);
+                added.add(response);
+                // the transaction may already be loaded by a read after the commit
+                recent.stream().filter(cached -> !Objects.equals(cached.getId(), response.getId())).forEach(added::add);
+                return limit(added);
+            }));
+        });
+    }
+
+    /**
+     * Replaces the given changed transaction in the latest transactions of the given users after the
+     * current transaction commits, or immediately when there is no transaction. Users that do not keep
+     * the transaction are skipped.
+     *
+     * @param transaction
+     * @param userIds
+     */
+    public void updateAfterCommit(TransactionResponse transaction, Long... userIds) {
+        afterCommit(() -> Arrays.stream(userIds).distinct().forEach(userId ->
+                transactions.asMap().computeIfPresent(userId, (id, recent) -> recent.stream()
+                        .map(cached -> Objects.equals(cached.getId(), transaction.getId()) ? transaction : cached)
+                        .toList())));
+    }
+
+    /**
+     * Evicts the latest transactions of all users after the current transaction commits,
+     * or immediately when there is no transaction.
+     */
+    public void evictAllAfterCommit() {
+        afterCommit(transactions::invalidateAll);
+    }
+
+    private List<TransactionResponse> limit(List<TransactionResponse> recent) {
+        return List.copyOf(recent.size() > size ? recent.subList(0, size) : recent);
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,44 @@
+package com.github.yozdemir.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of the enabled flags of the users by id, used for rejecting the tokens of disabled users
+ * without a database lookup per request. Entries expire shortly after they are loaded, so a disabled user
+ * keeps access for at most the configured ttl.
+ */
+@Component
+public class UserStatusCache {
+
+    private final Cache<Long, Boolean> statuses;
+
+    public UserStatusCache(MeterRegistry meterRegistry,
+                           @Value("${app.security.userStatus.maxEntries:10000}") long maxEntries,
+                           @Value("${app.security.userStatus.ttlSeconds:30}") long ttlSeconds) {
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, statuses, "userStatuses");
+    }
+
+    /**
+     * Fetches whether the user by the given id is enabled, loading it with the given loader on a miss.
+     *
+     * @param userId
+     * @param loader returns false if the user does not exist
+     * @return true if the user is enabled
+     */
+    public boolean isEnabled(Long userId, Function<Long, Boolean> loader) {
+        return statuses.get(userId, loader);
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.yozdemir.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.yozdemir.security.TokenDigests;
+import com.github.yozdemir.security.VerifiedToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of the verified tokens by the SHA-256 digest of the token, so the repeated requests with
+ * the same token skip the signature verification and the claims decoding. Every entry expires when its token
+ * expires, and the raw tokens are not kept in memory. Invalid tokens are not cached.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Cache<String, VerifiedToken> tokens;
+
+    public VerifiedTokenCache(MeterRegistry meterRegistry,
+                              Clock clock,
+                              @Value("${app.security.tokenCache.maxEntries:10000}") long maxEntries) {
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String digest, VerifiedToken token, long currentTime) {
+                        return Math.max(0, Duration.between(clock.instant(), token.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tokens, "verifiedTokens");
+    }
+
+    /**
+     * Fetches the verified token, verifying it with the given verifier on a miss.
+     *
+     * @param token
+     * @param verifier returns null if the token is invalid
+     * @return VerifiedToken, null if the token is invalid
+     */
+    public VerifiedToken get(String token, Function<String, VerifiedToken> verifier) {
+        return tokens.get(TokenDigests.sha256(token), key -> verifier.apply(token));
+    }
+}
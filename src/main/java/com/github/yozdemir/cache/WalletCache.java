@@ -0,0 +1,146 @@
+package com.github.yozdemir.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.yozdemir.dto.response.WalletResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of wallet snapshots by id, of wallet ids by iban and of wallet currencies by id.
+ * Entries are loaded atomically per key, and the writers evict the changed wallets after their
+ * transaction commits, so a snapshot loaded before the commit cannot outlive it. Cached snapshots
+ * are shared and must not be modified. Missing wallets are not cached.
+ */
+@Component
+public class WalletCache {
+
+    private final Cache<Long, WalletResponse> wallets;
+    private final Cache<String, Long> walletIds;
+    private final Cache<Long, String> currencies;
+
+    public WalletCache(MeterRegistry meterRegistry,
+                       @Value("${app.wallet.cache.maxEntries:10000}") long maxEntries,
+                       @Value("${app.wallet.cache.ttlMinutes:5}") long ttlMinutes) {
+        this.wallets = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        this.walletIds = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        this.currencies = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, wallets, "wallets");
+        CaffeineCacheMetrics.monitor(meterRegistry, walletIds, "walletIds");
+        CaffeineCacheMetrics.monitor(meterRegistry, currencies, "walletCurrencies");
+    }
+
+    /**
+     * Fetches the wallet by the given id, loading it with the given loader on a miss.
+     *
+     * @param id
+     * @param loader returns null if the wallet does not exist
+     * @return WalletResponse, null if the wallet does not exist
+     */
+    public WalletResponse getWallet(Long id, Function<Long, WalletResponse> loader) {
+        return wallets.get(id, loader);
+    }
+
+    /**
+     * Fetches the cached wallet by the given id without loading it on a miss.
+     *
+     * @param id
+     * @return WalletResponse, null if the wallet is not cached
+     */
+    public WalletResponse getCachedWallet(Long id) {
+        return wallets.getIfPresent(id);
+    }
+
+    /**
+     * Fetches the id of the wallet by the given iban, loading it with the given loader on a miss.
+     * Ibans are stored in upper case, so the iban is normalized before it is used as the key
+     * and passed to the loader.
+     *
+     * @param iban
+     * @param loader returns null if the wallet does not exist
+     * @return id of the wallet, null if the wallet does not exist
+     */
+    public Long getWalletId(String iban, Function<String, Long> loader) {
+        return walletIds.get(normalizeIban(iban), loader);
+    }
+
+    /**
+     * Fetches the currency of the wallet by the given id, loading it with the given loader on a miss.
+     * Balance changes do not evict the currency, only the wallet updates do.
+     *
+     * @param id
+     * @param loader returns null if the wallet does not exist
+     * @return currency of the wallet, null if the wallet does not exist
+     */
+    public String getCurrency(Long id, Function<Long, String> loader) {
+        return currencies.get(id, loader);
+    }
+
+    /**
+     * Evicts the snapshots of the given wallets after the current transaction commits,
+     * or immediately when there is no transaction.
+     *
+     * @param ids
+     */
+    public void evictAfterCommit(Long... ids) {
+        afterCommit(() -> wallets.invalidateAll(Arrays.asList(ids)));
+    }
+
+    /**
+     * Evicts the wallet ids of the given ibans after the current transaction commits,
+     * or immediately when there is no transaction.
+     *
+     * @param ibans
+     */
+    public void evictIbansAfterCommit(String... ibans) {
+        afterCommit(() -> walletIds.invalidateAll(Arrays.stream(ibans).map(WalletCache::normalizeIban).toList()));
+    }
+
+    /**
+     * Evicts the currencies of the given wallets after the current transaction commits,
+     * or immediately when there is no transaction.
+     *
+     * @param ids
+     */
+    public void evictCurrenciesAfterCommit(Long... ids) {
+        afterCommit(() -> currencies.invalidateAll(Arrays.asList(ids)));
+    }
+
+    public static String normalizeIban(String iban) {
+        return StringUtils.upperCase(StringUtils.deleteWhitespace(iban));
+    }
+
+    private void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+}
@@ -7,6 +7,11 @@ public class Constants {
 
     public static final String ALLOWED_ORIGIN = "http://localhost:3000";
     public static final String TRACE = "trace";
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int EXPORT_FETCH_SIZE = 1000;
+    public static final int SIGNUP_BATCH_MAX_SIZE = 5000;
     public static final String DATE_FORMAT = "dd.MM.yyyy";
     public static final String DATE_TIME_FORMAT = "dd.MM.yyyy HH:mm:ss";
     public static final int IBAN_MIN_SIZE = 15;
@@ -9,12 +9,25 @@ public final class MessageKeys {
     // info messages
     public static final String INFO_USER_LOGIN = "info.user.login";
     public static final String INFO_USER_CREATED = "info.user.created";
+    public static final String INFO_USER_PASSWORD_REHASHED = "info.user.password.rehashed";
+    public static final String INFO_USER_TOKEN_REFRESHED = "info.user.token.refreshed";
+    public static final String INFO_USER_LOGOUT = "info.user.logout";
+    public static final String INFO_SIGNUP_CHUNK_COMPLETED = "info.signup.chunk.completed";
+    public static final String INFO_EXPIRED_TOKENS_DELETED = "info.expired.tokens.deleted";
     public static final String INFO_WALLET_CREATED = "info.wallet.created";
     public static final String INFO_TRANSACTION_CREATED = "info.transaction.created";
     public static final String INFO_WALLET_UPDATED = "info.wallet.updated";
     public static final String INFO_WALLET_DELETED = "info.wallet.deleted";
     public static final String INFO_WALLET_BALANCE_UPDATED = "info.wallet.balance.updated";
     public static final String INFO_WALLET_BALANCES_UPDATED = "info.wallet.balances.updated";
+    public static final String INFO_TRANSFER_CHUNK_COMPLETED = "info.transfer.chunk.completed";
+    public static final String INFO_TRANSACTION_SUBMITTED = "info.transaction.submitted";
+    public static final String INFO_IDEMPOTENT_REPLAY = "info.idempotent.replay";
+    public static final String INFO_PENDING_TRANSACTIONS_DECIDED = "info.pending.transactions.decided";
+    public static final String INFO_TRANSACTIONS_EXPORTED = "info.transactions.exported";
+    public static final String INFO_PENDING_SWEEP_COMPLETED = "info.pending.sweep.completed";
+    public static final String INFO_WALLET_SNAPSHOTS_TAKEN = "info.wallet.snapshots.taken";
+    public static final String INFO_TRANSACTIONS_ARCHIVED = "info.transactions.archived";
 
     // exception messages
     public static final String ERROR_UNKNOWN = "error.unknown";
@@ -27,17 +40,37 @@ public final class MessageKeys {
     public static final String ERROR_JWT_EXPIRED = "error.jwt.expired";
     public static final String ERROR_JWT_UNSUPPORTED = "error.jwt.unsupported";
     public static final String ERROR_JWT_EMPTY_CLAIMS = "error.jwt.empty.claims";
+    public static final String ERROR_JWT_MISSING_CLAIMS = "error.jwt.missing.claims";
+    public static final String ERROR_JWT_REVOKED = "error.jwt.revoked";
+    public static final String ERROR_REFRESH_TOKEN_INVALID = "error.refresh.token.invalid";
+    public static final String ERROR_USER_DISABLED = "error.user.disabled";
+    public static final String ERROR_PASSWORD_HASHING_BUSY = "error.password.hashing.busy";
     public static final String ERROR_VALIDATION = "error.validation";
     public static final String ERROR_METHOD_ARGUMENT = "error.method.argument";
     public static final String ERROR_FIELD_VALIDATION = "error.field.validation";
     public static final String ERROR_ALREADY_EXISTS = "error.already.exists";
     public static final String ERROR_USERNAME_EXISTS = "error.username.exists";
     public static final String ERROR_EMAIL_EXISTS = "error.email.exists";
+    public static final String ERROR_ROLE_INVALID = "error.role.invalid";
     public static final String ERROR_WALLET_IBAN_EXISTS = "error.wallet.iban.exists";
     public static final String ERROR_WALLET_NAME_EXISTS = "error.wallet.name.exists";
     public static final String ERROR_NOT_FOUND = "error.not.found";
     public static final String ERROR_NO_RECORDS = "error.no.records";
+    public static final String ERROR_USER_NOT_FOUND = "error.user.not.found";
     public static final String ERROR_WALLET_NOT_FOUND = "error.wallet.not.found";
     public static final String ERROR_TRANSACTION_NOT_FOUND = "error.transaction.not.found";
+    public static final String ERROR_TYPE_NOT_FOUND = "error.type.not.found";
     public static final String ERROR_INSUFFICIENT_FUNDS = "error.insufficient.funds";
+    public static final String ERROR_AMOUNT_SCALE = "error.amount.scale";
+    public static final String ERROR_SAME_WALLET_TRANSFER = "error.same.wallet.transfer";
+    public static final String ERROR_INVALID_CURRENCY = "error.invalid.currency";
+    public static final String ERROR_TRANSFER_CHUNK_FAILED = "error.transfer.chunk.failed";
+    public static final String ERROR_WALLET_LOCK_TIMEOUT = "error.wallet.lock.timeout";
+    public static final String ERROR_CONCURRENT_UPDATE = "error.concurrent.update";
+    public static final String ERROR_SUBMISSION_REJECTED = "error.submission.rejected";
+    public static final String ERROR_SUBMISSION_FAILED = "error.submission.failed";
+    public static final String ERROR_INVALID_CURSOR = "error.invalid.cursor";
+    public static final String ERROR_INVALID_PAGE_SIZE = "error.invalid.page.size";
+    public static final String ERROR_INVALID_SORT = "error.invalid.sort";
+    public static final String ERROR_IDEMPOTENCY_KEY_REUSED = "error.idempotency.key.reused";
 }
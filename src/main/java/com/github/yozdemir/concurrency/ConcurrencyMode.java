@@ -0,0 +1,18 @@
+package com.github.yozdemir.concurrency;
+
+/**
+ * Strategy used for protecting wallet balances against concurrent mutations.
+ */
+public enum ConcurrencyMode {
+
+    /**
+     * Wallets are locked in the application for the duration of the transaction.
+     */
+    PESSIMISTIC,
+
+    /**
+     * No application lock is taken; conflicts are detected by the wallet version and
+     * the database row locks, and the failed operation is retried.
+     */
+    OPTIMISTIC
+}
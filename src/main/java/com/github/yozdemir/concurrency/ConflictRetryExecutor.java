@@ -0,0 +1,138 @@
+package com.github.yozdemir.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Executes wallet mutations and retries them when they fail because of a concurrent update
+ * (optimistic lock failure, lock timeout or deadlock).
+ * Retries are bounded by a maximum number of attempts and by a retry budget: every call
+ * deposits a fraction of a token and every retry withdraws a whole token, so retries can
+ * never exceed the configured ratio of the traffic on a hot wallet. Retries wait for a
+ * random (full jitter) exponential backoff so that the conflicting callers spread out.
+ */
+@Slf4j
+@Component
+public class ConflictRetryExecutor {
+
+    private static final String METRIC_PREFIX = "wallet.mutation.";
+    private static final String TAG_OPERATION = "operation";
+    private static final long TOKEN = 1000;
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final long depositPerCall;
+    private final long capacity;
+
+    // available retry budget in thousandths of a token
+    private final AtomicLong budget;
+
+    public ConflictRetryExecutor(MeterRegistry meterRegistry,
+                                 @Value("${app.wallet.retry.maxAttempts:5}") int maxAttempts,
+                                 @Value("${app.wallet.retry.initialBackoffMs:10}") long initialBackoffMs,
+                                 @Value("${app.wallet.retry.maxBackoffMs:200}") long maxBackoffMs,
+                                 @Value("${app.wallet.retry.budgetRatio:0.2}") double budgetRatio,
+                                 @Value("${app.wallet.retry.budgetCapacity:50}") int budgetCapacity) {
+        if (maxAttempts < 1)
+            throw new IllegalArgumentException("Max attempts must be positive: " + maxAttempts);
+
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.depositPerCall = Math.round(budgetRatio * TOKEN);
+        this.capacity = (long) budgetCapacity * TOKEN;
+        this.budget = new AtomicLong(capacity);
+        Gauge.builder(METRIC_PREFIX + "retry.budget", budget, value -> (double) value.get() / TOKEN)
+                .description("Available wallet mutation retries")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the given action and retries it on concurrency failures. The action must start
+     * its own transaction; when it joins an already running transaction it is not retried,
+     * since that transaction is marked as rollback-only by then.
+     *
+     * @param operation
+     * @param action
+     * @return result of the action
+     */
+    public <T> T execute(String operation, Supplier<T> action) {
+        counter("calls", operation).increment();
+        deposit();
+        final boolean retryable = !TransactionSynchronizationManager.isActualTransactionActive();
+
+        int attempt = 1;
+        while (true) {
+            try {
+                final T result = action.get();
+                attempts(operation).record(attempt);
+                return result;
+            } catch (ConcurrencyFailureException ex) {
+                counter("conflicts", operation).increment();
+                final String reason = !retryable ? "nested" :
+                        attempt >= maxAttempts ? "attempts" :
+                                !withdraw() ? "budget" : null;
+                if (reason != null) {
+                    attempts(operation).record(attempt);
+                    counter("failures", operation, "reason", reason).increment();
+                    throw ex;
+                }
+                log.debug("Concurrent update on {}, retrying (attempt: {})", operation, attempt);
+                counter("retries", operation).increment();
+                backoff(attempt, ex);
+                attempt++;
+            }
+        }
+    }
+
+    long getAvailableBudget() {
+        return budget.get() / TOKEN;
+    }
+
+    private void backoff(int attempt, ConcurrencyFailureException ex) {
+        final long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        final long delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            TimeUnit.MILLISECONDS.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw ex;
+        }
+    }
+
+    private void deposit() {
+        budget.getAndUpdate(value -> Math.min(capacity, value + depositPerCall));
+    }
+
+    private boolean withdraw() {
+        return budget.getAndUpdate(value -> value >= TOKEN ? value - TOKEN : value) >= TOKEN;
+    }
+
+    private Counter counter(String name, String operation, String... tags) {
+        return Counter.builder(METRIC_PREFIX + name)
+                .tag(TAG_OPERATION, operation)
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    private DistributionSummary attempts(String operation) {
+        return DistributionSummary.builder(METRIC_PREFIX + "attempts")
+                .tag(TAG_OPERATION, operation)
+                .register(meterRegistry);
+    }
+}
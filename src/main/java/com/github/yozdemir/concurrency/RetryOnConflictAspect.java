@@ -0,0 +1,39 @@
+package com.github.yozdemir.concurrency;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * Aspect applying the {@link ConflictRetryExecutor} to the methods annotated with {@link RetryOnConflict}.
+ * It is ordered before the transaction interceptor, so that every attempt runs in a new transaction.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class RetryOnConflictAspect {
+
+    private final ConflictRetryExecutor retryExecutor;
+
+    @Around("@annotation(com.github.yozdemir.concurrency.RetryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint) {
+        final String operation = joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "." + joinPoint.getSignature().getName();
+        return retryExecutor.execute(operation, () -> {
+            try {
+                return joinPoint.proceed();
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new UndeclaredThrowableException(ex);
+            }
+        });
+    }
+}
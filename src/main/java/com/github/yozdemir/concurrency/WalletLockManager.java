@@ -0,0 +1,155 @@
+package com.github.yozdemir.concurrency;
+
+import com.github.yozdemir.config.MessageSourceConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.github.yozdemir.common.MessageKeys.ERROR_WALLET_LOCK_TIMEOUT;
+
+/**
+ * Striped lock table used for serializing balance mutations per wallet.
+ * Wallet ids are hashed onto a fixed number of stripes and the stripes of a single
+ * operation are always acquired in ascending index order, so two-wallet transfers
+ * running in opposite directions cannot deadlock.
+ * In {@link ConcurrencyMode#OPTIMISTIC} mode no lock is bound to the transactions.
+ */
+@Slf4j
+@Component
+public class WalletLockManager {
+
+    private final MessageSourceConfig messageConfig;
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final long timeoutMs;
+    private final ConcurrencyMode mode;
+
+    public WalletLockManager(MessageSourceConfig messageConfig,
+                             @Value("${app.wallet.lockStripes:64}") int stripeCount,
+                             @Value("${app.wallet.lockTimeoutMs:5000}") long timeoutMs,
+                             @Value("${app.wallet.concurrencyMode:PESSIMISTIC}") ConcurrencyMode mode) {
+        if (stripeCount < 1)
+            throw new IllegalArgumentException("Stripe count must be positive: " + stripeCount);
+
+        // round up to a power of two so the stripe index can be computed with a mask
+        int size = 1;
+        while (size < stripeCount) {
+            size <<= 1;
+        }
+        this.messageConfig = messageConfig;
+        this.stripes = new ReentrantLock[size];
+        this.mask = size - 1;
+        this.timeoutMs = timeoutMs;
+        this.mode = mode;
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Acquires the locks of the given wallets and keeps them until the surrounding
+     * transaction completes, so that no other writer can observe the uncommitted balances.
+     * Does nothing in optimistic mode.
+     *
+     * @param walletIds
+     */
+    public void lockForTransaction(Long... walletIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+            throw new IllegalStateException("Wallet locks can only be bound to an active transaction");
+        if (mode == ConcurrencyMode.OPTIMISTIC)
+            return;
+
+        final WalletLocks locks = lock(walletIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                locks.close();
+            }
+        });
+    }
+
+    /**
+     * Acquires the locks of the given wallets. The returned handle must be closed by the same thread.
+     *
+     * @param walletIds
+     * @return WalletLocks
+     */
+    public WalletLocks lock(Long... walletIds) {
+        final int[] indexes = stripeIndexes(walletIds);
+        int acquired = 0;
+        try {
+            for (int index : indexes) {
+                if (!stripes[index].tryLock(timeoutMs, TimeUnit.MILLISECONDS))
+                    throw new CannotAcquireLockException(
+                            messageConfig.getMessage(ERROR_WALLET_LOCK_TIMEOUT, Arrays.toString(walletIds), timeoutMs));
+                acquired++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            unlock(indexes, acquired);
+            throw new CannotAcquireLockException(
+                    messageConfig.getMessage(ERROR_WALLET_LOCK_TIMEOUT, Arrays.toString(walletIds), timeoutMs), e);
+        } catch (RuntimeException e) {
+            unlock(indexes, acquired);
+            throw e;
+        }
+        return new WalletLocks(indexes);
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    public ConcurrencyMode getMode() {
+        return mode;
+    }
+
+    int stripeIndex(long walletId) {
+        final int hash = Long.hashCode(walletId);
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private int[] stripeIndexes(Long... walletIds) {
+        return Arrays.stream(walletIds)
+                .filter(Objects::nonNull)
+                .mapToInt(this::stripeIndex)
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
+    private void unlock(int[] indexes, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            stripes[indexes[i]].unlock();
+        }
+    }
+
+    /**
+     * Handle of the stripes acquired for a single operation.
+     */
+    public final class WalletLocks implements AutoCloseable {
+
+        private final int[] indexes;
+        private boolean released;
+
+        private WalletLocks(int[] indexes) {
+            this.indexes = indexes;
+        }
+
+        @Override
+        public void close() {
+            if (released)
+                return;
+            released = true;
+            unlock(indexes, indexes.length);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.github.yozdemir.concurrency;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Worker pool partitioned by wallet id. Every partition is served by a single thread, so the
+ * tasks of the same wallet are executed one by one in submission order and never contend
+ * with each other. Each partition has a bounded queue; a task is rejected when its queue is full.
+ * The worker of a partition is the single writer of its wallets for the operations routed here, so those
+ * operations do not need the wallet locks of the wallets they write.
+ */
+@Slf4j
+@Component
+public class WalletPartitionedExecutor {
+
+    private final ExecutorService[] partitions;
+    private final long shutdownTimeoutMs;
+    // partition served by the current thread, null on the other threads
+    private final ThreadLocal<Integer> workerPartition = new ThreadLocal<>();
+
+    public WalletPartitionedExecutor(@Value("${app.wallet.async.partitions:8}") int partitionCount,
+                                     @Value("${app.wallet.async.queueCapacity:1000}") int queueCapacity,
+                                     @Value("${app.wallet.async.shutdownTimeoutMs:10000}") long shutdownTimeoutMs) {
+        if (partitionCount < 1)
+            throw new IllegalArgumentException("Partition count must be positive: " + partitionCount);
+
+        this.partitions = new ExecutorService[partitionCount];
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        for (int i = 0; i < partitionCount; i++) {
+            final int partition = i;
+            final String threadName = "wallet-worker-" + i;
+            final AtomicInteger threads = new AtomicInteger();
+            partitions[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(queueCapacity),
+                    task -> new Thread(() -> {
+                        workerPartition.set(partition);
+                        task.run();
+                    }, threadName + "-" + threads.incrementAndGet()));
+        }
+    }
+
+    /**
+     * Queues the given task on the partition of the given wallet.
+     *
+     * @param walletId
+     * @param task
+     * @throws RejectedExecutionException if the queue of the partition is full
+     */
+    public void execute(long walletId, Runnable task) {
+        partitions[partition(walletId)].execute(task);
+    }
+
+    /**
+     * Runs the given task on the partition of the given wallet and waits for its result.
+     * The task is run directly when the current thread is already the worker of that partition.
+     *
+     * @param walletId
+     * @param task
+     * @return result of the task
+     * @throws RejectedExecutionException if the queue of the partition is full
+     */
+    public <T> T executeAndWait(long walletId, Supplier<T> task) {
+        if (isWorkerOf(walletId))
+            return task.get();
+
+        final FutureTask<T> result = new FutureTask<>(task::get);
+        execute(walletId, result);
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Checks whether the current thread is the worker of the partition of the given wallet.
+     *
+     * @param walletId
+     * @return true if the current thread is the single writer of the wallet
+     */
+    public boolean isWorkerOf(long walletId) {
+        final Integer partition = workerPartition.get();
+        return partition != null && partition == partition(walletId);
+    }
+
+    public int getPartitionCount() {
+        return partitions.length;
+    }
+
+    int partition(long walletId) {
+        return Math.floorMod(Long.hashCode(walletId), partitions.length);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (ExecutorService partition : partitions) {
+            partition.shutdown();
+        }
+        // let the accepted tasks finish, they are only kept in memory
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMs);
+        for (ExecutorService partition : partitions) {
+            if (!partition.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS))
+                log.warn("Wallet worker did not finish its queued tasks, {} task(s) dropped",
+                        partition.shutdownNow().size());
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.github.yozdemir.config;
 
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import com.github.yozdemir.domain.value.MoneyDeserializer;
+import com.github.yozdemir.domain.value.MoneySerializer;
 import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -20,6 +22,8 @@ public class AppConfig {
             builder.simpleDateFormat(DATE_TIME_FORMAT);
             builder.serializers(new LocalDateSerializer(DateTimeFormatter.ofPattern(DATE_FORMAT)));
             builder.serializers(new LocalDateTimeSerializer(DateTimeFormatter.ofPattern(DATE_TIME_FORMAT)));
+            builder.serializers(new MoneySerializer());
+            builder.deserializers(new MoneyDeserializer());
         };
     }
 }
@@ -1,13 +1,17 @@
 package com.github.yozdemir.config;
 
+import com.github.yozdemir.domain.value.Money;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.enums.SecuritySchemeType;
 import io.swagger.v3.oas.annotations.info.Contact;
 import io.swagger.v3.oas.annotations.info.Info;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.security.SecurityScheme;
+import org.springdoc.core.utils.SpringDocUtils;
 import org.springframework.context.annotation.Configuration;
 
+import java.math.BigDecimal;
+
 @Configuration
 @OpenAPIDefinition(info = @Info(title = "ING Hub e-wallet", version = "1.0",
         description = "Application used for a digital wallet designed for ING hub",
@@ -16,4 +20,9 @@ import org.springframework.context.annotation.Configuration;
 )
 @SecurityScheme(name = "bearerToken", type = SecuritySchemeType.HTTP, scheme = "bearer", bearerFormat = "JWT")
 public class OpenApiConfig {
+
+    static {
+        // amounts are documented as the decimal numbers they are serialized to
+        SpringDocUtils.getConfig().replaceWithClass(Money.class, BigDecimal.class);
+    }
 }
@@ -3,6 +3,7 @@ package com.github.yozdemir.config;
 import com.github.yozdemir.security.AuthEntryPointJwt;
 import com.github.yozdemir.security.AuthTokenFilter;
 import com.github.yozdemir.security.JwtUtils;
+import com.github.yozdemir.security.RevokedTokenSet;
 import com.github.yozdemir.security.UserDetailsServiceImpl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
@@ -14,7 +15,6 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -36,6 +36,9 @@ public class SecurityConfig {
     private final UserDetailsServiceImpl userDetailsService;
     private final MessageSourceConfig messageConfig;
     private final JwtUtils jwtUtils;
+    private final RevokedTokenSet revokedTokenSet;
+    // hashes on its own bounded pool, see PooledPasswordEncoder
+    private final PasswordEncoder passwordEncoder;
 
     private static final String[] AUTH_WHITELIST = {
             "/api/v1/auth/**",
@@ -47,14 +50,16 @@ public class SecurityConfig {
 
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
-        return new AuthTokenFilter(messageConfig, jwtUtils, userDetailsService);
+        return new AuthTokenFilter(messageConfig, jwtUtils, userDetailsService, revokedTokenSet);
     }
 
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
         final DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        // passwords hashed with another cost are hashed again on login
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
@@ -63,11 +68,6 @@ public class SecurityConfig {
         return authConfig.getAuthenticationManager();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity httpSecurity) throws Exception {
         httpSecurity
@@ -76,6 +76,9 @@ public class SecurityConfig {
                 .exceptionHandling().authenticationEntryPoint(authEntryPointJwt).and()
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS).and()
                 .authorizeHttpRequests()
+                // bulk signups are made by the admins and logouts by the owner of the tokens,
+                // unlike the other auth endpoints
+                .requestMatchers("/api/v1/auth/signup/batch", "/api/v1/auth/logout").authenticated()
                 .requestMatchers(AUTH_WHITELIST).permitAll()
                 .anyRequest().authenticated();
 
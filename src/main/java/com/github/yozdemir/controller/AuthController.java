@@ -1,19 +1,32 @@
 package com.github.yozdemir.controller;
 
 import com.github.yozdemir.dto.request.LoginRequest;
+import com.github.yozdemir.dto.request.RefreshTokenRequest;
 import com.github.yozdemir.dto.request.SignupRequest;
 import com.github.yozdemir.dto.response.CommandResponse;
 import com.github.yozdemir.dto.response.JwtResponse;
+import com.github.yozdemir.dto.response.SignupResultResponse;
+import com.github.yozdemir.security.UserDetailsImpl;
 import com.github.yozdemir.service.AuthService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
+import static com.github.yozdemir.common.Constants.SIGNUP_BATCH_MAX_SIZE;
+
+@Validated
 @RestController
 @RequestMapping("/api/v1/auth")
 @RequiredArgsConstructor
@@ -28,9 +41,31 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<JwtResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        final JwtResponse response = authService.refresh(request);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@AuthenticationPrincipal UserDetailsImpl userDetails,
+                                       @Valid @RequestBody RefreshTokenRequest request) {
+        authService.logout(userDetails.getId(), request);
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/signup")
     public ResponseEntity<CommandResponse> signup(@Valid @RequestBody SignupRequest request) {
         final CommandResponse response = authService.signup(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
+
+    @PreAuthorize("hasRole(T(com.github.yozdemir.domain.enums.RoleType).ROLE_ADMIN)")
+    @PostMapping("/signup/batch")
+    public ResponseEntity<List<SignupResultResponse>> signupBatch(
+            @NotEmpty @Size(max = SIGNUP_BATCH_MAX_SIZE, message = "{validation.signup.batch.size}")
+            @RequestBody List<@Valid SignupRequest> requests) {
+        final List<SignupResultResponse> response = authService.signupBatch(requests);
+        return ResponseEntity.ok(response);
+    }
 }
@@ -1,23 +1,51 @@
 package com.github.yozdemir.controller;
 
+import com.github.yozdemir.domain.enums.ExportFormat;
+import com.github.yozdemir.domain.enums.Status;
+import com.github.yozdemir.dto.request.TransactionSearchRequest;
+import com.github.yozdemir.dto.response.BulkDecisionResponse;
+import com.github.yozdemir.dto.response.CursorPage;
+import com.github.yozdemir.dto.response.SubmissionResponse;
 import com.github.yozdemir.dto.response.TransactionResponse;
+import com.github.yozdemir.security.UserDetailsImpl;
+import com.github.yozdemir.service.PendingTransactionService;
+import com.github.yozdemir.service.TransactionExportService;
 import com.github.yozdemir.service.TransactionService;
+import com.github.yozdemir.service.TransactionSubmissionService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.List;
 import java.util.UUID;
 
+import static com.github.yozdemir.common.Constants.DEFAULT_PAGE_SIZE;
+import static com.github.yozdemir.common.Constants.MAX_PAGE_SIZE;
+
+@Validated
 @RestController
 @RequestMapping("/api/v1/transactions")
 @RequiredArgsConstructor
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final TransactionSubmissionService transactionSubmissionService;
+    private final PendingTransactionService pendingTransactionService;
+    private final TransactionExportService transactionExportService;
 
     @PreAuthorize("hasRole(T(com.github.yozdemir.domain.enums.RoleType).ROLE_USER)")
     @GetMapping("/{id}")
@@ -33,6 +61,20 @@ public class TransactionController {
         return ResponseEntity.ok(response);
     }
 
+    @PreAuthorize("hasRole(T(com.github.yozdemir.domain.enums.RoleType).ROLE_USER)")
+    @PostMapping("/pending/approve")
+    public ResponseEntity<BulkDecisionResponse> approveAll(@NotEmpty @RequestBody List<@NotNull Long> ids) {
+        final BulkDecisionResponse response = pendingTransactionService.decide(ids, Status.APPROVED);
+        return ResponseEntity.ok(response);
+    }
+
+    @PreAuthorize("hasRole(T(com.github.yozdemir.domain.enums.RoleType).ROLE_USER)")
+    @PostMapping("/pending/deny")
+    public ResponseEntity<BulkDecisionResponse> denyAll(@NotEmpty @RequestBody List<@NotNull Long> ids) {
+        final BulkDecisionResponse response = pendingTransactionService.decide(ids, Status.DENIED);
+        return ResponseEntity.ok(response);
+    }
+
     @PreAuthorize("hasRole(T(com.github.yozdemir.domain.enums.RoleType).ROLE_USER)")
     @GetMapping("/references/{referenceNumber}")
     public ResponseEntity<TransactionResponse> findByReferenceNumber(@PathVariable UUID referenceNumber) {
@@ -40,17 +82,58 @@ public class TransactionController {
         return ResponseEntity.ok(response);
     }
 
+    @PreAuthorize("hasRole(T(com.github.yozdemir.domain.enums.RoleType).ROLE_USER)")
+    @GetMapping("/submissions/{referenceNumber}")
+    public ResponseEntity<SubmissionResponse> findSubmissionByReferenceNumber(@AuthenticationPrincipal UserDetailsImpl userDetails,
+                                                                              @PathVariable UUID referenceNumber) {
+        final SubmissionResponse response = transactionSubmissionService.findByReferenceNumber(userDetails.getId(), referenceNumber);
+        return ResponseEntity.ok(response);
+    }
+
     @PreAuthorize("hasRole(T(com.github.yozdemir.domain.enums.RoleType).ROLE_USER)")
     @GetMapping("/users/{userId}")
-    public ResponseEntity<Page<TransactionResponse>> findAllByUserId(@PathVariable long userId) {
-        final Page<TransactionResponse> response = new PageImpl<>(transactionService.findAllByUserId(userId));
+    public ResponseEntity<CursorPage<TransactionResponse>> findAllByUserId(
+            @PathVariable long userId,
+            @RequestParam(required = false) String cursor,
+            @Min(1) @Max(MAX_PAGE_SIZE) @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        final CursorPage<TransactionResponse> response = transactionService.findAllByUserId(userId, cursor, size);
+        return ResponseEntity.ok(response);
+    }
+
+    @PreAuthorize("hasRole(T(com.github.yozdemir.domain.enums.RoleType).ROLE_USER)")
+    @GetMapping("/users/{userId}/recent")
+    public ResponseEntity<List<TransactionResponse>> findRecentByUserId(@PathVariable long userId) {
+        final List<TransactionResponse> response = transactionService.findRecentByUserId(userId);
+        return ResponseEntity.ok(response);
+    }
+
+    @PreAuthorize("hasRole(T(com.github.yozdemir.domain.enums.RoleType).ROLE_USER)")
+    @GetMapping("/search")
+    public ResponseEntity<Slice<TransactionResponse>> search(@Valid TransactionSearchRequest filter, Pageable pageable) {
+        final Slice<TransactionResponse> response = transactionService.search(filter, pageable);
         return ResponseEntity.ok(response);
     }
 
+    @PreAuthorize("hasRole(T(com.github.yozdemir.domain.enums.RoleType).ROLE_USER)")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) Long userId,
+                                                        @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        // rows are written by the async request thread while they are read from the database
+        final StreamingResponseBody response = out -> transactionExportService.export(userId, format, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("transactions." + format.getExtension())
+                        .build()
+                        .toString())
+                .body(response);
+    }
+
     @PreAuthorize("hasRole(T(com.github.yozdemir.domain.enums.RoleType).ROLE_USER)")
     @GetMapping
-    public ResponseEntity<Page<TransactionResponse>> findAll(Pageable pageable) {
-        final Page<TransactionResponse> response = transactionService.findAll(pageable);
+    public ResponseEntity<Slice<TransactionResponse>> findAll(Pageable pageable,
+                                                     @RequestParam(defaultValue = "false") boolean count) {
+        final Slice<TransactionResponse> response = transactionService.findAll(pageable, count);
         return ResponseEntity.ok(response);
     }
 }
@@ -0,0 +1,28 @@
+package com.github.yozdemir.controller;
+
+import com.github.yozdemir.dto.response.UserResponse;
+import com.github.yozdemir.security.UserDetailsImpl;
+import com.github.yozdemir.service.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/users")
+@RequiredArgsConstructor
+public class UserController {
+
+    private final UserService userService;
+
+    // personal details of the user are not carried in the token, they are read here
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping("/me")
+    public ResponseEntity<UserResponse> findCurrent(@AuthenticationPrincipal UserDetailsImpl userDetails) {
+        final UserResponse response = userService.findById(userDetails.getId());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -3,25 +3,41 @@ package com.github.yozdemir.controller;
 import com.github.yozdemir.dto.request.TransactionRequest;
 import com.github.yozdemir.dto.request.WalletRequest;
 import com.github.yozdemir.dto.response.CommandResponse;
+import com.github.yozdemir.dto.response.SubmissionResponse;
+import com.github.yozdemir.dto.response.TransferResultResponse;
+import com.github.yozdemir.dto.response.WalletBalanceResponse;
 import com.github.yozdemir.dto.response.WalletResponse;
+import com.github.yozdemir.security.UserDetailsImpl;
+import com.github.yozdemir.service.TransactionSubmissionService;
+import com.github.yozdemir.service.WalletBalanceService;
 import com.github.yozdemir.service.WalletService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.UUID;
 
+import static com.github.yozdemir.common.Constants.IDEMPOTENCY_KEY;
+
+@Validated
 @RestController
 @RequestMapping("/api/v1/wallets")
 @RequiredArgsConstructor
 public class WalletController {
 
     private final WalletService walletService;
+    private final TransactionSubmissionService transactionSubmissionService;
+    private final WalletBalanceService walletBalanceService;
 
     @PreAuthorize("hasRole(T(com.github.yozdemir.domain.enums.RoleType).ROLE_USER)")
     @GetMapping("/{id}")
@@ -30,6 +46,13 @@ public class WalletController {
         return ResponseEntity.ok(response);
     }
 
+    @PreAuthorize("hasRole(T(com.github.yozdemir.domain.enums.RoleType).ROLE_USER)")
+    @GetMapping("/{id}/balance")
+    public ResponseEntity<WalletBalanceResponse> findBalanceAt(@PathVariable long id, @RequestParam Instant at) {
+        final WalletBalanceResponse response = walletBalanceService.findBalanceAt(id, at);
+        return ResponseEntity.ok(response);
+    }
+
     @PreAuthorize("hasRole(T(com.github.yozdemir.domain.enums.RoleType).ROLE_USER)")
     @GetMapping("/iban/{iban}")
     public ResponseEntity<WalletResponse> findByIban(@PathVariable String iban) {
@@ -46,8 +69,9 @@ public class WalletController {
 
     @PreAuthorize("hasRole(T(com.github.yozdemir.domain.enums.RoleType).ROLE_USER)")
     @GetMapping
-    public ResponseEntity<Page<WalletResponse>> findAll(Pageable pageable) {
-        final Page<WalletResponse> response = walletService.findAll(pageable);
+    public ResponseEntity<Slice<WalletResponse>> findAll(Pageable pageable,
+                                                     @RequestParam(defaultValue = "false") boolean count) {
+        final Slice<WalletResponse> response = walletService.findAll(pageable, count);
         return ResponseEntity.ok(response);
     }
 
@@ -61,12 +85,52 @@ public class WalletController {
 
     @PreAuthorize("hasRole(T(com.github.yozdemir.domain.enums.RoleType).ROLE_USER)")
     @PostMapping("/addFunds")
-    public ResponseEntity<CommandResponse> addFunds(@Valid @RequestBody TransactionRequest request) {
-        final CommandResponse response = walletService.addFunds(request);
+    public ResponseEntity<CommandResponse> addFunds(@RequestHeader(value = IDEMPOTENCY_KEY, required = false) UUID idempotencyKey,
+                                                    @AuthenticationPrincipal UserDetailsImpl userDetails,
+                                                    @Valid @RequestBody TransactionRequest request) {
+        setReferenceNumber(request, idempotencyKey);
+        final CommandResponse response = transactionSubmissionService.addFunds(userDetails.getId(), request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
 
+    @PreAuthorize("hasRole(T(com.github.yozdemir.domain.enums.RoleType).ROLE_USER)")
+    @PostMapping("/transfers")
+    public ResponseEntity<SubmissionResponse> submitTransfer(@RequestHeader(value = IDEMPOTENCY_KEY, required = false) UUID idempotencyKey,
+                                                             @AuthenticationPrincipal UserDetailsImpl userDetails,
+                                                             @Valid @RequestBody TransactionRequest request) {
+        setReferenceNumber(request, idempotencyKey);
+        final SubmissionResponse response = transactionSubmissionService.submitTransfer(userDetails.getId(), request);
+        return ResponseEntity.accepted().body(response);
+    }
+
+    @PreAuthorize("hasRole(T(com.github.yozdemir.domain.enums.RoleType).ROLE_USER)")
+    @PostMapping("/withdrawals")
+    public ResponseEntity<SubmissionResponse> submitWithdrawal(@RequestHeader(value = IDEMPOTENCY_KEY, required = false) UUID idempotencyKey,
+                                                               @AuthenticationPrincipal UserDetailsImpl userDetails,
+                                                               @Valid @RequestBody TransactionRequest request) {
+        setReferenceNumber(request, idempotencyKey);
+        final SubmissionResponse response = transactionSubmissionService.submitWithdrawal(userDetails.getId(), request);
+        return ResponseEntity.accepted().body(response);
+    }
+
+    @PreAuthorize("hasRole(T(com.github.yozdemir.domain.enums.RoleType).ROLE_USER)")
+    @PostMapping("/deposits")
+    public ResponseEntity<SubmissionResponse> submitDeposit(@RequestHeader(value = IDEMPOTENCY_KEY, required = false) UUID idempotencyKey,
+                                                            @AuthenticationPrincipal UserDetailsImpl userDetails,
+                                                            @Valid @RequestBody TransactionRequest request) {
+        setReferenceNumber(request, idempotencyKey);
+        final SubmissionResponse response = transactionSubmissionService.submitDeposit(userDetails.getId(), request);
+        return ResponseEntity.accepted().body(response);
+    }
+
+    @PreAuthorize("hasRole(T(com.github.yozdemir.domain.enums.RoleType).ROLE_USER)")
+    @PostMapping("/transfers/batch")
+    public ResponseEntity<List<TransferResultResponse>> transferFundsBatch(@NotEmpty @RequestBody List<@Valid TransactionRequest> requests) {
+        final List<TransferResultResponse> response = walletService.transferFundsBatch(requests);
+        return ResponseEntity.ok(response);
+    }
+
     @PreAuthorize("hasRole(T(com.github.yozdemir.domain.enums.RoleType).ROLE_USER)")
     @PutMapping("/{id}")
     public ResponseEntity<CommandResponse> update(@PathVariable long id, @Valid @RequestBody WalletRequest request) {
@@ -74,4 +138,9 @@ public class WalletController {
         return ResponseEntity.ok(response);
     }
 
+    private void setReferenceNumber(TransactionRequest request, UUID idempotencyKey) {
+        // the header takes precedence over the reference number in the body
+        if (idempotencyKey != null)
+            request.setReferenceNumber(idempotencyKey);
+    }
 }
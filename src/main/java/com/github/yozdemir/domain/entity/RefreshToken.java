@@ -0,0 +1,43 @@
+package com.github.yozdemir.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Single use token of a user, exchanged for a new access token without the password.
+ * Only the SHA-256 digest of the token is stored.
+ */
+@Getter
+@Setter
+@Entity
+@Table(indexes = @Index(name = "refresh_token_token_hash_key", columnList = "tokenHash", unique = true))
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(
+            strategy = GenerationType.SEQUENCE,
+            generator = "refresh_token_seq_gen"
+    )
+    @SequenceGenerator(
+            name = "refresh_token_seq_gen",
+            sequenceName = "refresh_token_seq",
+            allocationSize = 50
+    )
+    private Long id;
+
+    @Column(length = 64, nullable = false)
+    private String tokenHash;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", referencedColumnName = "id", nullable = false)
+    private Users user;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
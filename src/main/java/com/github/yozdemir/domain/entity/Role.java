@@ -23,7 +23,7 @@ public class Role {
     @SequenceGenerator(
             name = "role_seq_gen",
             sequenceName = "role_seq",
-            allocationSize = 1
+            allocationSize = 50
     )
     private Long id;
 
@@ -1,18 +1,27 @@
 package com.github.yozdemir.domain.entity;
 
+import com.github.yozdemir.domain.enums.Operation;
 import com.github.yozdemir.domain.enums.Status;
+import com.github.yozdemir.domain.value.Money;
 import jakarta.persistence.*;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
 
 @Getter
 @Setter
 @Entity
+@Table(indexes = {
+        @Index(name = "transaction_status_created_at_idx", columnList = "status, createdAt"),
+        @Index(name = "transaction_from_wallet_latest_idx", columnList = "from_wallet_id DESC, createdAt DESC, id DESC"),
+        @Index(name = "transaction_to_wallet_latest_idx", columnList = "to_wallet_id DESC, createdAt DESC, id DESC"),
+        @Index(name = "transaction_from_wallet_decided_at_idx", columnList = "from_wallet_id, decidedAt"),
+        @Index(name = "transaction_to_wallet_decided_at_idx", columnList = "to_wallet_id, decidedAt"),
+        @Index(name = "transaction_decided_at_idx", columnList = "decidedAt")
+})
 @EqualsAndHashCode(of = {"referenceNumber"})
 public class Transaction {
 
@@ -24,12 +33,12 @@ public class Transaction {
     @SequenceGenerator(
             name = "transaction_seq_gen",
             sequenceName = "transaction_seq",
-            allocationSize = 1
+            allocationSize = 50
     )
     private Long id;
 
-    @Column(nullable = false)
-    private BigDecimal amount;
+    @Column(nullable = false, precision = 19, scale = 4)
+    private Money amount;
 
     @Column(length = 50)
     private String description;
@@ -37,13 +46,24 @@ public class Transaction {
     @Column(nullable = false)
     private Instant createdAt;
 
+    // time the balance change is effective, empty while pending
+    private Instant decidedAt;
+
     @Column(nullable = false, unique = true)
     private UUID referenceNumber;
 
+    @Column(length = 64)
+    private String requestHash;
+
     @Column(length = 20, nullable = false)
     @Enumerated(EnumType.STRING)
     private Status status;
 
+    // decides the direction of the balance change, the type is chosen by the client
+    @Column(length = 20, nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Operation operation;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "from_wallet_id", referencedColumnName = "id", nullable = false)
     private Wallet fromWallet;
@@ -0,0 +1,36 @@
+package com.github.yozdemir.domain.entity;
+
+import com.github.yozdemir.domain.enums.Operation;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Archived transaction. Decided transactions older than the archive age are moved here from the
+ * transactions and their read model, with the fields of their wallets, which are kept up to date
+ * on wallet updates as in the read model.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "transaction_archive", indexes = {
+        @Index(name = "transaction_archive_reference_number_key", columnList = "referenceNumber", unique = true),
+        @Index(name = "transaction_archive_from_user_latest_idx", columnList = "fromUserId DESC, createdAt DESC, id DESC"),
+        @Index(name = "transaction_archive_to_user_latest_idx", columnList = "toUserId DESC, createdAt DESC, id DESC"),
+        @Index(name = "transaction_archive_from_wallet_decided_at_idx", columnList = "fromWalletId, decidedAt"),
+        @Index(name = "transaction_archive_to_wallet_decided_at_idx", columnList = "toWalletId, decidedAt"),
+        @Index(name = "transaction_archive_decided_at_idx", columnList = "decidedAt")
+})
+public class TransactionArchive extends TransactionRecord {
+
+    @Column(length = 20, nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Operation operation;
+
+    private Instant decidedAt;
+
+    @Column(nullable = false)
+    private Instant archivedAt;
+}
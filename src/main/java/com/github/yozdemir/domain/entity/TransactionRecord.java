@@ -0,0 +1,69 @@
+package com.github.yozdemir.domain.entity;
+
+import com.github.yozdemir.domain.enums.Status;
+import com.github.yozdemir.domain.value.Money;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Flat record of a transaction with the fields of its wallets and type, shared by the read model
+ * of the transactions and their archive.
+ */
+@Getter
+@Setter
+@MappedSuperclass
+public abstract class TransactionRecord {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private UUID referenceNumber;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private Money amount;
+
+    @Column(length = 50)
+    private String description;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(length = 20, nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    @Column(nullable = false)
+    private Long typeId;
+
+    @Column(length = 50, nullable = false)
+    private String typeName;
+
+    @Column(nullable = false)
+    private Long fromWalletId;
+
+    @Column(length = 34, nullable = false)
+    private String fromWalletIban;
+
+    @Column(length = 50, nullable = false)
+    private String fromWalletName;
+
+    @Column(nullable = false)
+    private Long fromUserId;
+
+    @Column(nullable = false)
+    private Long toWalletId;
+
+    @Column(length = 34, nullable = false)
+    private String toWalletIban;
+
+    @Column(length = 50, nullable = false)
+    private String toWalletName;
+
+    @Column(nullable = false)
+    private Long toUserId;
+}
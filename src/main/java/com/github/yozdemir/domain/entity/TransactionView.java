@@ -0,0 +1,41 @@
+package com.github.yozdemir.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Read model of a transaction, flattened with the fields of its wallets and type. Rows are written
+ * with their transactions, so the transactions are read from this single table without joins.
+ */
+@Entity
+@Table(name = "transaction_view", indexes = {
+        @Index(name = "transaction_view_reference_number_key", columnList = "referenceNumber", unique = true),
+        @Index(name = "transaction_view_from_user_latest_idx", columnList = "fromUserId DESC, createdAt DESC, id DESC"),
+        @Index(name = "transaction_view_to_user_latest_idx", columnList = "toUserId DESC, createdAt DESC, id DESC"),
+        @Index(name = "transaction_view_from_wallet_latest_idx", columnList = "fromWalletId DESC, createdAt DESC, id DESC"),
+        @Index(name = "transaction_view_to_wallet_latest_idx", columnList = "toWalletId DESC, createdAt DESC, id DESC"),
+        @Index(name = "transaction_view_created_at_idx", columnList = "createdAt DESC, id DESC"),
+        @Index(name = "transaction_view_amount_idx", columnList = "amount DESC, id DESC"),
+        @Index(name = "transaction_view_type_created_at_idx", columnList = "typeId, createdAt DESC, id DESC"),
+        @Index(name = "transaction_view_status_created_at_idx", columnList = "status, createdAt DESC, id DESC"),
+        @Index(name = "transaction_view_status_amount_idx", columnList = "status, amount DESC, id DESC")
+})
+public class TransactionView extends TransactionRecord implements Persistable<Long> {
+
+    // rows are built with the id of their transaction, so a new row is marked to be inserted without a lookup
+    @Setter
+    @Transient
+    private boolean newRow;
+
+    @Override
+    public boolean isNew() {
+        return newRow;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        newRow = false;
+    }
+}
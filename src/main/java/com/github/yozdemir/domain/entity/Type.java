@@ -22,7 +22,7 @@ public class Type {
     @SequenceGenerator(
             name = "type_seq_gen",
             sequenceName = "type_seq",
-            allocationSize = 1
+            allocationSize = 50
     )
     private Long id;
 
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -23,7 +24,7 @@ public class Users {
     @SequenceGenerator(
             name = "user_seq_gen",
             sequenceName = "user_seq",
-            allocationSize = 1
+            allocationSize = 50
     )
     private Long id;
 
@@ -44,6 +45,9 @@ public class Users {
     @Column(length = 100, nullable = false)
     private String password;
 
+    @Column(nullable = false)
+    private boolean enabled = true;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
     private Set<Wallet> wallets = new HashSet<>();
 
@@ -57,6 +61,8 @@ public class Users {
         wallet.setUser(null);
     }
 
+    // roles of the users loaded together are initialized with a single query
+    @BatchSize(size = 100)
     @ManyToMany(cascade = CascadeType.MERGE)
     @JoinTable(name = "user_role",
             joinColumns = @JoinColumn(name = "user_id", referencedColumnName = "id", nullable = false),
@@ -1,17 +1,18 @@
 package com.github.yozdemir.domain.entity;
 
+import com.github.yozdemir.domain.value.Money;
 import jakarta.persistence.*;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.Set;
 
 @Getter
 @Setter
 @Entity
+@NamedEntityGraph(name = Wallet.RESPONSE_GRAPH, attributeNodes = @NamedAttributeNode("user"))
 @EqualsAndHashCode(of = {"iban"})
 @Table(indexes = {
         @Index(name = "wallet_user_id_iban_key", columnList = "user_id, iban", unique = true),
@@ -19,6 +20,11 @@ import java.util.Set;
 })
 public class Wallet {
 
+    /**
+     * Associations read by the wallet responses, fetched with the wallets in the same query.
+     */
+    public static final String RESPONSE_GRAPH = "Wallet.response";
+
     @Id
     @GeneratedValue(
             strategy = GenerationType.SEQUENCE,
@@ -27,7 +33,7 @@ public class Wallet {
     @SequenceGenerator(
             name = "wallet_seq_gen",
             sequenceName = "wallet_seq",
-            allocationSize = 1
+            allocationSize = 50
     )
     private Long id;
 
@@ -46,11 +52,15 @@ public class Wallet {
     @Column(nullable = false)
     private Boolean activeForWithdraw = true;
 
-    @Column(nullable = false)
-    private BigDecimal balance;
+    @Column(nullable = false, precision = 19, scale = 4)
+    private Money balance;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private Money usableBalance = Money.ZERO;
 
+    @Version
     @Column(nullable = false)
-    private BigDecimal usableBalance = BigDecimal.ZERO;
+    private Long version = 0L;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", referencedColumnName = "id", nullable = false)
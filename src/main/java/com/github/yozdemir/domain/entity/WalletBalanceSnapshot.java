@@ -0,0 +1,44 @@
+package com.github.yozdemir.domain.entity;
+
+import com.github.yozdemir.domain.value.Money;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Balance of a wallet at the end of a day (UTC).
+ */
+@Getter
+@Setter
+@Entity
+@Table(indexes = @Index(name = "wallet_balance_snapshot_wallet_id_date_key", columnList = "wallet_id, snapshotDate", unique = true))
+public class WalletBalanceSnapshot {
+
+    @Id
+    @GeneratedValue(
+            strategy = GenerationType.SEQUENCE,
+            generator = "wallet_balance_snapshot_seq_gen"
+    )
+    @SequenceGenerator(
+            name = "wallet_balance_snapshot_seq_gen",
+            sequenceName = "wallet_balance_snapshot_seq",
+            allocationSize = 50
+    )
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "wallet_id", referencedColumnName = "id", nullable = false)
+    private Wallet wallet;
+
+    @Column(nullable = false)
+    private LocalDate snapshotDate;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private Money balance;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
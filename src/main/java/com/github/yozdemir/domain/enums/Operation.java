@@ -0,0 +1,19 @@
+package com.github.yozdemir.domain.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Wallet operation that created a transaction, which decides the direction of its balance change:
+ * deposits credit the receiver wallet, withdrawals debit the sender wallet and transfers do both.
+ */
+@Getter
+@AllArgsConstructor
+public enum Operation {
+
+    DEPOSIT("Deposit"),
+    WITHDRAWAL("Withdrawal"),
+    TRANSFER("Transfer");
+
+    private String label;
+}
@@ -0,0 +1,14 @@
+package com.github.yozdemir.domain.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum SignupStatus {
+
+    CREATED("Created"),
+    REJECTED("Rejected");
+
+    private String label;
+}
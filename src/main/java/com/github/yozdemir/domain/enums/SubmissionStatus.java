@@ -0,0 +1,15 @@
+package com.github.yozdemir.domain.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum SubmissionStatus {
+
+    ACCEPTED("Accepted"),
+    COMPLETED("Completed"),
+    FAILED("Failed");
+
+    private String label;
+}
@@ -0,0 +1,156 @@
+package com.github.yozdemir.domain.value;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+/**
+ * Immutable monetary amount kept as a long count of units at the scale of 4 of the amount columns, which
+ * covers the minor units of every ISO 4217 currency. The scale of a currency is enforced by
+ * {@link #hasScaleOf(String)}, so an amount never has more fraction digits than the currency of its wallet.
+ * Arithmetic is done on the long value and fails with {@link ArithmeticException} instead of overflowing.
+ * Zero is shared and the operations allocate only their result, so amounts that are accumulated in a loop
+ * should be summed as units with {@link #getUnits()} and wrapped once.
+ */
+public final class Money implements Comparable<Money>, Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public static final int SCALE = 4;
+    public static final Money ZERO = new Money(0L);
+
+    private static final long UNITS_PER_MAJOR = 10_000L;
+    // units per minor unit of a currency, indexed by the scale of the currency
+    private static final long[] UNITS_PER_MINOR = {10_000L, 1_000L, 100L, 10L, 1L};
+
+    private final long units;
+
+    private Money(long units) {
+        this.units = units;
+    }
+
+    /**
+     * Creates an amount from the given count of minor units.
+     *
+     * @param units
+     * @return Money
+     */
+    public static Money ofUnits(long units) {
+        return units == 0L ? ZERO : new Money(units);
+    }
+
+    /**
+     * Creates an amount from the given whole amount.
+     *
+     * @param amount
+     * @return Money
+     */
+    public static Money of(long amount) {
+        return ofUnits(Math.multiplyExact(amount, UNITS_PER_MAJOR));
+    }
+
+    /**
+     * Creates an amount from the given decimal.
+     *
+     * @param amount
+     * @return Money
+     * @throws ArithmeticException if the amount has more than 4 fraction digits or does not fit in a long
+     */
+    public static Money of(BigDecimal amount) {
+        return ofUnits(amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Parses an amount from its decimal representation.
+     *
+     * @param amount
+     * @return Money
+     */
+    public static Money parse(String amount) {
+        return of(new BigDecimal(amount.trim()));
+    }
+
+    /**
+     * Returns the scale of the minor units of the given ISO 4217 currency. Currencies without minor
+     * units, such as the precious metals, use the scale of the amount columns.
+     *
+     * @param currencyCode
+     * @return scale of the currency
+     * @throws IllegalArgumentException if the currency is not a known ISO 4217 currency
+     */
+    public static int scaleOf(String currencyCode) {
+        final int digits = Currency.getInstance(currencyCode).getDefaultFractionDigits();
+        return digits < 0 ? SCALE : Math.min(digits, SCALE);
+    }
+
+    /**
+     * Checks whether the amount has at most the fraction digits of the given scale.
+     *
+     * @param scale
+     * @return true if the amount is a whole count of the minor units of the scale
+     */
+    public boolean hasScale(int scale) {
+        return units % UNITS_PER_MINOR[scale] == 0L;
+    }
+
+    /**
+     * Checks whether the amount has at most the fraction digits of the given ISO 4217 currency.
+     *
+     * @param currencyCode
+     * @return true if the amount is a whole count of the minor units of the currency
+     */
+    public boolean hasScaleOf(String currencyCode) {
+        return hasScale(scaleOf(currencyCode));
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public Money add(Money other) {
+        return ofUnits(Math.addExact(units, other.units));
+    }
+
+    public Money subtract(Money other) {
+        return ofUnits(Math.subtractExact(units, other.units));
+    }
+
+    public Money negate() {
+        return ofUnits(Math.negateExact(units));
+    }
+
+    public int signum() {
+        return Long.signum(units);
+    }
+
+    public boolean isLessThan(Money other) {
+        return units < other.units;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(units, other.units);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof Money other && units == other.units;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(units);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
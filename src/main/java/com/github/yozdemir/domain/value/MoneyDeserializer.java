@@ -0,0 +1,42 @@
+package com.github.yozdemir.domain.value;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Reads {@link Money} from a JSON number or a numeric string. Amounts with more than 4 fraction digits
+ * are rejected instead of being rounded.
+ */
+public class MoneyDeserializer extends StdScalarDeserializer<Money> {
+
+    public MoneyDeserializer() {
+        super(Money.class);
+    }
+
+    @Override
+    public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        final BigDecimal amount;
+        if (p.hasToken(JsonToken.VALUE_NUMBER_INT) || p.hasToken(JsonToken.VALUE_NUMBER_FLOAT)) {
+            amount = p.getDecimalValue();
+        } else if (p.hasToken(JsonToken.VALUE_STRING)) {
+            try {
+                amount = new BigDecimal(p.getText().trim());
+            } catch (NumberFormatException ex) {
+                return (Money) ctxt.handleWeirdStringValue(Money.class, p.getText(), "not a valid amount");
+            }
+        } else {
+            return (Money) ctxt.handleUnexpectedToken(Money.class, p);
+        }
+
+        try {
+            return Money.of(amount);
+        } catch (ArithmeticException ex) {
+            return (Money) ctxt.handleWeirdNumberValue(Money.class, amount, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.yozdemir.domain.value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of a transaction in the creation order, used as the continuation point of a keyset page.
+ * It is exchanged with the clients as an opaque token, so its format can change without breaking them.
+ *
+ * @param createdAt
+ * @param id
+ */
+public record TransactionCursor(Instant createdAt, Long id) {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * Encodes the cursor as an url safe token.
+     *
+     * @return token
+     */
+    public String encode() {
+        final String value = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes the cursor from a token created by {@link #encode()}.
+     *
+     * @param token
+     * @return TransactionCursor
+     * @throws IllegalArgumentException if the token is not a valid cursor
+     */
+    public static TransactionCursor decode(String token) {
+        try {
+            final String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            final int separator = value.lastIndexOf(SEPARATOR);
+            if (separator < 0)
+                throw new IllegalArgumentException("Cursor without separator: " + token);
+            return new TransactionCursor(Instant.parse(value.substring(0, separator)),
+                    Long.valueOf(value.substring(separator + 1)));
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Cursor with invalid time: " + token, ex);
+        }
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Mapper used for mapping SignupRequest fields.
@@ -39,16 +40,30 @@ public abstract class SignupRequestMapper {
     @Mapping(target = "email", expression = "java(dto.getEmail().trim().toLowerCase())")
     @Mapping(target = "password", ignore = true)
     @Mapping(target = "roles", ignore = true)
-    public abstract Users toUser(SignupRequest dto);
-
-    @AfterMapping
-    void setToEntityFields(@MappingTarget Users entity, SignupRequest dto) {
-        entity.setPassword(passwordEncoder.encode(dto.getPassword()));
+    @Mapping(target = "enabled", ignore = true)
+    protected abstract Users toUserFields(SignupRequest dto);
 
+    public Users toUser(SignupRequest dto) {
         final List<RoleType> roleTypes = dto.getRoles().stream()
                 .map(RoleType::valueOf)
                 .toList();
         final List<Role> roles = roleService.getReferenceByTypeIsIn(new HashSet<>(roleTypes));
-        entity.setRoles(new HashSet<>(roles));
+        return toUser(dto, passwordEncoder.encode(dto.getPassword()), new HashSet<>(roles));
+    }
+
+    /**
+     * Maps the given request with the password that is already hashed and the roles that are already
+     * resolved, so the bulk signups hash and resolve them once for many users.
+     *
+     * @param dto
+     * @param encodedPassword
+     * @param roles
+     * @return Users
+     */
+    public Users toUser(SignupRequest dto, String encodedPassword, Set<Role> roles) {
+        final Users entity = toUserFields(dto);
+        entity.setPassword(encodedPassword);
+        entity.setRoles(roles);
+        return entity;
     }
 }
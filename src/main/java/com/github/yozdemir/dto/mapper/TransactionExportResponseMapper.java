@@ -0,0 +1,16 @@
+package com.github.yozdemir.dto.mapper;
+
+import com.github.yozdemir.domain.entity.TransactionRecord;
+import com.github.yozdemir.dto.response.TransactionExportResponse;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Mapper used for mapping TransactionExportResponse fields.
+ */
+@Mapper(componentModel = "spring")
+public interface TransactionExportResponseMapper {
+
+    @Mapping(target = "type", source = "typeName")
+    TransactionExportResponse toTransactionExportResponse(TransactionRecord record);
+}
@@ -2,28 +2,21 @@ package com.github.yozdemir.dto.mapper;
 
 import com.github.yozdemir.dto.request.TransactionRequest;
 import com.github.yozdemir.domain.entity.Transaction;
+import com.github.yozdemir.domain.enums.Status;
 import com.github.yozdemir.service.TypeService;
-import com.github.yozdemir.service.WalletService;
 import org.mapstruct.*;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Lazy;
 
 /**
  * Mapper used for mapping TransactionRequest fields.
  */
 @Mapper(componentModel = "spring",
-        uses = {WalletService.class, TypeService.class},
+        uses = {TypeService.class},
         injectionStrategy = InjectionStrategy.CONSTRUCTOR)
 public abstract class TransactionRequestMapper {
 
-    private WalletService walletService;
     private TypeService typeService;
 
-    @Autowired
-    public void setWalletService(@Lazy WalletService walletService) {
-        this.walletService = walletService;
-    }
-
     @Autowired
     public void setTypeService(TypeService typeService) {
         this.typeService = typeService;
@@ -31,19 +24,23 @@ public abstract class TransactionRequestMapper {
 
     // set default value of the status field as Status.APPROVED
     @Mapping(source = "status",target = "status")
-    @Mapping(target = "referenceNumber", expression = "java(java.util.UUID.randomUUID())")
+    // reference number is kept if it is already assigned on submission
+    @Mapping(source = "referenceNumber", target = "referenceNumber", defaultExpression = "java(java.util.UUID.randomUUID())")
     @Mapping(source = "createdAt", target = "createdAt", defaultExpression = "java(java.time.Instant.now())")
+    // wallets are set by TransactionService by their already resolved ids
     @Mapping(target = "fromWallet", ignore = true)
     @Mapping(target = "toWallet", ignore = true)
     @Mapping(target = "type", ignore = true)
+    @Mapping(target = "decidedAt", ignore = true)
     public abstract Transaction toTransaction(TransactionRequest dto);
 
     public abstract TransactionRequest toTransactionRequest(Transaction entity);
 
     @AfterMapping
     void setToEntityFields(@MappingTarget Transaction entity, TransactionRequest dto) {
-        entity.setFromWallet(walletService.getByIban(dto.getFromWalletIban()));
-        entity.setToWallet(walletService.getByIban(dto.getToWalletIban()));
         entity.setType(typeService.getReferenceById(dto.getTypeId()));
+        // transactions that are not pending are decided on creation
+        if (entity.getStatus() != Status.PENDING)
+            entity.setDecidedAt(entity.getCreatedAt());
     }
 }
@@ -2,12 +2,14 @@ package com.github.yozdemir.dto.mapper;
 
 import com.github.yozdemir.dto.response.TransactionResponse;
 import com.github.yozdemir.domain.entity.Transaction;
+import com.github.yozdemir.domain.entity.TransactionRecord;
 import com.github.yozdemir.common.Constants;
 import org.mapstruct.AfterMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
@@ -18,14 +20,37 @@ import java.time.format.DateTimeFormatter;
 @Mapper(componentModel = "spring")
 public interface TransactionResponseMapper {
 
-    Transaction toTransaction(TransactionResponse dto);
-
     @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "fromWallet.userId", source = "fromWallet.user.id")
+    @Mapping(target = "toWallet.userId", source = "toWallet.user.id")
     TransactionResponse toTransactionResponse(Transaction entity);
 
+    // wallets and type are built from the flat fields of the read model or the archive
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "fromWallet.id", source = "fromWalletId")
+    @Mapping(target = "fromWallet.iban", source = "fromWalletIban")
+    @Mapping(target = "fromWallet.name", source = "fromWalletName")
+    @Mapping(target = "fromWallet.userId", source = "fromUserId")
+    @Mapping(target = "toWallet.id", source = "toWalletId")
+    @Mapping(target = "toWallet.iban", source = "toWalletIban")
+    @Mapping(target = "toWallet.name", source = "toWalletName")
+    @Mapping(target = "toWallet.userId", source = "toUserId")
+    @Mapping(target = "type.id", source = "typeId")
+    @Mapping(target = "type.name", source = "typeName")
+    TransactionResponse toTransactionResponse(TransactionRecord record);
+
     @AfterMapping
     default void formatCreatedAt(@MappingTarget TransactionResponse dto, Transaction entity) {
-        LocalDateTime datetime = LocalDateTime.ofInstant(entity.getCreatedAt(), ZoneOffset.UTC);
-        dto.setCreatedAt(DateTimeFormatter.ofPattern(Constants.DATE_TIME_FORMAT).format(datetime));
+        dto.setCreatedAt(format(entity.getCreatedAt()));
+    }
+
+    @AfterMapping
+    default void formatCreatedAt(@MappingTarget TransactionResponse dto, TransactionRecord record) {
+        dto.setCreatedAt(format(record.getCreatedAt()));
+    }
+
+    private static String format(Instant createdAt) {
+        LocalDateTime datetime = LocalDateTime.ofInstant(createdAt, ZoneOffset.UTC);
+        return DateTimeFormatter.ofPattern(Constants.DATE_TIME_FORMAT).format(datetime);
     }
 }
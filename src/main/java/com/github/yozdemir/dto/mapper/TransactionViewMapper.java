@@ -0,0 +1,38 @@
+package com.github.yozdemir.dto.mapper;
+
+import com.github.yozdemir.domain.entity.Transaction;
+import com.github.yozdemir.domain.entity.TransactionView;
+import com.github.yozdemir.domain.entity.Wallet;
+import com.github.yozdemir.dto.response.TransactionWalletResponse;
+import com.github.yozdemir.dto.response.WalletResponse;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Mapper used for building the read model rows of new transactions from the already known fields
+ * of their wallets and type, so the rows are inserted without reading them again.
+ */
+@Mapper(componentModel = "spring")
+public interface TransactionViewMapper {
+
+    @Mapping(target = "id", source = "transaction.id")
+    @Mapping(target = "typeId", source = "transaction.type.id")
+    @Mapping(target = "typeName", source = "typeName")
+    @Mapping(target = "fromWalletId", source = "fromWallet.id")
+    @Mapping(target = "fromWalletIban", source = "fromWallet.iban")
+    @Mapping(target = "fromWalletName", source = "fromWallet.name")
+    @Mapping(target = "fromUserId", source = "fromWallet.userId")
+    @Mapping(target = "toWalletId", source = "toWallet.id")
+    @Mapping(target = "toWalletIban", source = "toWallet.iban")
+    @Mapping(target = "toWalletName", source = "toWallet.name")
+    @Mapping(target = "toUserId", source = "toWallet.userId")
+    @Mapping(target = "newRow", constant = "true")
+    TransactionView toTransactionView(Transaction transaction, TransactionWalletResponse fromWallet,
+                                      TransactionWalletResponse toWallet, String typeName);
+
+    @Mapping(target = "userId", source = "user.id")
+    TransactionWalletResponse toTransactionWalletResponse(Wallet wallet);
+
+    @Mapping(target = "userId", source = "user.id")
+    TransactionWalletResponse toTransactionWalletResponse(WalletResponse wallet);
+}
@@ -0,0 +1,23 @@
+package com.github.yozdemir.dto.mapper;
+
+import com.github.yozdemir.dto.response.UserResponse;
+import com.github.yozdemir.domain.entity.Users;
+import org.mapstruct.AfterMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.MappingTarget;
+
+import java.text.MessageFormat;
+
+/**
+ * Mapper used for mapping UserResponse fields.
+ */
+@Mapper(componentModel = "spring")
+public interface UserResponseMapper {
+
+    UserResponse toUserResponse(Users entity);
+
+    @AfterMapping
+    default void setFullName(@MappingTarget UserResponse dto, Users entity) {
+        dto.setFullName(MessageFormat.format("{0} {1}", entity.getFirstName(), entity.getLastName()));
+    }
+}
@@ -24,8 +24,24 @@ public abstract class WalletRequestMapper {
     @Mapping(target = "name", expression = "java(org.apache.commons.text.WordUtils.capitalizeFully(dto.getName()))")
     @Mapping(target = "iban", expression = "java(org.apache.commons.lang3.StringUtils.upperCase(dto.getIban()))")
     @Mapping(target = "user", ignore = true)
+    // version is assigned by the persistence provider, transactions are never set from the request
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "fromTransactions", ignore = true)
+    @Mapping(target = "toTransactions", ignore = true)
     public abstract Wallet toWallet(WalletRequest dto);
 
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    // balances are only changed by the conditional updates of the transactions, never from the request
+    @Mapping(target = "balance", ignore = true)
+    @Mapping(target = "usableBalance", ignore = true)
+    @Mapping(target = "name", expression = "java(org.apache.commons.text.WordUtils.capitalizeFully(dto.getName()))")
+    @Mapping(target = "iban", expression = "java(org.apache.commons.lang3.StringUtils.upperCase(dto.getIban()))")
+    @Mapping(target = "user", ignore = true)
+    @Mapping(target = "fromTransactions", ignore = true)
+    @Mapping(target = "toTransactions", ignore = true)
+    public abstract void updateWallet(WalletRequest dto, @MappingTarget Wallet entity);
+
     public abstract WalletRequest toWalletRequest(Wallet entity);
 
     @AfterMapping
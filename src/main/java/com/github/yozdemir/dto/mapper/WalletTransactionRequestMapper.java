@@ -17,6 +17,7 @@ public interface WalletTransactionRequestMapper {
     @Mapping(target = "fromWalletIban", source = "iban")
     @Mapping(target = "toWalletIban", source = "iban")
     @Mapping(target = "typeId", constant = "1L")
+    @Mapping(target = "operation", constant = "DEPOSIT")
     TransactionRequest toTransactionRequest(WalletRequest entity);
 
     WalletRequest toWalletRequest(TransactionRequest dto);
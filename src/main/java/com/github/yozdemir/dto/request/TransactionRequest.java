@@ -1,6 +1,10 @@
 package com.github.yozdemir.dto.request;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.github.yozdemir.domain.enums.Operation;
 import com.github.yozdemir.domain.enums.Status;
+import com.github.yozdemir.domain.value.Money;
+import com.github.yozdemir.validator.PositiveMoney;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -8,7 +12,6 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -22,8 +25,10 @@ public class TransactionRequest {
 
     private Long id;
 
+    // a negative amount would move the money in the opposite direction of the request
     @NotNull(message = "{validation.field.amount.required}")
-    private BigDecimal amount;
+    @PositiveMoney(message = "{validation.field.amount.positive}")
+    private Money amount;
 
     @Size(max = 50, message = "{validation.field.description.length}")
     private String description;
@@ -34,6 +39,14 @@ public class TransactionRequest {
 
     private Status status;
 
+    // set by IdempotencyService, it is never read from the request body
+    @JsonIgnore
+    private String requestHash;
+
+    // set by WalletService by the called operation, it is never read from the request body
+    @JsonIgnore
+    private Operation operation;
+
     @NotBlank(message = "{validation.iban.sender.required}")
     private String fromWalletIban;
 
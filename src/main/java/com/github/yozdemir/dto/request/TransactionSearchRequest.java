@@ -0,0 +1,38 @@
+package com.github.yozdemir.dto.request;
+
+import com.github.yozdemir.domain.enums.Status;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Data Transfer Object for the filters of the transaction search, every filter is optional.
+ * Amounts and dates are inclusive at the lower bound and exclusive at the upper bound.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionSearchRequest {
+
+    private Status status;
+
+    private Long typeId;
+
+    private Long fromWalletId;
+
+    private Long toWalletId;
+
+    @PositiveOrZero
+    private BigDecimal minAmount;
+
+    @PositiveOrZero
+    private BigDecimal maxAmount;
+
+    private Instant from;
+
+    private Instant to;
+}
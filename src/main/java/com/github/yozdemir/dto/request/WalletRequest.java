@@ -1,7 +1,8 @@
 package com.github.yozdemir.dto.request;
 
+import com.github.yozdemir.domain.value.Money;
+import com.github.yozdemir.validator.PositiveOrZeroMoney;
 import com.github.yozdemir.validator.ValidIban;
-import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -9,8 +10,6 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-
 /**
  * Data Transfer Object for Wallet request.
  */
@@ -39,12 +38,12 @@ public class WalletRequest {
     private Boolean activeForWithdraw;
 
     @NotNull(message = "{validation.field.balance.required}")
-    @DecimalMin(value = "0.0", inclusive = true, message = "{validation.field.balance.positive}")
-    private BigDecimal balance;
+    @PositiveOrZeroMoney(message = "{validation.field.balance.positive}")
+    private Money balance;
 
     @NotNull(message = "{validation.field.usableBalance.required}")
-    @DecimalMin(value = "0.0", inclusive = true, message = "{validation.field.usableBalance.positive}")
-    private BigDecimal usableBalance;
+    @PositiveOrZeroMoney(message = "{validation.field.usableBalance.positive}")
+    private Money usableBalance;
 
 
     @NotNull(message = "{validation.field.user.required}")
@@ -0,0 +1,13 @@
+package com.github.yozdemir.dto.response;
+
+import com.github.yozdemir.domain.enums.Status;
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object used for returning the result of a bulk approval or denial.
+ */
+@Builder
+public record BulkDecisionResponse(Status status, int decided, List<Long> skippedIds) {
+}
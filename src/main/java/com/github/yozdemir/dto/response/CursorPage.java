@@ -0,0 +1,13 @@
+package com.github.yozdemir.dto.response;
+
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object used for returning a page of a keyset paginated listing. The next page is
+ * requested with nextCursor, which is null on the last page.
+ */
+@Builder
+public record CursorPage<T>(List<T> content, String nextCursor) {
+}
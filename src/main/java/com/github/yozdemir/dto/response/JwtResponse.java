@@ -14,6 +14,7 @@ public class JwtResponse {
 
     private String type;
     private String token;
+    private String refreshToken;
     private Long id;
     private String username;
     private String firstName;
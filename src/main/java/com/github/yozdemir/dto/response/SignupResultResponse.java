@@ -0,0 +1,12 @@
+package com.github.yozdemir.dto.response;
+
+import com.github.yozdemir.domain.enums.SignupStatus;
+import lombok.Builder;
+
+/**
+ * Data Transfer Object used for returning the result of a single signup in a batch.
+ * Rejected signups have the reason of the rejection instead of an id.
+ */
+@Builder
+public record SignupResultResponse(int index, Long id, SignupStatus status, String reason) {
+}
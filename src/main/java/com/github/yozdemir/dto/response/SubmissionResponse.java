@@ -0,0 +1,18 @@
+package com.github.yozdemir.dto.response;
+
+import com.github.yozdemir.domain.enums.Status;
+import com.github.yozdemir.domain.enums.SubmissionStatus;
+import lombok.Builder;
+
+import java.util.UUID;
+
+/**
+ * Data Transfer Object used for returning the state of an asynchronously processed transaction request.
+ */
+@Builder
+public record SubmissionResponse(UUID referenceNumber,
+                                 SubmissionStatus status,
+                                 Long transactionId,
+                                 Status transactionStatus,
+                                 String message) {
+}
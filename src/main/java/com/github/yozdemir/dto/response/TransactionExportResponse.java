@@ -0,0 +1,21 @@
+package com.github.yozdemir.dto.response;
+
+import com.github.yozdemir.domain.enums.Status;
+import com.github.yozdemir.domain.value.Money;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object used for exporting a transaction as a single flat row.
+ */
+public record TransactionExportResponse(Long id,
+                                        UUID referenceNumber,
+                                        Instant createdAt,
+                                        Money amount,
+                                        Status status,
+                                        String type,
+                                        String fromWalletIban,
+                                        String toWalletIban,
+                                        String description) {
+}
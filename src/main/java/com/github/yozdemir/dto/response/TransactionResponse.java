@@ -1,9 +1,9 @@
 package com.github.yozdemir.dto.response;
 
 import com.github.yozdemir.domain.enums.Status;
+import com.github.yozdemir.domain.value.Money;
 import lombok.Data;
 
-import java.math.BigDecimal;
 import java.util.UUID;
 
 /**
@@ -13,12 +13,12 @@ import java.util.UUID;
 public class TransactionResponse {
 
     private Long id;
-    private BigDecimal amount;
+    private Money amount;
     private String description;
     private String createdAt;
     private UUID referenceNumber;
     private Status status;
-    private WalletResponse fromWallet;
-    private WalletResponse toWallet;
+    private TransactionWalletResponse fromWallet;
+    private TransactionWalletResponse toWallet;
     private TypeResponse type;
 }
@@ -0,0 +1,16 @@
+package com.github.yozdemir.dto.response;
+
+import lombok.Data;
+
+/**
+ * Data Transfer Object for a wallet of a Transaction response, with the fields it had when the transaction
+ * was recorded. Balances and owner details are read from the wallet and user endpoints.
+ */
+@Data
+public class TransactionWalletResponse {
+
+    private Long id;
+    private String iban;
+    private String name;
+    private Long userId;
+}
@@ -0,0 +1,11 @@
+package com.github.yozdemir.dto.response;
+
+import com.github.yozdemir.domain.enums.Status;
+import lombok.Builder;
+
+/**
+ * Data Transfer Object used for returning the result of a single transfer in a batch.
+ */
+@Builder
+public record TransferResultResponse(int index, Long id, Status status, String message) {
+}
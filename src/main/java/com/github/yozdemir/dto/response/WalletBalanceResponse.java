@@ -0,0 +1,15 @@
+package com.github.yozdemir.dto.response;
+
+import com.github.yozdemir.domain.value.Money;
+import lombok.Builder;
+
+import java.time.Instant;
+
+/**
+ * Data Transfer Object used for returning the balance of a wallet at a point in time.
+ */
+@Builder
+public record WalletBalanceResponse(Long walletId,
+                                    Instant at,
+                                    Money balance) {
+}
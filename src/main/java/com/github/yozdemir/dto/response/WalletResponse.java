@@ -1,11 +1,10 @@
 package com.github.yozdemir.dto.response;
 
+import com.github.yozdemir.domain.value.Money;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-
 /**
  * Data Transfer Object for Wallet response.
  */
@@ -17,7 +16,7 @@ public class WalletResponse {
     private Long id;
     private String iban;
     private String name;
-    private BigDecimal balance;
-    private BigDecimal usableBalance;
+    private Money balance;
+    private Money usableBalance;
     private UserResponse user;
 }
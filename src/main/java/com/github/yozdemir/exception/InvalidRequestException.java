@@ -0,0 +1,16 @@
+package com.github.yozdemir.exception;
+
+public class InvalidRequestException extends RuntimeException {
+
+    public InvalidRequestException() {
+        super();
+    }
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+    public InvalidRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
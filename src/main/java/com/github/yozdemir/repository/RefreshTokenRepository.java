@@ -0,0 +1,43 @@
+package com.github.yozdemir.repository;
+
+import com.github.yozdemir.domain.entity.RefreshToken;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    @EntityGraph(attributePaths = "user")
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Deletes the refresh token by the given id. Concurrent uses of the same token are told apart by
+     * the number of the deleted rows, only one of them deletes it.
+     *
+     * @return number of the deleted rows
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.id = :id")
+    int deleteUsed(@Param("id") Long id);
+
+    /**
+     * Deletes the refresh token by the given hash when it belongs to the given user, so a user cannot
+     * log out the sessions of another user.
+     *
+     * @return number of the deleted rows
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.tokenHash = :tokenHash AND r.user.id = :userId")
+    int deleteByTokenHashAndUserId(@Param("tokenHash") String tokenHash, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,129 @@
+package com.github.yozdemir.repository;
+
+import com.github.yozdemir.domain.entity.TransactionArchive;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static com.github.yozdemir.common.Constants.EXPORT_FETCH_SIZE;
+
+@Repository
+public interface TransactionArchiveRepository extends JpaRepository<TransactionArchive, Long> {
+
+    Optional<TransactionArchive> findByReferenceNumber(UUID referenceNumber);
+
+    /**
+     * Fetches the latest archived transactions sent by the wallets of the given user,
+     * see {@link TransactionViewRepository#findLatestByFromUserId(Long, Pageable)}.
+     */
+    @Query("SELECT a FROM TransactionArchive a WHERE a.fromUserId = :userId " +
+            "ORDER BY a.fromUserId DESC, a.createdAt DESC, a.id DESC")
+    List<TransactionArchive> findLatestByFromUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Fetches the latest archived transactions sent by the wallets of the given user before the given key,
+     * see {@link TransactionViewRepository#findLatestByFromUserIdBefore(Long, Instant, Long, Pageable)}.
+     */
+    @Query("SELECT a FROM TransactionArchive a " +
+            "WHERE a.fromUserId = :userId AND a.createdAt <= :lastCreatedAt " +
+            "AND (a.createdAt < :lastCreatedAt OR (a.createdAt = :lastCreatedAt AND a.id < :lastId)) " +
+            "ORDER BY a.fromUserId DESC, a.createdAt DESC, a.id DESC")
+    List<TransactionArchive> findLatestByFromUserIdBefore(@Param("userId") Long userId,
+                                                          @Param("lastCreatedAt") Instant lastCreatedAt,
+                                                          @Param("lastId") Long lastId,
+                                                          Pageable pageable);
+
+    /**
+     * Fetches the latest archived transactions received by the wallets of the given user,
+     * see {@link TransactionViewRepository#findLatestByFromUserId(Long, Pageable)}.
+     */
+    @Query("SELECT a FROM TransactionArchive a WHERE a.toUserId = :userId " +
+            "ORDER BY a.toUserId DESC, a.createdAt DESC, a.id DESC")
+    List<TransactionArchive> findLatestByToUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Fetches the latest archived transactions received by the wallets of the given user before the given key,
+     * see {@link TransactionViewRepository#findLatestByFromUserIdBefore(Long, Instant, Long, Pageable)}.
+     */
+    @Query("SELECT a FROM TransactionArchive a " +
+            "WHERE a.toUserId = :userId AND a.createdAt <= :lastCreatedAt " +
+            "AND (a.createdAt < :lastCreatedAt OR (a.createdAt = :lastCreatedAt AND a.id < :lastId)) " +
+            "ORDER BY a.toUserId DESC, a.createdAt DESC, a.id DESC")
+    List<TransactionArchive> findLatestByToUserIdBefore(@Param("userId") Long userId,
+                                                        @Param("lastCreatedAt") Instant lastCreatedAt,
+                                                        @Param("lastId") Long lastId,
+                                                        Pageable pageable);
+
+    /**
+     * Streams all archived transactions in id order, see {@link TransactionViewRepository#streamAll()}.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM TransactionArchive a ORDER BY a.id")
+    Stream<TransactionArchive> streamAll();
+
+    /**
+     * Streams the archived transactions of the wallets of the given user in id order,
+     * see {@link TransactionViewRepository#streamAllByUserId(Long)}.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = "SELECT * FROM transaction_archive WHERE from_user_id = :userId " +
+            "UNION ALL " +
+            "SELECT * FROM transaction_archive WHERE to_user_id = :userId AND from_user_id <> :userId " +
+            "ORDER BY id", nativeQuery = true)
+    Stream<TransactionArchive> streamAllByUserId(@Param("userId") Long userId);
+
+    /**
+     * Copies the rows of the given transactions from their read model, with their operation and decision time.
+     *
+     * @return number of the copied rows
+     */
+    @Modifying
+    @Query(value = "INSERT INTO transaction_archive (id, reference_number, amount, description, created_at, status, " +
+            "type_id, type_name, from_wallet_id, from_wallet_iban, from_wallet_name, from_user_id, " +
+            "to_wallet_id, to_wallet_iban, to_wallet_name, to_user_id, operation, decided_at, archived_at) " +
+            "SELECT v.id, v.reference_number, v.amount, v.description, v.created_at, v.status, v.type_id, v.type_name, " +
+            "v.from_wallet_id, v.from_wallet_iban, v.from_wallet_name, v.from_user_id, " +
+            "v.to_wallet_id, v.to_wallet_iban, v.to_wallet_name, v.to_user_id, t.operation, t.decided_at, :archivedAt " +
+            "FROM transaction_view v JOIN transaction t ON t.id = v.id WHERE v.id IN :ids", nativeQuery = true)
+    int insertFromTransactionViews(@Param("ids") Collection<Long> ids, @Param("archivedAt") Instant archivedAt);
+
+    /**
+     * Updates the fields of the given wallet in the rows of its archived sent and received transactions,
+     * see {@link TransactionViewRepository#updateWallet(Long, String, String, Long)}.
+     */
+    default void updateWallet(Long walletId, String iban, String name, Long userId) {
+        updateFromWallet(walletId, iban, name, userId);
+        updateToWallet(walletId, iban, name, userId);
+    }
+
+    @Modifying
+    @Query("UPDATE TransactionArchive a SET a.fromWalletIban = :iban, a.fromWalletName = :name, a.fromUserId = :userId " +
+            "WHERE a.fromWalletId = :walletId")
+    int updateFromWallet(@Param("walletId") Long walletId, @Param("iban") String iban,
+                         @Param("name") String name, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE TransactionArchive a SET a.toWalletIban = :iban, a.toWalletName = :name, a.toUserId = :userId " +
+            "WHERE a.toWalletId = :walletId")
+    int updateToWallet(@Param("walletId") Long walletId, @Param("iban") String iban,
+                       @Param("name") String name, @Param("userId") Long userId);
+}
@@ -1,24 +1,147 @@
 package com.github.yozdemir.repository;
 
 import com.github.yozdemir.domain.entity.Transaction;
+import com.github.yozdemir.domain.enums.Operation;
+import com.github.yozdemir.domain.enums.Status;
+import com.github.yozdemir.domain.value.Money;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
-    Optional<Transaction> findByReferenceNumber(UUID referenceNumber);
+    @Query("SELECT t.id AS id, t.requestHash AS requestHash FROM Transaction t WHERE t.referenceNumber = :referenceNumber")
+    Optional<RequestHashView> findRequestHashByReferenceNumber(@Param("referenceNumber") UUID referenceNumber);
 
-    @Query(value = "SELECT t " +
-            "FROM Transaction t " +
-            "LEFT JOIN Wallet w ON w.id IN (t.fromWallet.id, t.toWallet.id) " +
-            "WHERE w.user.id = :userId " +
-            "ORDER BY t.createdAt DESC")
-    List<Transaction> findAllByUserId(@Param("userId") Long userId);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaction t WHERE t.id IN :ids AND t.status = :status ORDER BY t.id")
+    List<Transaction> findAllByIdInAndStatusForUpdate(@Param("ids") Collection<Long> ids, @Param("status") Status status);
+
+    @Modifying
+    @Query("UPDATE Transaction t SET t.status = :status, t.decidedAt = :decidedAt WHERE t.id IN :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") Status status,
+                     @Param("decidedAt") Instant decidedAt);
+
+    /**
+     * Fetches the next page of transaction ids with the given status created before the given time,
+     * ordered by creation time. Paging is done by the key of the last fetched row (keyset pagination)
+     * so that the cost of a page does not depend on its position.
+     */
+    @Query("SELECT t.id AS id, t.createdAt AS createdAt FROM Transaction t " +
+            "WHERE t.status = :status AND t.createdAt < :createdBefore " +
+            "AND (t.createdAt > :lastCreatedAt OR (t.createdAt = :lastCreatedAt AND t.id > :lastId)) " +
+            "ORDER BY t.createdAt, t.id")
+    List<TransactionKeyView> findKeysByStatus(@Param("status") Status status,
+                                              @Param("createdBefore") Instant createdBefore,
+                                              @Param("lastCreatedAt") Instant lastCreatedAt,
+                                              @Param("lastId") Long lastId,
+                                              Pageable pageable);
+
+    /**
+     * Sums the balance changes of the approved transactions decided in the given period [from, to) per wallet,
+     * including the archived ones. By their operation, deposits and transfers are added to the receiver wallet,
+     * withdrawals and transfers are subtracted from the sender wallet.
+     *
+     * @return balance changes by wallet id, wallets without a change are not included
+     */
+    default Map<Long, Money> sumBalanceChanges(Instant from, Instant to) {
+        return sumApprovedChanges(from, to, List.of(Operation.DEPOSIT.name(), Operation.TRANSFER.name()),
+                        List.of(Operation.WITHDRAWAL.name(), Operation.TRANSFER.name()))
+                .stream()
+                .collect(Collectors.toMap(BalanceChangeView::getWalletId, change -> Money.of(change.getAmount())));
+    }
+
+    // native, as the converted amount column cannot be used in JPQL arithmetic
+    @Query(value = "SELECT wallet_id AS walletId, SUM(amount) AS amount FROM (" +
+            "SELECT to_wallet_id AS wallet_id, amount FROM transaction " +
+            "WHERE status = 'APPROVED' AND decided_at >= :from AND decided_at < :to AND operation IN :creditOperations " +
+            "UNION ALL " +
+            "SELECT from_wallet_id AS wallet_id, -amount AS amount FROM transaction " +
+            "WHERE status = 'APPROVED' AND decided_at >= :from AND decided_at < :to AND operation IN :debitOperations " +
+            "UNION ALL " +
+            "SELECT to_wallet_id AS wallet_id, amount FROM transaction_archive " +
+            "WHERE status = 'APPROVED' AND decided_at >= :from AND decided_at < :to AND operation IN :creditOperations " +
+            "UNION ALL " +
+            "SELECT from_wallet_id AS wallet_id, -amount AS amount FROM transaction_archive " +
+            "WHERE status = 'APPROVED' AND decided_at >= :from AND decided_at < :to AND operation IN :debitOperations" +
+            ") changes GROUP BY wallet_id", nativeQuery = true)
+    List<BalanceChangeView> sumApprovedChanges(@Param("from") Instant from,
+                                               @Param("to") Instant to,
+                                               @Param("creditOperations") Collection<String> creditOperations,
+                                               @Param("debitOperations") Collection<String> debitOperations);
+
+    /**
+     * Sums the balance changes of the given wallet in the given period [from, to), see {@link #sumBalanceChanges(Instant, Instant)}.
+     *
+     * @return balance change of the wallet, zero if there is no change
+     */
+    default Money sumBalanceChanges(Long walletId, Instant from, Instant to) {
+        return Money.of(sumApprovedChangesOfWallet(walletId, from, to,
+                List.of(Operation.DEPOSIT.name(), Operation.TRANSFER.name()),
+                List.of(Operation.WITHDRAWAL.name(), Operation.TRANSFER.name())));
+    }
+
+    // each side is a range of the (wallet, decided_at) index of its direction, in the transactions and the archive
+    @Query(value = "SELECT COALESCE((SELECT SUM(amount) FROM transaction " +
+            "WHERE to_wallet_id = :walletId AND decided_at >= :from AND decided_at < :to " +
+            "AND status = 'APPROVED' AND operation IN :creditOperations), 0) + " +
+            "COALESCE((SELECT SUM(amount) FROM transaction_archive " +
+            "WHERE to_wallet_id = :walletId AND decided_at >= :from AND decided_at < :to " +
+            "AND status = 'APPROVED' AND operation IN :creditOperations), 0) - " +
+            "COALESCE((SELECT SUM(amount) FROM transaction " +
+            "WHERE from_wallet_id = :walletId AND decided_at >= :from AND decided_at < :to " +
+            "AND status = 'APPROVED' AND operation IN :debitOperations), 0) - " +
+            "COALESCE((SELECT SUM(amount) FROM transaction_archive " +
+            "WHERE from_wallet_id = :walletId AND decided_at >= :from AND decided_at < :to " +
+            "AND status = 'APPROVED' AND operation IN :debitOperations), 0)", nativeQuery = true)
+    BigDecimal sumApprovedChangesOfWallet(@Param("walletId") Long walletId,
+                                          @Param("from") Instant from,
+                                          @Param("to") Instant to,
+                                          @Param("creditOperations") Collection<String> creditOperations,
+                                          @Param("debitOperations") Collection<String> debitOperations);
+
+    /**
+     * Projection of the balance change of a wallet.
+     */
+    interface BalanceChangeView {
+
+        Long getWalletId();
+
+        BigDecimal getAmount();
+    }
+
+    /**
+     * Projection of the request hash of a transaction.
+     */
+    interface RequestHashView {
+
+        Long getId();
+
+        String getRequestHash();
+    }
+
+    /**
+     * Projection of the keyset pagination key of a transaction.
+     */
+    interface TransactionKeyView {
+
+        Long getId();
+
+        Instant getCreatedAt();
+    }
 }
@@ -0,0 +1,21 @@
+package com.github.yozdemir.repository;
+
+import com.github.yozdemir.domain.entity.TransactionView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Search of the transactions by specifications, without counting the matching rows.
+ */
+public interface TransactionSearchRepository {
+
+    /**
+     * Fetches a slice of the transactions matching the given specification.
+     *
+     * @param specification
+     * @param pageable
+     * @return Slice of TransactionView
+     */
+    Slice<TransactionView> findSlice(Specification<TransactionView> specification, Pageable pageable);
+}
@@ -0,0 +1,41 @@
+package com.github.yozdemir.repository;
+
+import com.github.yozdemir.domain.entity.TransactionView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+public class TransactionSearchRepositoryImpl implements TransactionSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<TransactionView> findSlice(Specification<TransactionView> specification, Pageable pageable) {
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<TransactionView> query = cb.createQuery(TransactionView.class);
+        final Root<TransactionView> root = query.from(TransactionView.class);
+        final Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null)
+            query.where(predicate);
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        // one more row is fetched to find out whether there is a next slice
+        final List<TransactionView> transactions = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        final boolean hasNext = transactions.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? transactions.subList(0, pageable.getPageSize()) : transactions, pageable, hasNext);
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.yozdemir.repository;
+
+import com.github.yozdemir.domain.entity.TransactionView;
+import com.github.yozdemir.domain.enums.Status;
+import com.github.yozdemir.domain.value.Money;
+import lombok.experimental.UtilityClass;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+
+/**
+ * Specifications of the transaction search filters. A filter without a value returns null,
+ * so it is skipped when the specifications are combined.
+ */
+@UtilityClass
+public class TransactionSpecifications {
+
+    public static Specification<TransactionView> hasStatus(Status status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<TransactionView> hasType(Long typeId) {
+        return typeId == null ? null : (root, query, cb) -> cb.equal(root.get("typeId"), typeId);
+    }
+
+    public static Specification<TransactionView> isFromWallet(Long walletId) {
+        return walletId == null ? null : (root, query, cb) -> cb.equal(root.get("fromWalletId"), walletId);
+    }
+
+    public static Specification<TransactionView> isToWallet(Long walletId) {
+        return walletId == null ? null : (root, query, cb) -> cb.equal(root.get("toWalletId"), walletId);
+    }
+
+    public static Specification<TransactionView> amountFrom(Money amount) {
+        return amount == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("amount"), amount);
+    }
+
+    public static Specification<TransactionView> amountBelow(Money amount) {
+        return amount == null ? null : (root, query, cb) -> cb.lessThan(root.get("amount"), amount);
+    }
+
+    public static Specification<TransactionView> createdFrom(Instant from) {
+        return from == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+    }
+
+    public static Specification<TransactionView> createdBefore(Instant to) {
+        return to == null ? null : (root, query, cb) -> cb.lessThan(root.get("createdAt"), to);
+    }
+}
@@ -0,0 +1,125 @@
+package com.github.yozdemir.repository;
+
+import com.github.yozdemir.domain.entity.TransactionView;
+import com.github.yozdemir.domain.enums.Status;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static com.github.yozdemir.common.Constants.EXPORT_FETCH_SIZE;
+
+@Repository
+public interface TransactionViewRepository extends JpaRepository<TransactionView, Long>, TransactionSearchRepository {
+
+    Optional<TransactionView> findByReferenceNumber(UUID referenceNumber);
+
+    Slice<TransactionView> findAllBy(Pageable pageable);
+
+    /**
+     * Fetches the latest transactions sent by the wallets of the given user. Each direction is read separately,
+     * so the page is a range of a single (user, created_at, id) index. The constant user id leads the order,
+     * so the order matches the index and the page is read in it.
+     */
+    @Query("SELECT v FROM TransactionView v WHERE v.fromUserId = :userId " +
+            "ORDER BY v.fromUserId DESC, v.createdAt DESC, v.id DESC")
+    List<TransactionView> findLatestByFromUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Fetches the latest transactions sent by the wallets of the given user that come after the given key.
+     * Paging is done by the key of the last fetched row (keyset pagination), no row before it is read.
+     * The redundant upper bound of createdAt lets the lookup start from the key in the index.
+     */
+    @Query("SELECT v FROM TransactionView v " +
+            "WHERE v.fromUserId = :userId AND v.createdAt <= :lastCreatedAt " +
+            "AND (v.createdAt < :lastCreatedAt OR (v.createdAt = :lastCreatedAt AND v.id < :lastId)) " +
+            "ORDER BY v.fromUserId DESC, v.createdAt DESC, v.id DESC")
+    List<TransactionView> findLatestByFromUserIdBefore(@Param("userId") Long userId,
+                                                       @Param("lastCreatedAt") Instant lastCreatedAt,
+                                                       @Param("lastId") Long lastId,
+                                                       Pageable pageable);
+
+    /**
+     * Fetches the latest transactions received by the wallets of the given user,
+     * see {@link #findLatestByFromUserId(Long, Pageable)}.
+     */
+    @Query("SELECT v FROM TransactionView v WHERE v.toUserId = :userId " +
+            "ORDER BY v.toUserId DESC, v.createdAt DESC, v.id DESC")
+    List<TransactionView> findLatestByToUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Fetches the latest transactions received by the wallets of the given user before the given key,
+     * see {@link #findLatestByFromUserId(Long, Pageable)}.
+     */
+    @Query("SELECT v FROM TransactionView v " +
+            "WHERE v.toUserId = :userId AND v.createdAt <= :lastCreatedAt " +
+            "AND (v.createdAt < :lastCreatedAt OR (v.createdAt = :lastCreatedAt AND v.id < :lastId)) " +
+            "ORDER BY v.toUserId DESC, v.createdAt DESC, v.id DESC")
+    List<TransactionView> findLatestByToUserIdBefore(@Param("userId") Long userId,
+                                                     @Param("lastCreatedAt") Instant lastCreatedAt,
+                                                     @Param("lastId") Long lastId,
+                                                     Pageable pageable);
+
+    /**
+     * Streams all transactions in id order. Rows are fetched from the database in chunks of the fetch size
+     * while the stream is consumed, so the stream must be consumed and closed in a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT v FROM TransactionView v ORDER BY v.id")
+    Stream<TransactionView> streamAll();
+
+    /**
+     * Streams the transactions of the wallets of the given user in id order, see {@link #streamAll()}.
+     * Sent and received transactions are read by the index of their owner column each, instead of scanning
+     * the table for either owner; transactions between the wallets of the user are only read as sent.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = "SELECT * FROM transaction_view WHERE from_user_id = :userId " +
+            "UNION ALL " +
+            "SELECT * FROM transaction_view WHERE to_user_id = :userId AND from_user_id <> :userId " +
+            "ORDER BY id", nativeQuery = true)
+    Stream<TransactionView> streamAllByUserId(@Param("userId") Long userId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE TransactionView v SET v.status = :status WHERE v.id IN :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") Status status);
+
+    /**
+     * Updates the fields of the given wallet in the rows of its sent and received transactions.
+     */
+    default void updateWallet(Long walletId, String iban, String name, Long userId) {
+        updateFromWallet(walletId, iban, name, userId);
+        updateToWallet(walletId, iban, name, userId);
+    }
+
+    @Modifying
+    @Query("UPDATE TransactionView v SET v.fromWalletIban = :iban, v.fromWalletName = :name, v.fromUserId = :userId " +
+            "WHERE v.fromWalletId = :walletId")
+    int updateFromWallet(@Param("walletId") Long walletId, @Param("iban") String iban,
+                         @Param("name") String name, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE TransactionView v SET v.toWalletIban = :iban, v.toWalletName = :name, v.toUserId = :userId " +
+            "WHERE v.toWalletId = :walletId")
+    int updateToWallet(@Param("walletId") Long walletId, @Param("iban") String iban,
+                       @Param("name") String name, @Param("userId") Long userId);
+}
@@ -2,8 +2,13 @@ package com.github.yozdemir.repository;
 
 import com.github.yozdemir.domain.entity.Users;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +19,18 @@ public interface UserRepository extends JpaRepository<Users, Long> {
     boolean existsByUsernameIgnoreCase(String name);
 
     boolean existsByEmailIgnoreCase(String email);
+
+    // usernames and emails are stored in lower case, so the lookups use their unique indexes
+    @Query("SELECT u.username FROM Users u WHERE u.username IN :usernames")
+    List<String> findUsernamesIn(@Param("usernames") Collection<String> usernames);
+
+    @Query("SELECT u.email FROM Users u WHERE u.email IN :emails")
+    List<String> findEmailsIn(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT u.enabled FROM Users u WHERE u.id = :id")
+    Optional<Boolean> findEnabledById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Users u SET u.password = :password WHERE u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
 }
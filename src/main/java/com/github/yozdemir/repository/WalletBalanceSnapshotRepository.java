@@ -0,0 +1,29 @@
+package com.github.yozdemir.repository;
+
+import com.github.yozdemir.domain.entity.WalletBalanceSnapshot;
+import com.github.yozdemir.repository.WalletRepository.WalletBalanceView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WalletBalanceSnapshotRepository extends JpaRepository<WalletBalanceSnapshot, Long> {
+
+    Optional<WalletBalanceSnapshot> findFirstByWalletIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(Long walletId,
+                                                                                                       LocalDate date);
+
+    Optional<WalletBalanceSnapshot> findFirstByWalletIdAndSnapshotDateGreaterThanEqualOrderBySnapshotDateAsc(Long walletId,
+                                                                                                             LocalDate date);
+
+    @Query("SELECT MAX(s.snapshotDate) FROM WalletBalanceSnapshot s")
+    Optional<LocalDate> findLastSnapshotDate();
+
+    @Query("SELECT s.wallet.id AS walletId, s.balance AS balance FROM WalletBalanceSnapshot s " +
+            "WHERE s.snapshotDate = :snapshotDate")
+    List<WalletBalanceView> findBalancesBySnapshotDate(@Param("snapshotDate") LocalDate snapshotDate);
+}
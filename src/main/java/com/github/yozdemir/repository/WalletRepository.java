@@ -1,9 +1,19 @@
 package com.github.yozdemir.repository;
 
 import com.github.yozdemir.domain.entity.Wallet;
+import com.github.yozdemir.domain.value.Money;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,11 +22,93 @@ public interface WalletRepository extends JpaRepository<Wallet, Long> {
 
     Optional<Wallet> findByIban(String iban);
 
+    @Query("SELECT w.id FROM Wallet w WHERE w.iban = :iban")
+    Optional<Long> findIdByIban(@Param("iban") String iban);
+
+    @Query("SELECT w.currency FROM Wallet w WHERE w.id = :id")
+    Optional<String> findCurrencyById(@Param("id") Long id);
+
+    @Query("SELECT w.id AS id, w.iban AS iban FROM Wallet w WHERE w.iban IN :ibans")
+    List<WalletIdView> findIdsByIbanIn(@Param("ibans") Collection<String> ibans);
+
+    @Override
+    @EntityGraph(Wallet.RESPONSE_GRAPH)
+    Page<Wallet> findAll(Pageable pageable);
+
+    @EntityGraph(Wallet.RESPONSE_GRAPH)
+    Slice<Wallet> findAllBy(Pageable pageable);
+
+    @EntityGraph(Wallet.RESPONSE_GRAPH)
     List<Wallet> findByUserId(Long userId);
 
+    @Query("SELECT w.balance FROM Wallet w WHERE w.id = :id")
+    Optional<Money> findBalanceById(@Param("id") Long id);
+
+    @Query("SELECT w.id AS walletId, w.balance AS balance FROM Wallet w")
+    List<WalletBalanceView> findAllBalances();
+
     boolean existsByIbanIgnoreCase(String iban);
 
     boolean existsByUserIdAndNameIgnoreCase(Long userId, String name);
 
     Wallet getReferenceByIban(String iban);
+
+    /**
+     * Subtracts the given amounts from the wallet balances if the balance covers the required amount.
+     * The version is incremented as well, so concurrent entity updates of the wallet fail optimistically.
+     *
+     * @return number of updated rows, 0 if the balance is insufficient or the wallet does not exist
+     */
+    default int debitIfSufficient(Long id, Money required, Money balanceAmount, Money usableAmount) {
+        return subtractIfSufficient(id, required.toBigDecimal(), balanceAmount.toBigDecimal(), usableAmount.toBigDecimal());
+    }
+
+    // native, as the converted balance columns cannot be used in JPQL arithmetic
+    @Modifying
+    @Query(value = "UPDATE wallet " +
+            "SET balance = balance - :balanceAmount, usable_balance = usable_balance - :usableAmount, " +
+            "version = version + 1 " +
+            "WHERE id = :id AND balance >= :required", nativeQuery = true)
+    int subtractIfSufficient(@Param("id") Long id,
+                             @Param("required") BigDecimal required,
+                             @Param("balanceAmount") BigDecimal balanceAmount,
+                             @Param("usableAmount") BigDecimal usableAmount);
+
+    /**
+     * Adds the given amounts to the wallet balances and increments the version.
+     *
+     * @return number of updated rows, 0 if the wallet does not exist
+     */
+    default int credit(Long id, Money balanceAmount, Money usableAmount) {
+        return add(id, balanceAmount.toBigDecimal(), usableAmount.toBigDecimal());
+    }
+
+    @Modifying
+    @Query(value = "UPDATE wallet " +
+            "SET balance = balance + :balanceAmount, usable_balance = usable_balance + :usableAmount, " +
+            "version = version + 1 " +
+            "WHERE id = :id", nativeQuery = true)
+    int add(@Param("id") Long id,
+            @Param("balanceAmount") BigDecimal balanceAmount,
+            @Param("usableAmount") BigDecimal usableAmount);
+
+    /**
+     * Projection of the wallet id by its iban.
+     */
+    interface WalletIdView {
+
+        Long getId();
+
+        String getIban();
+    }
+
+    /**
+     * Projection of the balance of a wallet.
+     */
+    interface WalletBalanceView {
+
+        Long getWalletId();
+
+        Money getBalance();
+    }
 }
@@ -0,0 +1,23 @@
+package com.github.yozdemir.scheduler;
+
+import com.github.yozdemir.service.AuthService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled job that deletes the expired refresh tokens and the revoked tokens that are expired.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.security.tokenCleanup.enabled", havingValue = "true")
+public class ExpiredTokenCleanupJob {
+
+    private final AuthService authService;
+
+    @Scheduled(cron = "${app.security.tokenCleanup.cron:0 */15 * * * *}", zone = "UTC")
+    public void deleteExpiredTokens() {
+        authService.deleteExpiredTokens();
+    }
+}
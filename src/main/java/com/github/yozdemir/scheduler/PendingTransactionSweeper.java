@@ -0,0 +1,34 @@
+package com.github.yozdemir.scheduler;
+
+import com.github.yozdemir.domain.enums.Status;
+import com.github.yozdemir.service.PendingTransactionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Scheduled job that decides the transactions waiting in pending status longer than the configured age.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.transaction.sweeper.enabled", havingValue = "true")
+public class PendingTransactionSweeper {
+
+    private final PendingTransactionService pendingTransactionService;
+
+    @Value("${app.transaction.sweeper.decision:DENIED}")
+    private Status decision;
+
+    @Value("${app.transaction.sweeper.maxAgeMinutes:1440}")
+    private long maxAgeMinutes;
+
+    @Scheduled(fixedDelayString = "${app.transaction.sweeper.delayMs:60000}",
+            initialDelayString = "${app.transaction.sweeper.delayMs:60000}")
+    public void sweep() {
+        pendingTransactionService.sweep(decision, Duration.ofMinutes(maxAgeMinutes));
+    }
+}
@@ -0,0 +1,29 @@
+package com.github.yozdemir.scheduler;
+
+import com.github.yozdemir.service.TransactionArchiveService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Scheduled job that moves the decided transactions older than the configured age to the archive.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.transaction.archive.enabled", havingValue = "true")
+public class TransactionArchiveJob {
+
+    private final TransactionArchiveService transactionArchiveService;
+
+    @Value("${app.transaction.archive.maxAgeDays:90}")
+    private long maxAgeDays;
+
+    @Scheduled(cron = "${app.transaction.archive.cron:0 30 0 * * *}", zone = "UTC")
+    public void archive() {
+        transactionArchiveService.archive(Duration.ofDays(maxAgeDays));
+    }
+}
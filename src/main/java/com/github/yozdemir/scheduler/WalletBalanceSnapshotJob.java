@@ -0,0 +1,23 @@
+package com.github.yozdemir.scheduler;
+
+import com.github.yozdemir.service.WalletBalanceService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled job that takes the end of day balance snapshots of the wallets after the day is over.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.wallet.snapshot.enabled", havingValue = "true")
+public class WalletBalanceSnapshotJob {
+
+    private final WalletBalanceService walletBalanceService;
+
+    @Scheduled(cron = "${app.wallet.snapshot.cron:0 5 0 * * *}", zone = "UTC")
+    public void takeSnapshots() {
+        walletBalanceService.takeSnapshots();
+    }
+}
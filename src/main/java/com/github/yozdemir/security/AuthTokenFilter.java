@@ -9,7 +9,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -18,11 +17,14 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
 import static com.github.yozdemir.common.MessageKeys.ERROR_AUTH_SETUP;
+import static com.github.yozdemir.common.MessageKeys.ERROR_JWT_REVOKED;
+import static com.github.yozdemir.common.MessageKeys.ERROR_USER_DISABLED;
 
 /**
  * Makes a single execution for each request to our API. It provides a doFilterInternal() method
- * that we will implement parsing & validating JWT, loading User details (using UserDetailsService),
- * checking Authorization (using UsernamePasswordAuthenticationToken).
+ * that we will implement parsing & validating JWT, building User details from the token claims,
+ * checking that the token is not revoked and the user is still enabled (using UserDetailsService)
+ * and Authorization (using UsernamePasswordAuthenticationToken).
  */
 @Slf4j
 @Component
@@ -32,24 +34,32 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     private final MessageSourceConfig messageConfig;
     private final JwtUtils jwtUtils;
     private final UserDetailsServiceImpl userDetailsService;
+    private final RevokedTokenSet revokedTokenSet;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                final String username = jwtUtils.getUsernameFromJwtToken(jwt);
+            // the token is verified and decoded in a single parse
+            final VerifiedToken token = jwt == null ? null : jwtUtils.verifyJwtToken(jwt);
+            if (token != null && revokedTokenSet.isRevoked(token.tokenId())) {
+                log.warn(messageConfig.getMessage(ERROR_JWT_REVOKED, token.tokenId()));
+            } else if (token != null) {
+                final UserDetailsImpl userDetails = token.userDetails();
+                if (userDetailsService.isUserEnabled(userDetails.getId())) {
+                    // the verified token is kept as the credentials, so it can be revoked on logout
+                    final UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(
+                                    userDetails,
+                                    token,
+                                    userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                final UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                final UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                } else {
+                    log.warn(messageConfig.getMessage(ERROR_USER_DISABLED, userDetails.getId()));
+                }
             }
         } catch (Exception e) {
             log.error(messageConfig.getMessage(ERROR_AUTH_SETUP, e));
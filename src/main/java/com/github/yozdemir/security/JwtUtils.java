@@ -1,51 +1,119 @@
 package com.github.yozdemir.security;
 
+import com.github.yozdemir.cache.VerifiedTokenCache;
 import com.github.yozdemir.config.MessageSourceConfig;
 import io.jsonwebtoken.*;
-import lombok.RequiredArgsConstructor;
+import io.jsonwebtoken.impl.TextCodec;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 
 import static com.github.yozdemir.common.MessageKeys.*;
 
 /**
- * Utility class for Jwt related tasks.
+ * Utility class for Jwt related tasks. Tokens are verified with a single parser created once, which is
+ * only read after it is configured and so is shared by the requests, and the verified tokens are cached
+ * until they expire.
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class JwtUtils {
 
     private final MessageSourceConfig messageConfig;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final byte[] signingKey;
+    private final JwtParser parser;
+    private final int jwtExpirationMs;
 
-    @Value("${app.security.jwtSecret}")
-    private String jwtSecret;
+    private static final String CLAIM_ID = "id";
+    private static final String CLAIM_ROLES = "roles";
 
-    @Value("${app.security.jwtExpirationMs}")
-    private int jwtExpirationMs;
+    public JwtUtils(MessageSourceConfig messageConfig,
+                    VerifiedTokenCache verifiedTokenCache,
+                    @Value("${app.security.jwtSecret}") String jwtSecret,
+                    @Value("${app.security.jwtExpirationMs}") int jwtExpirationMs) {
+        this.messageConfig = messageConfig;
+        this.verifiedTokenCache = verifiedTokenCache;
+        // the secret is a base64 encoded key, it is decoded once instead of on every signature
+        this.signingKey = TextCodec.BASE64.decode(jwtSecret);
+        this.parser = Jwts.parser().setSigningKey(signingKey);
+        this.jwtExpirationMs = jwtExpirationMs;
+    }
 
+    /**
+     * Generates a signed token carrying the id, the username and the roles of the authenticated user
+     * as its claims, so the user can be authenticated from the token without loading it again.
+     *
+     * @param authentication
+     * @return token
+     */
     public String generateJwtToken(Authentication authentication) {
-        final UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
+        return generateJwtToken((UserDetailsImpl) authentication.getPrincipal());
+    }
+
+    /**
+     * Generates a signed token carrying the id, the username and the roles of the given user as its claims,
+     * and a unique id used for revoking the token. Personal details are not put in the token, as its claims
+     * can be read by anyone holding it; they are served by the user endpoint.
+     *
+     * @param userPrincipal
+     * @return token
+     */
+    public String generateJwtToken(UserDetailsImpl userPrincipal) {
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject((userPrincipal.getUsername()))
+                .claim(CLAIM_ID, userPrincipal.getId())
+                .claim(CLAIM_ROLES, userPrincipal.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(SignatureAlgorithm.HS512, jwtSecret)
+                .signWith(SignatureAlgorithm.HS512, signingKey)
                 .compact();
     }
 
-    public String getUsernameFromJwtToken(String token) {
-        return Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token).getBody().getSubject();
+    /**
+     * Verifies the given token and builds the user from its claims. Tokens seen before are not verified
+     * again until they expire. The password and the personal details are not part of the token, and the
+     * user is enabled when the token was issued.
+     *
+     * @param token
+     * @return VerifiedToken, null if the token is invalid
+     */
+    public VerifiedToken verifyJwtToken(String token) {
+        return verifiedTokenCache.get(token, this::verify);
     }
 
-    public boolean validateJwtToken(String authToken) {
+    /**
+     * Verifies the signature and the expiration of the given token and decodes its claims, in a single parse.
+     */
+    private VerifiedToken verify(String token) {
         try {
-            Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(authToken);
-            return true;
+            final Claims claims = parser.parseClaimsJws(token).getBody();
+            final Long id = claims.get(CLAIM_ID, Long.class);
+            // tokens issued before the user claims and the token ids were added carry only the username
+            if (id == null || claims.getId() == null)
+                throw new MalformedJwtException(messageConfig.getMessage(ERROR_JWT_MISSING_CLAIMS, claims.getSubject()));
+
+            final List<SimpleGrantedAuthority> authorities = ((List<?>) claims.get(CLAIM_ROLES, List.class)).stream()
+                    .map(role -> new SimpleGrantedAuthority(role.toString()))
+                    .toList();
+            final UserDetailsImpl userDetails = new UserDetailsImpl(
+                    id,
+                    claims.getSubject(),
+                    null,
+                    null,
+                    null,
+                    null,
+                    authorities,
+                    true);
+            return new VerifiedToken(claims.getId(), userDetails, claims.getExpiration().toInstant());
         } catch (SignatureException e) {
             log.error(messageConfig.getMessage(ERROR_JWT_INVALID_SIGNATURE, e.getMessage()));
         } catch (MalformedJwtException e) {
@@ -57,6 +125,6 @@ public class JwtUtils {
         } catch (IllegalArgumentException e) {
             log.error(messageConfig.getMessage(ERROR_JWT_EMPTY_CLAIMS, e.getMessage()));
         }
-        return false;
+        return null;
     }
 }
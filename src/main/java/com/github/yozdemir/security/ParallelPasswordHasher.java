@@ -0,0 +1,63 @@
+package com.github.yozdemir.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Hashes the passwords of the bulk signups in parallel on a dedicated fork join pool. The pool is kept apart
+ * from the pool of {@link PooledPasswordEncoder}, so a large import does not fill its queue and reject the
+ * logins. Hashing is bound by the processors, so the pool only takes the processors left over by the threads
+ * of the logins, and at least one. Passwords are hashed with the same strength as the logins use.
+ */
+@Component
+public class ParallelPasswordHasher {
+
+    private final BCryptPasswordEncoder encoder;
+    private final ForkJoinPool pool;
+    private final Timer timer;
+
+    public ParallelPasswordHasher(MeterRegistry meterRegistry,
+                                  @Value("${app.security.bcrypt.strength:10}") int strength,
+                                  @Value("${app.security.bcrypt.bulkParallelism:4}") int parallelism,
+                                  @Value("${app.security.bcrypt.threads:2}") int loginThreads) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.pool = new ForkJoinPool(parallelism(parallelism, Runtime.getRuntime().availableProcessors(), loginThreads));
+        this.timer = Timer.builder("auth.password.bulk")
+                .description("Time the passwords of a bulk signup chunk are hashed")
+                .register(meterRegistry);
+    }
+
+    static int parallelism(int configured, int processors, int loginThreads) {
+        return Math.max(1, Math.min(configured, processors - loginThreads));
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Hashes the given passwords, the caller waits until all of them are hashed.
+     *
+     * @param rawPasswords
+     * @return hashed passwords in the order of the given ones
+     */
+    public List<String> encodeAll(List<String> rawPasswords) {
+        // a parallel stream started in the pool runs its tasks on the pool instead of the common pool
+        return timer.record(() -> pool.submit(() -> rawPasswords.parallelStream()
+                        .map(encoder::encode)
+                        .toList())
+                .join());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
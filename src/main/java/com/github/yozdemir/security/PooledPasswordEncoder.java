@@ -0,0 +1,141 @@
+package com.github.yozdemir.security;
+
+import com.github.yozdemir.config.MessageSourceConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.github.yozdemir.common.MessageKeys.ERROR_PASSWORD_HASHING_BUSY;
+
+/**
+ * BCrypt password encoder running the hashing on a dedicated bounded pool, so a burst of logins uses
+ * at most the configured threads and cannot starve the request threads of the other endpoints. Callers
+ * wait for their result, and they are rejected when the queue of the pool is full. Passwords hashed with
+ * another cost than the configured one are reported for an upgrade, so they are rehashed on login.
+ */
+@Slf4j
+@Component
+public class PooledPasswordEncoder implements PasswordEncoder {
+
+    private static final String METRIC_PREFIX = "auth.password.";
+    private static final String TAG_OPERATION = "operation";
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2([ayb])?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+    private final MessageSourceConfig messageConfig;
+    private final MeterRegistry meterRegistry;
+    private final BCryptPasswordEncoder encoder;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    private final Timer queueTimer;
+    private final Counter rejected;
+
+    public PooledPasswordEncoder(MessageSourceConfig messageConfig,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.security.bcrypt.strength:10}") int strength,
+                                 @Value("${app.security.bcrypt.threads:2}") int threads,
+                                 @Value("${app.security.bcrypt.queueCapacity:100}") int queueCapacity) {
+        if (threads < 1)
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+
+        this.messageConfig = messageConfig;
+        this.meterRegistry = meterRegistry;
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                task -> new Thread(task, "password-worker-" + threadCount.incrementAndGet()));
+        this.queueTimer = Timer.builder(METRIC_PREFIX + "queue")
+                .description("Time password hashing waits for a worker")
+                .register(meterRegistry);
+        this.rejected = Counter.builder(METRIC_PREFIX + "rejected")
+                .description("Password hashing rejected because the pool is saturated")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "queue.size", executor, pool -> pool.getQueue().size())
+                .description("Password hashing waiting for a worker")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute("encode", () -> encoder.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute("matches", () -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Checks whether the given hash is made with another cost than the configured one. Unlike
+     * {@link BCryptPasswordEncoder#upgradeEncoding(String)}, lowering the cost is upgraded too.
+     *
+     * @param encodedPassword
+     * @return true if the password should be hashed again
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null)
+            return false;
+
+        final Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        return matcher.matches() && Integer.parseInt(matcher.group(2)) != strength;
+    }
+
+    /**
+     * Runs the given hashing on the pool and waits for its result.
+     *
+     * @throws RejectedExecutionException if the queue of the pool is full
+     */
+    <T> T execute(String operation, Supplier<T> hashing) {
+        final long queuedAt = System.nanoTime();
+        final Future<T> result;
+        try {
+            result = executor.submit(() -> {
+                queueTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return Timer.builder(METRIC_PREFIX + "hash")
+                        .tag(TAG_OPERATION, operation)
+                        .register(meterRegistry)
+                        .record(hashing);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new RejectedExecutionException(messageConfig.getMessage(ERROR_PASSWORD_HASHING_BUSY), e);
+        }
+
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
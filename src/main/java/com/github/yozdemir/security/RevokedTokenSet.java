@@ -0,0 +1,72 @@
+package com.github.yozdemir.security;
+
+import com.github.yozdemir.domain.entity.RevokedToken;
+import com.github.yozdemir.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In memory set of the ids of the revoked access tokens, so every request is checked by a hash lookup
+ * without a database query. It is loaded from the revoked tokens at startup, and an id is kept until its
+ * token expires, since an expired token is rejected anyway.
+ * <p>
+ * The set is kept per node and is only loaded at startup, so a token revoked on one node is still accepted
+ * by the other running nodes until it expires. Revocation is only complete with a single node; with several
+ * nodes the access tokens must be short lived, or the revocations must be shared between the nodes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RevokedTokenSet {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+
+    // expiration time by token id
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void load() {
+        revokedTokenRepository.findAllByExpiresAtAfter(clock.instant())
+                .forEach(token -> revoked.put(token.getTokenId(), token.getExpiresAt()));
+        Gauge.builder("auth.token.revoked", revoked, Map::size)
+                .description("Revoked access tokens that are not expired yet")
+                .register(meterRegistry);
+        log.info("Revoked tokens are loaded, {} token(s)", revoked.size());
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return revoked.containsKey(tokenId);
+    }
+
+    /**
+     * Adds the given revoked token, it is stored by the caller.
+     *
+     * @param token
+     */
+    public void add(RevokedToken token) {
+        revoked.put(token.getTokenId(), token.getExpiresAt());
+    }
+
+    /**
+     * Removes the tokens expired before the given time.
+     *
+     * @param now
+     * @return number of the removed tokens
+     */
+    public int removeExpired(Instant now) {
+        final int size = revoked.size();
+        revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        return size - revoked.size();
+    }
+}
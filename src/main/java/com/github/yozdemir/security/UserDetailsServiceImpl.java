@@ -1,28 +1,39 @@
 package com.github.yozdemir.security;
 
+import com.github.yozdemir.cache.UserStatusCache;
 import com.github.yozdemir.config.MessageSourceConfig;
 import com.github.yozdemir.domain.entity.Users;
 import com.github.yozdemir.repository.UserRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import static com.github.yozdemir.common.MessageKeys.ERROR_USERNAME_NOT_FOUND;
+import static com.github.yozdemir.common.MessageKeys.INFO_USER_PASSWORD_REHASHED;
 
 /**
  * Service used for UserDetails related operations.
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final MessageSourceConfig messageConfig;
 
     private final UserRepository userRepository;
 
+    private final UserStatusCache userStatusCache;
+
+    @Value("${app.security.userStatus.enabled:true}")
+    private boolean userStatusCheckEnabled;
+
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -30,4 +41,42 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 .orElseThrow(() -> new UsernameNotFoundException(messageConfig.getMessage(ERROR_USERNAME_NOT_FOUND, username)));
         return UserDetailsImpl.build(user);
     }
+
+    /**
+     * Stores the password of the given user hashed again on login, when its hash was made with
+     * another cost than the configured one.
+     *
+     * @param user
+     * @param newPassword hash of the password with the configured cost
+     * @return UserDetails with the new hash
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        final UserDetailsImpl userDetails = (UserDetailsImpl) user;
+        userRepository.updatePassword(userDetails.getUsername(), newPassword);
+        log.info(messageConfig.getMessage(INFO_USER_PASSWORD_REHASHED, userDetails.getUsername()));
+        return new UserDetailsImpl(
+                userDetails.getId(),
+                userDetails.getUsername(),
+                newPassword,
+                userDetails.getFirstName(),
+                userDetails.getLastName(),
+                userDetails.getTckn(),
+                userDetails.getAuthorities(),
+                userDetails.isEnabled());
+    }
+
+    /**
+     * Checks whether the user by the given id is still enabled. The status is cached for a short time,
+     * and the check always passes when it is turned off.
+     *
+     * @param userId
+     * @return true if the user exists and is enabled
+     */
+    public boolean isUserEnabled(Long userId) {
+        if (!userStatusCheckEnabled)
+            return true;
+        return userStatusCache.isEnabled(userId, id -> userRepository.findEnabledById(id).orElse(false));
+    }
 }
@@ -0,0 +1,13 @@
+package com.github.yozdemir.security;
+
+import java.time.Instant;
+
+/**
+ * Result of a verified token, its id, the user built from its claims and the time it expires.
+ *
+ * @param tokenId
+ * @param userDetails
+ * @param expiresAt
+ */
+public record VerifiedToken(String tokenId, UserDetailsImpl userDetails, Instant expiresAt) {
+}
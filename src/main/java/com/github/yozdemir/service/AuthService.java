@@ -1,26 +1,57 @@
 package com.github.yozdemir.service;
 
 import com.github.yozdemir.config.MessageSourceConfig;
+import com.github.yozdemir.domain.entity.RefreshToken;
+import com.github.yozdemir.domain.entity.RevokedToken;
+import com.github.yozdemir.domain.entity.Role;
 import com.github.yozdemir.domain.entity.Users;
+import com.github.yozdemir.domain.enums.RoleType;
+import com.github.yozdemir.domain.enums.SignupStatus;
 import com.github.yozdemir.domain.enums.Status;
 import com.github.yozdemir.dto.mapper.SignupRequestMapper;
 import com.github.yozdemir.dto.request.LoginRequest;
+import com.github.yozdemir.dto.request.RefreshTokenRequest;
 import com.github.yozdemir.dto.request.SignupRequest;
 import com.github.yozdemir.dto.response.CommandResponse;
 import com.github.yozdemir.dto.response.JwtResponse;
+import com.github.yozdemir.dto.response.SignupResultResponse;
 import com.github.yozdemir.exception.ElementAlreadyExistsException;
+import com.github.yozdemir.repository.RefreshTokenRepository;
+import com.github.yozdemir.repository.RevokedTokenRepository;
 import com.github.yozdemir.repository.UserRepository;
 import com.github.yozdemir.security.JwtUtils;
+import com.github.yozdemir.security.ParallelPasswordHasher;
+import com.github.yozdemir.security.RevokedTokenSet;
+import com.github.yozdemir.security.TokenDigests;
 import com.github.yozdemir.security.UserDetailsImpl;
+import com.github.yozdemir.security.VerifiedToken;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static com.github.yozdemir.common.MessageKeys.*;
 
@@ -37,6 +68,23 @@ public class AuthService {
     private final JwtUtils jwtUtils;
     private final UserRepository userRepository;
     private final SignupRequestMapper signupRequestMapper;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final RevokedTokenSet revokedTokenSet;
+    private final Clock clock;
+    private final RoleService roleService;
+    private final ParallelPasswordHasher passwordHasher;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final Set<String> ROLE_NAMES = Arrays.stream(RoleType.values())
+            .map(Enum::name)
+            .collect(Collectors.toSet());
+
+    @Value("${app.security.refreshExpirationMs:1209600000}")
+    private long refreshExpirationMs;
+
+    @Value("${app.user.batch.chunkSize:500}")
+    private int batchChunkSize;
 
     /**
      * Authenticates users by their credentials.
@@ -52,21 +100,69 @@ public class AuthService {
         String jwt = jwtUtils.generateJwtToken(authentication);
 
         final UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        final List<String> roles = userDetails.getAuthorities().stream()
-                .map(item -> item.getAuthority())
-                .toList();
+        final String refreshToken = createRefreshToken(userRepository.getReferenceById(userDetails.getId()));
 
         log.info(messageConfig.getMessage(INFO_USER_LOGIN, request.getUsername()));
-        return JwtResponse
-                .builder()
-                .tckn(userDetails.getTckn())
-                .type(Status.APPROVED.name())
-                .token(jwt)
-                .id(userDetails.getId())
-                .username(userDetails.getUsername())
-                .firstName(userDetails.getFirstName())
-                .lastName(userDetails.getLastName())
-                .roles(roles).build();
+        return buildResponse(userDetails, jwt, refreshToken);
+    }
+
+    /**
+     * Issues a new access token for the given refresh token, without checking the password.
+     * Refresh tokens are single use, the given one is replaced by the returned one.
+     *
+     * @param request
+     * @return JwtResponse
+     */
+    @Transactional
+    public JwtResponse refresh(RefreshTokenRequest request) {
+        final RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(TokenDigests.sha256(request.getRefreshToken()))
+                .filter(token -> token.getExpiresAt().isAfter(clock.instant()))
+                .orElseThrow(() -> new BadCredentialsException(messageConfig.getMessage(ERROR_REFRESH_TOKEN_INVALID)));
+        // only one of the concurrent uses of the same token deletes it
+        if (refreshTokenRepository.deleteUsed(refreshToken.getId()) == 0)
+            throw new BadCredentialsException(messageConfig.getMessage(ERROR_REFRESH_TOKEN_INVALID));
+
+        final Users user = refreshToken.getUser();
+        if (!user.isEnabled())
+            throw new DisabledException(messageConfig.getMessage(ERROR_USER_DISABLED, user.getId()));
+
+        final UserDetailsImpl userDetails = UserDetailsImpl.build(user);
+        log.info(messageConfig.getMessage(INFO_USER_TOKEN_REFRESHED, user.getUsername()));
+        return buildResponse(userDetails, jwtUtils.generateJwtToken(userDetails), createRefreshToken(user));
+    }
+
+    /**
+     * Deletes the given refresh token of the given user and revokes the access token of the current request.
+     * The access token is only revoked on this node, see {@link RevokedTokenSet}.
+     *
+     * @param userId
+     * @param request
+     */
+    @Transactional
+    public void logout(Long userId, RefreshTokenRequest request) {
+        refreshTokenRepository.deleteByTokenHashAndUserId(TokenDigests.sha256(request.getRefreshToken()), userId);
+
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getCredentials() instanceof VerifiedToken token) {
+            final RevokedToken revokedToken = revokedTokenRepository.save(new RevokedToken(token.tokenId(), token.expiresAt()));
+            revokedTokenSet.add(revokedToken);
+            log.info(messageConfig.getMessage(INFO_USER_LOGOUT, token.userDetails().getUsername()));
+        }
+    }
+
+    /**
+     * Deletes the expired refresh tokens and the revoked tokens that are expired.
+     *
+     * @return number of the deleted tokens
+     */
+    @Transactional
+    public int deleteExpiredTokens() {
+        final Instant now = clock.instant();
+        final int refreshTokens = refreshTokenRepository.deleteExpired(now);
+        final int revokedTokens = revokedTokenRepository.deleteExpired(now);
+        revokedTokenSet.removeExpired(now);
+        log.info(messageConfig.getMessage(INFO_EXPIRED_TOKENS_DELETED, refreshTokens, revokedTokens));
+        return refreshTokens + revokedTokens;
     }
 
     /**
@@ -86,4 +182,199 @@ public class AuthService {
         log.info(messageConfig.getMessage(INFO_USER_CREATED, user.getUsername()));
         return CommandResponse.builder().id(user.getId()).build();
     }
+
+    /**
+     * Registers users for the given requests in chunks, each chunk in a single transaction.
+     * Usernames and emails of a chunk are checked by a single lookup each, the passwords of a chunk are
+     * hashed in parallel and its users are inserted in JDBC batches. A rejected signup does not affect
+     * the others, and the result of every request is returned in the order of the requests.
+     *
+     * @param requests
+     * @return List of SignupResultResponse
+     */
+    public List<SignupResultResponse> signupBatch(List<SignupRequest> requests) {
+        final List<SignupResultResponse> results = new ArrayList<>(requests.size());
+        // usernames and emails taken by the previous requests of the batch
+        final Set<String> usernames = new HashSet<>();
+        final Set<String> emails = new HashSet<>();
+
+        for (int offset = 0; offset < requests.size(); offset += batchChunkSize) {
+            final List<SignupRequest> chunk = requests.subList(offset, Math.min(offset + batchChunkSize, requests.size()));
+            results.addAll(signupChunk(chunk, offset, usernames, emails));
+        }
+        return results;
+    }
+
+    private List<SignupResultResponse> signupChunk(List<SignupRequest> chunk, int offset,
+                                                   Set<String> usernames, Set<String> emails) {
+        final Set<String> existingUsernames = new HashSet<>(userRepository.findUsernamesIn(
+                chunk.stream().map(request -> normalize(request.getUsername())).toList()));
+        final Set<String> existingEmails = new HashSet<>(userRepository.findEmailsIn(
+                chunk.stream().map(request -> normalize(request.getEmail())).toList()));
+
+        final SignupResultResponse[] results = new SignupResultResponse[chunk.size()];
+        final List<Integer> acceptedIndexes = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            final SignupRequest request = chunk.get(i);
+            final String username = normalize(request.getUsername());
+            final String email = normalize(request.getEmail());
+            final Optional<String> invalidRole = getRoles(request).stream()
+                    .filter(role -> !ROLE_NAMES.contains(role))
+                    .findFirst();
+
+            if (invalidRole.isPresent()) {
+                results[i] = rejected(offset + i, messageConfig.getMessage(ERROR_ROLE_INVALID, invalidRole.get()));
+            } else if (existingUsernames.contains(username) || usernames.contains(username)) {
+                results[i] = rejected(offset + i, messageConfig.getMessage(ERROR_USERNAME_EXISTS));
+            } else if (existingEmails.contains(email) || emails.contains(email)) {
+                results[i] = rejected(offset + i, messageConfig.getMessage(ERROR_EMAIL_EXISTS));
+            } else {
+                usernames.add(username);
+                emails.add(email);
+                acceptedIndexes.add(i);
+            }
+        }
+
+        int created = 0;
+        if (!acceptedIndexes.isEmpty()) {
+            // hashed before the transaction, so a connection is not held while hashing
+            final List<String> passwords = passwordHasher.encodeAll(
+                    acceptedIndexes.stream().map(index -> chunk.get(index).getPassword()).toList());
+            created = createAccepted(chunk, offset, acceptedIndexes, passwords, results);
+        }
+        log.info(messageConfig.getMessage(INFO_SIGNUP_CHUNK_COMPLETED, chunk.size(), created, chunk.size() - created));
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Creates the users of the accepted requests of a chunk in a single transaction. When a user is created
+     * concurrently with a username or email of the chunk, the chunk is rolled back as a whole; the usernames
+     * and emails are looked up again, the conflicting requests are rejected and the others are created again.
+     *
+     * @return number of the created users
+     */
+    private int createAccepted(List<SignupRequest> chunk, int offset, List<Integer> acceptedIndexes,
+                               List<String> passwords, SignupResultResponse[] results) {
+        final List<Integer> indexes = new ArrayList<>(acceptedIndexes);
+        final List<String> hashes = new ArrayList<>(passwords);
+        while (!indexes.isEmpty()) {
+            final List<SignupRequest> requests = indexes.stream().map(chunk::get).toList();
+            try {
+                final List<Users> users = transactionTemplate.execute(status -> createUsers(requests, hashes));
+                for (int i = 0; i < indexes.size(); i++) {
+                    final int index = indexes.get(i);
+                    results[index] = SignupResultResponse.builder()
+                            .index(offset + index)
+                            .id(users.get(i).getId())
+                            .status(SignupStatus.CREATED)
+                            .build();
+                }
+                return indexes.size();
+            } catch (DataIntegrityViolationException ex) {
+                if (!rejectTaken(requests, offset, indexes, hashes, results)) {
+                    // the conflict is not on a username or email, so the chunk would fail again
+                    for (int index : indexes) {
+                        results[index] = rejected(offset + index, messageConfig.getMessage(ERROR_ALREADY_EXISTS));
+                    }
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Rejects the given requests whose usernames or emails are taken, and removes them with their hashes.
+     *
+     * @return true if any request is rejected
+     */
+    private boolean rejectTaken(List<SignupRequest> requests, int offset, List<Integer> indexes, List<String> hashes,
+                                SignupResultResponse[] results) {
+        final Set<String> takenUsernames = new HashSet<>(userRepository.findUsernamesIn(
+                requests.stream().map(request -> normalize(request.getUsername())).toList()));
+        final Set<String> takenEmails = new HashSet<>(userRepository.findEmailsIn(
+                requests.stream().map(request -> normalize(request.getEmail())).toList()));
+
+        boolean rejected = false;
+        // removed from the end, so the positions of the remaining requests do not change
+        for (int i = requests.size() - 1; i >= 0; i--) {
+            final SignupRequest request = requests.get(i);
+            final String reason;
+            if (takenUsernames.contains(normalize(request.getUsername()))) {
+                reason = messageConfig.getMessage(ERROR_USERNAME_EXISTS);
+            } else if (takenEmails.contains(normalize(request.getEmail()))) {
+                reason = messageConfig.getMessage(ERROR_EMAIL_EXISTS);
+            } else {
+                continue;
+            }
+            results[indexes.get(i)] = rejected(offset + indexes.get(i), reason);
+            indexes.remove(i);
+            hashes.remove(i);
+            rejected = true;
+        }
+        return rejected;
+    }
+
+    private List<Users> createUsers(List<SignupRequest> requests, List<String> passwords) {
+        // roles are resolved once for the chunk instead of once per user
+        final Map<RoleType, Role> roles = roleService.getReferenceByTypeIsIn(EnumSet.allOf(RoleType.class)).stream()
+                .collect(Collectors.toMap(Role::getType, Function.identity()));
+
+        final List<Users> users = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            final SignupRequest request = requests.get(i);
+            final Set<Role> userRoles = getRoles(request).stream()
+                    .map(role -> roles.get(RoleType.valueOf(role)))
+                    .collect(Collectors.toSet());
+            users.add(signupRequestMapper.toUser(request, passwords.get(i), userRoles));
+        }
+        // ids are taken from the pooled sequence, so the users and their roles are inserted in JDBC batches
+        return userRepository.saveAllAndFlush(users);
+    }
+
+    private Set<String> getRoles(SignupRequest request) {
+        return Optional.ofNullable(request.getRoles()).orElse(Set.of());
+    }
+
+    private String normalize(String value) {
+        return value.trim().toLowerCase();
+    }
+
+    private SignupResultResponse rejected(int index, String reason) {
+        return SignupResultResponse.builder()
+                .index(index)
+                .status(SignupStatus.REJECTED)
+                .reason(reason)
+                .build();
+    }
+
+    private String createRefreshToken(Users user) {
+        final String token = TokenDigests.generate();
+        final Instant now = clock.instant();
+        final RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(TokenDigests.sha256(token));
+        refreshToken.setUser(user);
+        refreshToken.setCreatedAt(now);
+        refreshToken.setExpiresAt(now.plusMillis(refreshExpirationMs));
+        refreshTokenRepository.save(refreshToken);
+        return token;
+    }
+
+    private JwtResponse buildResponse(UserDetailsImpl userDetails, String jwt, String refreshToken) {
+        final List<String> roles = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+
+        return JwtResponse
+                .builder()
+                .tckn(userDetails.getTckn())
+                .type(Status.APPROVED.name())
+                .token(jwt)
+                .refreshToken(refreshToken)
+                .id(userDetails.getId())
+                .username(userDetails.getUsername())
+                .firstName(userDetails.getFirstName())
+                .lastName(userDetails.getLastName())
+                .roles(roles).build();
+    }
 }
@@ -0,0 +1,149 @@
+package com.github.yozdemir.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.yozdemir.config.MessageSourceConfig;
+import com.github.yozdemir.dto.request.TransactionRequest;
+import com.github.yozdemir.dto.response.CommandResponse;
+import com.github.yozdemir.exception.IdempotencyKeyReusedException;
+import com.github.yozdemir.repository.TransactionRepository;
+import com.github.yozdemir.security.TokenDigests;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import static com.github.yozdemir.common.MessageKeys.ERROR_IDEMPOTENCY_KEY_REUSED;
+import static com.github.yozdemir.common.MessageKeys.INFO_IDEMPOTENT_REPLAY;
+
+/**
+ * Service used for executing transaction requests at most once per reference number.
+ * Responses of the recent requests are kept in a bounded cache, so a retried request is answered
+ * by a lookup. When the response is already evicted, the unique reference number of the stored
+ * transaction rejects the duplicate and the response is rebuilt from that transaction.
+ * Reference numbers are scoped by the requesting user, and a digest of the user and the request body
+ * is kept with the response and the transaction, so a reference number reused by another user or with
+ * another body is rejected instead of being answered with the response of the first request.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private final MessageSourceConfig messageConfig;
+    private final TransactionRepository transactionRepository;
+    private final Cache<Key, Execution> responses;
+
+    public IdempotencyService(MessageSourceConfig messageConfig,
+                              TransactionRepository transactionRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.idempotency.maxEntries:10000}") long maxEntries,
+                              @Value("${app.idempotency.ttlMinutes:60}") long ttlMinutes) {
+        this.messageConfig = messageConfig;
+        this.transactionRepository = transactionRepository;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "idempotency");
+    }
+
+    /**
+     * Executes the given command unless a request with the same reference number is already executed
+     * by the same user, in that case the response of the first execution is returned. Concurrent duplicates
+     * wait for the first execution. Requests without a reference number are always executed.
+     * A reference number that is already used for another request is rejected.
+     *
+     * @param userId
+     * @param request
+     * @param command
+     * @return CommandResponse
+     */
+    public CommandResponse execute(Long userId,
+                                   TransactionRequest request,
+                                   Function<TransactionRequest, CommandResponse> command) {
+        final UUID referenceNumber = request.getReferenceNumber();
+        if (referenceNumber == null)
+            return command.apply(request);
+
+        request.setRequestHash(hash(userId, request));
+        final Key key = new Key(userId, referenceNumber);
+        final Execution execution = new Execution(request.getRequestHash(), new CompletableFuture<>());
+        final Execution previous = responses.asMap().putIfAbsent(key, execution);
+        if (previous != null) {
+            checkRequestHash(referenceNumber, previous.requestHash(), request.getRequestHash());
+            log.info(messageConfig.getMessage(INFO_IDEMPOTENT_REPLAY, referenceNumber));
+            return join(previous.response());
+        }
+
+        try {
+            final CommandResponse response = executeOnce(request, command);
+            execution.response().complete(response);
+            return response;
+        } catch (RuntimeException ex) {
+            // failed requests are not kept, so that they can be retried
+            responses.asMap().remove(key, execution);
+            execution.response().completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Computes the digest of the given user and the fields of the request that are sent by the client.
+     *
+     * @param userId
+     * @param request
+     * @return digest
+     */
+    public static String hash(Long userId, TransactionRequest request) {
+        return TokenDigests.sha256(String.join("|",
+                String.valueOf(userId),
+                String.valueOf(request.getFromWalletIban()),
+                String.valueOf(request.getToWalletIban()),
+                String.valueOf(request.getAmount()),
+                String.valueOf(request.getDescription())));
+    }
+
+    private CommandResponse executeOnce(TransactionRequest request, Function<TransactionRequest, CommandResponse> command) {
+        try {
+            return command.apply(request);
+        } catch (DataIntegrityViolationException ex) {
+            // the request is already executed before, but its response is not cached anymore
+            final TransactionRepository.RequestHashView stored = transactionRepository
+                    .findRequestHashByReferenceNumber(request.getReferenceNumber())
+                    .orElseThrow(() -> ex);
+            checkRequestHash(request.getReferenceNumber(), stored.getRequestHash(), request.getRequestHash());
+            return CommandResponse.builder().id(stored.getId()).build();
+        }
+    }
+
+    private void checkRequestHash(UUID referenceNumber, String expected, String actual) {
+        if (!Objects.equals(expected, actual))
+            throw new IdempotencyKeyReusedException(messageConfig.getMessage(ERROR_IDEMPOTENCY_KEY_REUSED, referenceNumber));
+    }
+
+    private CommandResponse join(CompletableFuture<CommandResponse> execution) {
+        try {
+            return execution.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw ex;
+        }
+    }
+
+    private record Key(Long userId, UUID referenceNumber) {
+    }
+
+    private record Execution(String requestHash, CompletableFuture<CommandResponse> response) {
+    }
+}
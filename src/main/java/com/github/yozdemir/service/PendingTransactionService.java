@@ -0,0 +1,102 @@
+package com.github.yozdemir.service;
+
+import com.github.yozdemir.config.MessageSourceConfig;
+import com.github.yozdemir.domain.enums.Status;
+import com.github.yozdemir.dto.response.BulkDecisionResponse;
+import com.github.yozdemir.repository.TransactionRepository;
+import com.github.yozdemir.repository.TransactionRepository.TransactionKeyView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.github.yozdemir.common.MessageKeys.INFO_PENDING_SWEEP_COMPLETED;
+
+/**
+ * Service used for deciding pending transactions in bulk. Transactions are decided in chunks,
+ * each chunk in its own database transaction, so a large request does not hold the locks of
+ * all its rows and wallets at once.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PendingTransactionService {
+
+    private final MessageSourceConfig messageConfig;
+    private final TransactionService transactionService;
+    private final TransactionRepository transactionRepository;
+    private final Clock clock;
+
+    @Value("${app.transaction.pending.chunkSize:500}")
+    private int chunkSize;
+
+    /**
+     * Approves or denies the pending transactions by the given ids. Ids of the transactions that
+     * are not found or not pending anymore are returned as skipped.
+     *
+     * @param ids
+     * @param decision
+     * @return BulkDecisionResponse
+     */
+    public BulkDecisionResponse decide(List<Long> ids, Status decision) {
+        final List<Long> distinctIds = List.copyOf(new LinkedHashSet<>(ids));
+        final Set<Long> decidedIds = new HashSet<>();
+        for (int from = 0; from < distinctIds.size(); from += chunkSize) {
+            final List<Long> chunk = distinctIds.subList(from, Math.min(from + chunkSize, distinctIds.size()));
+            decidedIds.addAll(transactionService.decidePending(chunk, decision));
+        }
+
+        final List<Long> skippedIds = new ArrayList<>();
+        for (Long id : distinctIds) {
+            if (!decidedIds.contains(id))
+                skippedIds.add(id);
+        }
+        return BulkDecisionResponse.builder()
+                .status(decision)
+                .decided(decidedIds.size())
+                .skippedIds(skippedIds)
+                .build();
+    }
+
+    /**
+     * Decides the transactions that are pending longer than the given age, walking them in
+     * creation order with keyset pagination over the (status, created_at) index.
+     *
+     * @param decision
+     * @param maxAge
+     * @return number of the decided transactions
+     */
+    public int sweep(Status decision, Duration maxAge) {
+        final Instant createdBefore = clock.instant().minus(maxAge);
+        final PageRequest page = PageRequest.ofSize(chunkSize);
+        Instant lastCreatedAt = Instant.EPOCH;
+        Long lastId = 0L;
+        int decided = 0;
+
+        List<TransactionKeyView> keys;
+        do {
+            keys = transactionRepository.findKeysByStatus(Status.PENDING, createdBefore, lastCreatedAt, lastId, page);
+            if (keys.isEmpty())
+                break;
+
+            // rows decided in the meantime are skipped by the decision itself
+            decided += transactionService.decidePending(keys.stream().map(TransactionKeyView::getId).toList(), decision).size();
+            final TransactionKeyView last = keys.get(keys.size() - 1);
+            lastCreatedAt = last.getCreatedAt();
+            lastId = last.getId();
+        } while (keys.size() == chunkSize);
+
+        log.info(messageConfig.getMessage(INFO_PENDING_SWEEP_COMPLETED, decided, decision));
+        return decided;
+    }
+}
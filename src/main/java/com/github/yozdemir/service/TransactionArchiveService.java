@@ -0,0 +1,99 @@
+package com.github.yozdemir.service;
+
+import com.github.yozdemir.config.MessageSourceConfig;
+import com.github.yozdemir.domain.enums.Status;
+import com.github.yozdemir.repository.TransactionArchiveRepository;
+import com.github.yozdemir.repository.TransactionRepository;
+import com.github.yozdemir.repository.TransactionRepository.TransactionKeyView;
+import com.github.yozdemir.repository.TransactionViewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static com.github.yozdemir.common.MessageKeys.INFO_TRANSACTIONS_ARCHIVED;
+
+/**
+ * Service used for archiving old transactions. Decided transactions older than the given age are
+ * moved to the archive in batches, each batch in its own database transaction, so the transactions
+ * and their read model only keep the recent and the pending ones.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionArchiveService {
+
+    private final MessageSourceConfig messageConfig;
+    private final TransactionRepository transactionRepository;
+    private final TransactionViewRepository transactionViewRepository;
+    private final TransactionArchiveRepository transactionArchiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+
+    @Value("${app.transaction.archive.chunkSize:500}")
+    private int chunkSize;
+
+    // pending transactions are never archived, they are still decided on the transactions
+    private static final List<Status> ARCHIVED_STATUSES = List.of(Status.APPROVED, Status.DENIED);
+
+    /**
+     * Moves the decided transactions older than the given age to the archive, walking them in
+     * creation order with keyset pagination over the (status, created_at) index.
+     *
+     * @param maxAge
+     * @return number of the archived transactions
+     */
+    public int archive(Duration maxAge) {
+        final Instant createdBefore = clock.instant().minus(maxAge);
+        int archived = 0;
+        for (Status status : ARCHIVED_STATUSES) {
+            archived += archive(status, createdBefore);
+        }
+        log.info(messageConfig.getMessage(INFO_TRANSACTIONS_ARCHIVED, archived, createdBefore));
+        return archived;
+    }
+
+    private int archive(Status status, Instant createdBefore) {
+        final PageRequest page = PageRequest.ofSize(chunkSize);
+        Instant lastCreatedAt = Instant.EPOCH;
+        Long lastId = 0L;
+        int archived = 0;
+
+        List<TransactionKeyView> keys;
+        do {
+            keys = transactionRepository.findKeysByStatus(status, createdBefore, lastCreatedAt, lastId, page);
+            if (keys.isEmpty())
+                break;
+
+            final List<Long> ids = keys.stream().map(TransactionKeyView::getId).toList();
+            archived += transactionTemplate.execute(tx -> move(ids));
+            final TransactionKeyView last = keys.get(keys.size() - 1);
+            lastCreatedAt = last.getCreatedAt();
+            lastId = last.getId();
+        } while (keys.size() == chunkSize);
+        return archived;
+    }
+
+    /**
+     * Copies the rows of the given transactions from their read model to the archive and deletes them
+     * from both. Decided transactions are not updated anymore, so the copied rows are final.
+     */
+    private int move(List<Long> ids) {
+        final int copied = transactionArchiveRepository.insertFromTransactionViews(ids, clock.instant());
+        // a transaction is never deleted without its copy
+        if (copied != ids.size())
+            throw new IllegalStateException("Read model of the transactions " + ids + " is incomplete, "
+                    + copied + " of " + ids.size() + " row(s) found");
+
+        transactionViewRepository.deleteAllByIdInBatch(ids);
+        transactionRepository.deleteAllByIdInBatch(ids);
+        return copied;
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.yozdemir.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.yozdemir.config.MessageSourceConfig;
+import com.github.yozdemir.domain.entity.TransactionRecord;
+import com.github.yozdemir.domain.enums.ExportFormat;
+import com.github.yozdemir.dto.mapper.TransactionExportResponseMapper;
+import com.github.yozdemir.dto.response.TransactionExportResponse;
+import com.github.yozdemir.repository.TransactionArchiveRepository;
+import com.github.yozdemir.repository.TransactionViewRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import static com.github.yozdemir.common.Constants.EXPORT_FETCH_SIZE;
+import static com.github.yozdemir.common.MessageKeys.INFO_TRANSACTIONS_EXPORTED;
+
+/**
+ * Service used for exporting transaction histories. Transactions are streamed from the database
+ * and written as they are read, and the persistence context is cleared after every fetched chunk,
+ * so the memory used by an export does not depend on its size.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionExportService {
+
+    private static final String CSV_HEADER =
+            "id,referenceNumber,createdAt,amount,status,type,fromWalletIban,toWalletIban,description";
+
+    private final MessageSourceConfig messageConfig;
+    private final TransactionViewRepository transactionViewRepository;
+    private final TransactionArchiveRepository transactionArchiveRepository;
+    private final TransactionExportResponseMapper transactionExportResponseMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    /**
+     * Writes the transactions of the given userId, or all transactions if it is null, to the given
+     * stream. Archived transactions are written first, then the current ones, each in id order.
+     * The stream is flushed but not closed.
+     *
+     * @param userId
+     * @param format
+     * @param out
+     * @return count of the exported transactions
+     * @throws IOException if the stream cannot be written, e.g. the client is disconnected
+     */
+    @Transactional(readOnly = true)
+    public long export(Long userId, ExportFormat format, OutputStream out) throws IOException {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV)
+            writer.write(CSV_HEADER + '\n');
+
+        long count = 0;
+        try (Stream<? extends TransactionRecord> transactions = userId == null
+                ? transactionArchiveRepository.streamAll()
+                : transactionArchiveRepository.streamAllByUserId(userId)) {
+            count = write(transactions, format, writer, count);
+        }
+        try (Stream<? extends TransactionRecord> transactions = userId == null
+                ? transactionViewRepository.streamAll()
+                : transactionViewRepository.streamAllByUserId(userId)) {
+            count = write(transactions, format, writer, count);
+        }
+        writer.flush();
+        log.info(messageConfig.getMessage(INFO_TRANSACTIONS_EXPORTED, count, format));
+        return count;
+    }
+
+    private long write(Stream<? extends TransactionRecord> transactions, ExportFormat format, Writer writer, long count)
+            throws IOException {
+        final Iterator<? extends TransactionRecord> iterator = transactions.iterator();
+        while (iterator.hasNext()) {
+            final TransactionExportResponse row =
+                    transactionExportResponseMapper.toTransactionExportResponse(iterator.next());
+            writer.write(format == ExportFormat.CSV ? toCsv(row) : objectMapper.writeValueAsString(row));
+            writer.write('\n');
+            // written rows are not needed anymore, the next chunk is fetched into an empty context
+            if (++count % EXPORT_FETCH_SIZE == 0)
+                entityManager.clear();
+        }
+        return count;
+    }
+
+    private String toCsv(TransactionExportResponse row) {
+        return String.join(",",
+                String.valueOf(row.id()),
+                String.valueOf(row.referenceNumber()),
+                String.valueOf(row.createdAt()),
+                String.valueOf(row.amount()),
+                String.valueOf(row.status()),
+                escapeCsv(row.type()),
+                escapeCsv(row.fromWalletIban()),
+                escapeCsv(row.toWalletIban()),
+                escapeCsv(row.description()));
+    }
+
+    private String escapeCsv(String value) {
+        if (value == null)
+            return StringUtils.EMPTY;
+        if (!StringUtils.containsAny(value, ',', '"', '\n', '\r'))
+            return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
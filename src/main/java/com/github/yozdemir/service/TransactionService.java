@@ -1,35 +1,69 @@
 package com.github.yozdemir.service;
 
+import com.github.yozdemir.cache.RecentTransactionCache;
+import com.github.yozdemir.cache.WalletCache;
+import com.github.yozdemir.concurrency.RetryOnConflict;
+import com.github.yozdemir.concurrency.WalletLockManager;
 import com.github.yozdemir.config.MessageSourceConfig;
 import com.github.yozdemir.domain.entity.Transaction;
+import com.github.yozdemir.domain.entity.TransactionRecord;
+import com.github.yozdemir.domain.entity.TransactionView;
 import com.github.yozdemir.domain.entity.Wallet;
+import com.github.yozdemir.domain.enums.Operation;
 import com.github.yozdemir.domain.enums.Status;
+import com.github.yozdemir.domain.value.Money;
+import com.github.yozdemir.domain.value.TransactionCursor;
 import com.github.yozdemir.dto.mapper.TransactionRequestMapper;
 import com.github.yozdemir.dto.mapper.TransactionResponseMapper;
-import com.github.yozdemir.dto.mapper.TransactionResponseMapperImpl;
+import com.github.yozdemir.dto.mapper.TransactionViewMapper;
 import com.github.yozdemir.dto.mapper.WalletResponseMapper;
 import com.github.yozdemir.dto.request.TransactionRequest;
+import com.github.yozdemir.dto.request.TransactionSearchRequest;
 import com.github.yozdemir.dto.response.CommandResponse;
+import com.github.yozdemir.dto.response.CursorPage;
 import com.github.yozdemir.dto.response.TransactionResponse;
+import com.github.yozdemir.dto.response.TransactionWalletResponse;
+import com.github.yozdemir.dto.response.WalletResponse;
+import com.github.yozdemir.exception.InvalidRequestException;
 import com.github.yozdemir.exception.NoSuchElementFoundException;
+import com.github.yozdemir.repository.TransactionArchiveRepository;
 import com.github.yozdemir.repository.TransactionRepository;
+import com.github.yozdemir.repository.TransactionViewRepository;
 import com.github.yozdemir.repository.WalletRepository;
+import com.github.yozdemir.validator.PageableValidator;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
 import java.util.UUID;
 
 import static com.github.yozdemir.common.MessageKeys.*;
+import static com.github.yozdemir.repository.TransactionSpecifications.*;
 
 /**
- * Service used for Transaction related operations.
+ * Service used for Transaction related operations. Transactions are read from their denormalized
+ * read model, which is updated in the same database transaction as the transactions themselves.
+ * Single transactions and histories fall back to the archive for the old transactions.
  */
 @Slf4j
 @Service
@@ -38,44 +72,110 @@ public class TransactionService {
 
     private final MessageSourceConfig messageConfig;
     private final TransactionRepository transactionRepository;
+    private final TransactionViewRepository transactionViewRepository;
+    private final TransactionArchiveRepository transactionArchiveRepository;
 
     private final WalletRepository walletRepository;
     private final TransactionRequestMapper transactionRequestMapper;
     private final TransactionResponseMapper transactionResponseMapper;
+    private final TransactionViewMapper transactionViewMapper;
+    private final TypeService typeService;
 
     private final WalletResponseMapper walletResponseMapper;
+    private final WalletLockManager walletLockManager;
+    private final WalletCache walletCache;
+    private final RecentTransactionCache recentTransactionCache;
+    private final PageableValidator pageableValidator;
+    private final Clock clock;
 
+    @Value("${app.transaction.archive.maxAgeDays:90}")
+    private long archiveMaxAgeDays;
+
+    private static final Comparator<TransactionRecord> LATEST_FIRST =
+            Comparator.comparing(TransactionRecord::getCreatedAt).thenComparing(TransactionRecord::getId).reversed();
+    // sort keys of the transactions, each one is backed by the search indexes of the read model
+    private static final List<String> SORT_KEYS = List.of("id", "createdAt", "amount");
+    private static final Sort DEFAULT_SORT = Sort.by(Sort.Direction.DESC, "createdAt");
+
+    @RetryOnConflict
     @Transactional
     public TransactionResponse approveOrDenyTransaction(Long transactionId) {
-        Transaction transaction = transactionRepository.findById(transactionId)
-                .orElseThrow(() -> new EntityNotFoundException("Transaction not found"));
-
-        if (!transaction.getStatus().equals(Status.PENDING)) {
+        // row is locked while it is pending, so a concurrent approval waits and then finds it decided
+        final List<Transaction> transactions =
+                transactionRepository.findAllByIdInAndStatusForUpdate(List.of(transactionId), Status.PENDING);
+        if (transactions.isEmpty()) {
+            if (!transactionRepository.existsById(transactionId))
+                throw new EntityNotFoundException("Transaction not found");
             throw new IllegalStateException("Only pending transactions can be updated.");
         }
 
-        transaction.setStatus(Status.APPROVED);
+        applyDecision(transactions, Status.APPROVED);
+        transactionRepository.updateStatus(List.of(transactionId), Status.APPROVED, clock.instant());
+        transactionViewRepository.updateStatus(List.of(transactionId), Status.APPROVED);
 
-        Wallet toWallet = transaction.getToWallet();
-        BigDecimal amount = transaction.getAmount();
-
-        if (transaction.getType().getId() == 1) {
-            toWallet.setBalance(toWallet.getBalance().add(amount));
-        } else {
-            toWallet.setBalance(toWallet.getBalance().subtract(amount));
-        }
+        final TransactionView view = transactionViewRepository.findById(transactionId)
+                .orElseThrow(() -> new NoSuchElementFoundException(messageConfig.getMessage(ERROR_TRANSACTION_NOT_FOUND)));
+        final TransactionResponse response = transactionResponseMapper.toTransactionResponse(view);
+        recentTransactionCache.updateAfterCommit(response, view.getFromUserId(), view.getToUserId());
+        return response;
+    }
 
-        walletRepository.save(toWallet);
+    /**
+     * Approves or denies the pending transactions by the given ids. Transactions that are not
+     * pending anymore are skipped, and the balance changes are applied with one update per wallet.
+     *
+     * @param ids
+     * @param decision
+     * @return ids of the decided transactions
+     */
+    @RetryOnConflict
+    @Transactional
+    public List<Long> decidePending(Collection<Long> ids, Status decision) {
+        if (decision == Status.PENDING)
+            throw new IllegalArgumentException("Pending transactions can only be approved or denied");
 
-        Transaction updatedTransaction = transactionRepository.save(transaction);
+        // rows are locked, so the same transaction cannot be decided twice concurrently
+        final List<Transaction> transactions = transactionRepository.findAllByIdInAndStatusForUpdate(ids, Status.PENDING);
+        if (transactions.isEmpty())
+            return List.of();
 
-        return mapToResponse(updatedTransaction);
+        applyDecision(transactions, decision);
+        final List<Long> decidedIds = transactions.stream().map(Transaction::getId).toList();
+        transactionRepository.updateStatus(decidedIds, decision, clock.instant());
+        transactionViewRepository.updateStatus(decidedIds, decision);
+        transactionViewRepository.findAllById(decidedIds).forEach(view -> recentTransactionCache.updateAfterCommit(
+                transactionResponseMapper.toTransactionResponse(view), view.getFromUserId(), view.getToUserId()));
+        log.info(messageConfig.getMessage(INFO_PENDING_TRANSACTIONS_DECIDED, decidedIds.size(), decision));
+        return decidedIds;
     }
 
-    private TransactionResponse mapToResponse(Transaction transaction) {
-        // MapStruct veya manuel dönüşüm burada yapılabilir.
-        // Örneğin:
-        return new TransactionResponseMapperImpl().toTransactionResponse(transaction);
+    /**
+     * Applies the balance changes of the given pending transactions, aggregated per wallet.
+     * Over-limit deposits are only added to the usable balance and over-limit withdrawals are only
+     * subtracted from it, so an approval completes the balance and a denial reverts the usable balance.
+     */
+    private void applyDecision(List<Transaction> transactions, Status decision) {
+        final boolean approved = decision == Status.APPROVED;
+        // sorted by wallet id, so the wallet rows are always updated in the same order
+        // changes are summed as minor units of balance and usable balance
+        final Map<Long, long[]> changes = new TreeMap<>();
+        for (Transaction transaction : transactions) {
+            final boolean deposit = transaction.getOperation() == Operation.DEPOSIT;
+            final Long walletId = deposit ? transaction.getToWallet().getId() : transaction.getFromWallet().getId();
+            final long units = deposit ? transaction.getAmount().getUnits() : -transaction.getAmount().getUnits();
+            final long[] change = changes.computeIfAbsent(walletId, id -> new long[2]);
+            if (approved) {
+                change[0] = Math.addExact(change[0], units);
+            } else {
+                change[1] = Math.subtractExact(change[1], units);
+            }
+        }
+
+        final Long[] walletIds = changes.keySet().toArray(Long[]::new);
+        walletLockManager.lockForTransaction(walletIds);
+        walletCache.evictAfterCommit(walletIds);
+        changes.forEach((walletId, change) ->
+                walletRepository.credit(walletId, Money.ofUnits(change[0]), Money.ofUnits(change[1])));
     }
 
     /**
@@ -86,8 +186,9 @@ public class TransactionService {
      */
     @Transactional(readOnly = true)
     public TransactionResponse findById(long id) {
-        return transactionRepository.findById(id)
+        return transactionViewRepository.findById(id)
                 .map(transactionResponseMapper::toTransactionResponse)
+                .or(() -> transactionArchiveRepository.findById(id).map(transactionResponseMapper::toTransactionResponse))
                 .orElseThrow(() -> new NoSuchElementFoundException(messageConfig.getMessage(ERROR_TRANSACTION_NOT_FOUND)));
     }
   /*  @Transactional(readOnly = true)
@@ -104,36 +205,163 @@ public class TransactionService {
      */
     @Transactional(readOnly = true)
     public TransactionResponse findByReferenceNumber(UUID referenceNumber) {
-        return transactionRepository.findByReferenceNumber(referenceNumber)
+        return findRecordByReferenceNumber(referenceNumber)
                 .map(transactionResponseMapper::toTransactionResponse)
                 .orElseThrow(() -> new NoSuchElementFoundException(messageConfig.getMessage(ERROR_TRANSACTION_NOT_FOUND)));
     }
 
     /**
-     * Fetches all transaction by the given userId.
+     * Fetches a single transaction by the given referenceNumber, if it is sent or received by a wallet
+     * of the given userId. Transactions of the other users are not found.
      *
+     * @param referenceNumber
      * @param userId
-     * @return List of TransactionResponse
+     * @return TransactionResponse
      */
     @Transactional(readOnly = true)
-    public List<TransactionResponse> findAllByUserId(Long userId) {
-        final List<Transaction> transactions = transactionRepository.findAllByUserId(userId);
-        if (transactions.isEmpty())
+    public TransactionResponse findByReferenceNumber(UUID referenceNumber, Long userId) {
+        return findRecordByReferenceNumber(referenceNumber)
+                .filter(record -> userId.equals(record.getFromUserId()) || userId.equals(record.getToUserId()))
+                .map(transactionResponseMapper::toTransactionResponse)
+                .orElseThrow(() -> new NoSuchElementFoundException(messageConfig.getMessage(ERROR_TRANSACTION_NOT_FOUND)));
+    }
+
+    private Optional<TransactionRecord> findRecordByReferenceNumber(UUID referenceNumber) {
+        return transactionViewRepository.findByReferenceNumber(referenceNumber)
+                .<TransactionRecord>map(view -> view)
+                .or(() -> transactionArchiveRepository.findByReferenceNumber(referenceNumber));
+    }
+
+    /**
+     * Fetches a page of the transactions of the given userId, latest first. The first page is
+     * fetched without a cursor, the next ones with the cursor returned by the previous page.
+     *
+     * @param userId
+     * @param cursor
+     * @param size
+     * @return CursorPage of TransactionResponse
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TransactionResponse> findAllByUserId(Long userId, String cursor, int size) {
+        final TransactionCursor last = cursor == null ? null : decodeCursor(cursor);
+        // one more row is fetched to find out whether there is a next page
+        final List<TransactionRecord> transactions = findLatest(userId, last, size + 1);
+        if (transactions.isEmpty() && cursor == null)
             throw new NoSuchElementFoundException(messageConfig.getMessage(ERROR_NO_RECORDS));
 
-        return transactions.stream().map(transactionResponseMapper::toTransactionResponse)
+        final List<TransactionRecord> content = transactions.size() > size ? transactions.subList(0, size) : transactions;
+        final String nextCursor = transactions.size() > size
+                ? new TransactionCursor(content.get(size - 1).getCreatedAt(), content.get(size - 1).getId()).encode()
+                : null;
+        return CursorPage.<TransactionResponse>builder()
+                .content(content.stream().map(transactionResponseMapper::toTransactionResponse).toList())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Fetches the latest transactions of the given userId, latest first. They are kept in memory
+     * for the recently read users, and loaded from the database on the first read of a user.
+     *
+     * @param userId
+     * @return List of TransactionResponse
+     */
+    public List<TransactionResponse> findRecentByUserId(Long userId) {
+        return recentTransactionCache.getRecent(userId, id -> findLatest(id, null, recentTransactionCache.getSize()).stream()
+                .map(transactionResponseMapper::toTransactionResponse)
+                .toList());
+    }
+
+    /**
+     * Fetches the given number of transactions of the given userId after the given key, latest first.
+     */
+    private List<TransactionRecord> findLatest(Long userId, TransactionCursor last, int size) {
+        final Pageable limit = PageRequest.ofSize(size);
+        // sent and received transactions are read separately by the owner ids of the read model, each lookup
+        // is an index range and the sorted results are merged, so the page never reads more than limit rows per lookup
+        final List<List<? extends TransactionRecord>> lookups = new ArrayList<>(last == null
+                ? List.of(transactionViewRepository.findLatestByFromUserId(userId, limit),
+                        transactionViewRepository.findLatestByToUserId(userId, limit))
+                : List.of(transactionViewRepository.findLatestByFromUserIdBefore(userId, last.createdAt(), last.id(), limit),
+                        transactionViewRepository.findLatestByToUserIdBefore(userId, last.createdAt(), last.id(), limit)));
+        List<TransactionRecord> transactions = mergeLatest(lookups, size);
+        // archived transactions are older than the archive age, so the archive is only read
+        // when the page is not filled by the transactions newer than that
+        if (transactions.size() < size || transactions.get(size - 1).getCreatedAt().isBefore(archiveHorizon())) {
+            lookups.addAll(last == null
+                    ? List.of(transactionArchiveRepository.findLatestByFromUserId(userId, limit),
+                            transactionArchiveRepository.findLatestByToUserId(userId, limit))
+                    : List.of(transactionArchiveRepository.findLatestByFromUserIdBefore(userId, last.createdAt(), last.id(), limit),
+                            transactionArchiveRepository.findLatestByToUserIdBefore(userId, last.createdAt(), last.id(), limit)));
+            transactions = mergeLatest(lookups, size);
+        }
+        return transactions;
+    }
+
+    /**
+     * Merges the given lists into a single list ordered by (createdAt, id) descending, keeping the
+     * first limit transactions. A transaction between the wallets of the same user is found by both
+     * lookups of a table, so the duplicates are dropped.
+     */
+    private List<TransactionRecord> mergeLatest(List<List<? extends TransactionRecord>> lookups, int limit) {
+        final Map<Long, TransactionRecord> transactions = new HashMap<>();
+        lookups.forEach(lookup -> lookup.forEach(transaction -> transactions.putIfAbsent(transaction.getId(), transaction)));
+        return transactions.values().stream()
+                .sorted(LATEST_FIRST)
+                .limit(limit)
                 .toList();
     }
 
+    private Instant archiveHorizon() {
+        return clock.instant().minus(Duration.ofDays(archiveMaxAgeDays));
+    }
+
+    private TransactionCursor decodeCursor(String cursor) {
+        try {
+            return TransactionCursor.decode(cursor);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidRequestException(messageConfig.getMessage(ERROR_INVALID_CURSOR), ex);
+        }
+    }
+
     /**
-     * Fetches all transactions based on the given paging and sorting parameters.
+     * Searches the transactions by the given filters. Only a slice is returned, so the matching
+     * transactions are not counted. Results are sorted by createdAt descending unless another
+     * allowed sort key is given, and the ties are ordered by id.
      *
+     * @param filter
      * @param pageable
-     * @return List of TransactionResponse
+     * @return Slice of TransactionResponse
      */
     @Transactional(readOnly = true)
-    public Page<TransactionResponse> findAll(Pageable pageable) {
-        final Page<Transaction> transactions = transactionRepository.findAll(pageable);
+    public Slice<TransactionResponse> search(TransactionSearchRequest filter, Pageable pageable) {
+        final Pageable page = pageableValidator.validate(pageable, SORT_KEYS, DEFAULT_SORT);
+        final Specification<TransactionView> specification = Specification.where(hasStatus(filter.getStatus()))
+                .and(hasType(filter.getTypeId()))
+                .and(isFromWallet(filter.getFromWalletId()))
+                .and(isToWallet(filter.getToWalletId()))
+                .and(amountFrom(filter.getMinAmount() == null ? null : Money.of(filter.getMinAmount())))
+                .and(amountBelow(filter.getMaxAmount() == null ? null : Money.of(filter.getMaxAmount())))
+                .and(createdFrom(filter.getFrom()))
+                .and(createdBefore(filter.getTo()));
+        return transactionViewRepository.findSlice(specification, page)
+                .map(transactionResponseMapper::toTransactionResponse);
+    }
+
+    /**
+     * Fetches all transactions based on the given paging and sorting parameters. Only a slice is
+     * returned unless the count is requested, which counts all transactions for a page.
+     *
+     * @param pageable
+     * @param count
+     * @return Slice of TransactionResponse
+     */
+    @Transactional(readOnly = true)
+    public Slice<TransactionResponse> findAll(Pageable pageable, boolean count) {
+        final Pageable page = pageableValidator.validate(pageable, SORT_KEYS, DEFAULT_SORT);
+        final Slice<TransactionView> transactions = count
+                ? transactionViewRepository.findAll(page)
+                : transactionViewRepository.findAllBy(page);
         if (transactions.isEmpty())
             throw new NoSuchElementFoundException(messageConfig.getMessage(ERROR_NO_RECORDS));
 
@@ -147,9 +375,89 @@ public class TransactionService {
      * @return id of the created transaction
      */
     public CommandResponse create(TransactionRequest request) {
+        return create(request, getWalletIdByIban(request.getFromWalletIban()), getWalletIdByIban(request.getToWalletIban()));
+    }
+
+    /**
+     * Creates a new transaction between the given (already resolved) wallets.
+     * Wallets are only referenced by id, so they are not loaded for the insert.
+     *
+     * @param request
+     * @param fromWalletId
+     * @param toWalletId
+     * @return id of the created transaction
+     */
+    public CommandResponse create(TransactionRequest request, Long fromWalletId, Long toWalletId) {
         final Transaction transaction = transactionRequestMapper.toTransaction(request);
+        transaction.setFromWallet(walletRepository.getReferenceById(fromWalletId));
+        transaction.setToWallet(walletRepository.getReferenceById(toWalletId));
+        final String typeName = typeService.getName(transaction.getType().getId());
         transactionRepository.save(transaction);
-        log.info(messageConfig.getMessage(INFO_TRANSACTION_CREATED, transaction.getFromWallet().getIban(), transaction.getToWallet().getIban(), transaction.getAmount()));
+        final TransactionView view = transactionViewMapper.toTransactionView(transaction,
+                getTransactionWallet(fromWalletId), getTransactionWallet(toWalletId), typeName);
+        transactionViewRepository.save(view);
+        addToRecent(List.of(view));
+        log.info(messageConfig.getMessage(INFO_TRANSACTION_CREATED, request.getFromWalletIban(), request.getToWalletIban(), transaction.getAmount()));
         return CommandResponse.builder().id(transaction.getId()).build();
     }
+
+    /**
+     * Creates the transactions of the given requests between the given (already loaded) wallets.
+     * The inserts are sent in JDBC batches when the persistence context is flushed.
+     *
+     * @param requests
+     * @param walletsByIban
+     * @return ids of the created transactions in the order of the requests
+     */
+    public List<Long> createAll(List<TransactionRequest> requests, Map<String, Wallet> walletsByIban) {
+        final List<Transaction> transactions = requests.stream()
+                .map(request -> {
+                    final Transaction transaction = transactionRequestMapper.toTransaction(request);
+                    transaction.setFromWallet(walletsByIban.get(request.getFromWalletIban()));
+                    transaction.setToWallet(walletsByIban.get(request.getToWalletIban()));
+                    return transaction;
+                })
+                .toList();
+        final List<Long> ids = transactionRepository.saveAll(transactions).stream()
+                .map(Transaction::getId)
+                .toList();
+        final List<TransactionView> views = transactions.stream()
+                .map(transaction -> transactionViewMapper.toTransactionView(transaction,
+                        transactionViewMapper.toTransactionWalletResponse(transaction.getFromWallet()),
+                        transactionViewMapper.toTransactionWalletResponse(transaction.getToWallet()),
+                        typeService.getName(transaction.getType().getId())))
+                .toList();
+        transactionViewRepository.saveAll(views);
+        addToRecent(views);
+        return ids;
+    }
+
+    /**
+     * Adds the given new transactions to the latest transactions of their users, in creation order.
+     * Responses are built from the rows in memory, and only for the transactions of cached users.
+     */
+    private void addToRecent(List<TransactionView> views) {
+        views.stream()
+                .sorted(Comparator.comparing(TransactionView::getId))
+                .forEach(view -> recentTransactionCache.addAfterCommit(
+                        () -> transactionResponseMapper.toTransactionResponse(view), view.getFromUserId(), view.getToUserId()));
+    }
+
+    /**
+     * Fetches the fields of the given wallet for the read model, from its cached snapshot if there is one.
+     * The snapshot is not cached on a miss, as the balances may be changed by the current transaction.
+     */
+    private TransactionWalletResponse getTransactionWallet(Long walletId) {
+        final WalletResponse wallet = walletCache.getCachedWallet(walletId);
+        if (wallet != null)
+            return transactionViewMapper.toTransactionWalletResponse(wallet);
+        return walletRepository.findById(walletId)
+                .map(transactionViewMapper::toTransactionWalletResponse)
+                .orElseThrow(() -> new NoSuchElementFoundException(messageConfig.getMessage(ERROR_WALLET_NOT_FOUND)));
+    }
+
+    private Long getWalletIdByIban(String iban) {
+        return walletRepository.findIdByIban(iban)
+                .orElseThrow(() -> new NoSuchElementFoundException(messageConfig.getMessage(ERROR_WALLET_NOT_FOUND)));
+    }
 }
@@ -0,0 +1,199 @@
+package com.github.yozdemir.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.yozdemir.concurrency.WalletPartitionedExecutor;
+import com.github.yozdemir.config.MessageSourceConfig;
+import com.github.yozdemir.domain.enums.SubmissionStatus;
+import com.github.yozdemir.dto.request.TransactionRequest;
+import com.github.yozdemir.dto.response.CommandResponse;
+import com.github.yozdemir.dto.response.SubmissionResponse;
+import com.github.yozdemir.dto.response.TransactionResponse;
+import com.github.yozdemir.exception.IdempotencyKeyReusedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+import static com.github.yozdemir.common.MessageKeys.*;
+
+/**
+ * Service used for submitting transaction requests that are processed asynchronously.
+ * Requests are validated and get their reference number on submission, then they are executed
+ * on the worker of the wallet whose balance is checked, so that wallet has a single writer. The synchronous
+ * deposits run on the same workers. Batch transfers and pending decisions span many wallets, so they keep
+ * using the wallet locks, and their entity updates fail on the version bumped by a worker and are retried.
+ * The state of the submissions is kept in memory for a limited time. A submission with a reference number
+ * already known for the same user is answered with the state of the first one, unless its body is different.
+ */
+@Slf4j
+@Service
+public class TransactionSubmissionService {
+
+    private final MessageSourceConfig messageConfig;
+    private final WalletService walletService;
+    private final TransactionService transactionService;
+    private final WalletPartitionedExecutor walletExecutor;
+    private final IdempotencyService idempotencyService;
+    private final Cache<Key, Submission> submissions;
+
+    public TransactionSubmissionService(MessageSourceConfig messageConfig,
+                                        WalletService walletService,
+                                        TransactionService transactionService,
+                                        WalletPartitionedExecutor walletExecutor,
+                                        IdempotencyService idempotencyService,
+                                        @Value("${app.wallet.async.statusTtlMinutes:60}") long statusTtlMinutes) {
+        this.messageConfig = messageConfig;
+        this.walletService = walletService;
+        this.transactionService = transactionService;
+        this.walletExecutor = walletExecutor;
+        this.idempotencyService = idempotencyService;
+        this.submissions = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(statusTtlMinutes))
+                .build();
+    }
+
+    /**
+     * Submits a transfer between wallets.
+     *
+     * @param userId
+     * @param request
+     * @return SubmissionResponse
+     */
+    public SubmissionResponse submitTransfer(Long userId, TransactionRequest request) {
+        return submit(userId, request, true, walletService::transferFunds);
+    }
+
+    /**
+     * Submits a withdrawal from the sender wallet.
+     *
+     * @param userId
+     * @param request
+     * @return SubmissionResponse
+     */
+    public SubmissionResponse submitWithdrawal(Long userId, TransactionRequest request) {
+        return submit(userId, request, true, walletService::withdrawFunds);
+    }
+
+    /**
+     * Submits a deposit to the receiver wallet.
+     *
+     * @param userId
+     * @param request
+     * @return SubmissionResponse
+     */
+    public SubmissionResponse submitDeposit(Long userId, TransactionRequest request) {
+        return submit(userId, request, false, walletService::addFunds);
+    }
+
+    /**
+     * Adds funds to the receiver wallet on its worker and waits for the result.
+     *
+     * @param userId
+     * @param request
+     * @return id of the transaction
+     */
+    public CommandResponse addFunds(Long userId, TransactionRequest request) {
+        final Long toWalletId = walletService.getIdByIban(request.getToWalletIban());
+        try {
+            return walletExecutor.executeAndWait(toWalletId,
+                    () -> idempotencyService.execute(userId, request, walletService::addFunds));
+        } catch (RejectedExecutionException ex) {
+            throw new RejectedExecutionException(messageConfig.getMessage(ERROR_SUBMISSION_REJECTED, request.getToWalletIban()), ex);
+        }
+    }
+
+    /**
+     * Fetches the state of the submission of the given user by the given referenceNumber.
+     *
+     * @param userId
+     * @param referenceNumber
+     * @return SubmissionResponse
+     */
+    public SubmissionResponse findByReferenceNumber(Long userId, UUID referenceNumber) {
+        final Submission submission = submissions.getIfPresent(new Key(userId, referenceNumber));
+        if (submission != null)
+            return submission.response();
+
+        // state of the submission is expired, the transaction itself is the source of truth; like the
+        // submissions, it is only found by the user owning one of its wallets
+        final TransactionResponse transaction = transactionService.findByReferenceNumber(referenceNumber, userId);
+        return SubmissionResponse.builder()
+                .referenceNumber(referenceNumber)
+                .status(SubmissionStatus.COMPLETED)
+                .transactionId(transaction.getId())
+                .transactionStatus(transaction.getStatus())
+                .build();
+    }
+
+    private SubmissionResponse submit(Long userId,
+                                      TransactionRequest request,
+                                      boolean bySender,
+                                      Function<TransactionRequest, CommandResponse> operation) {
+        // unknown wallets are rejected before the request is accepted
+        final Long fromWalletId = walletService.getIdByIban(request.getFromWalletIban());
+        final Long toWalletId = walletService.getIdByIban(request.getToWalletIban());
+        final Long partitionWalletId = bySender ? fromWalletId : toWalletId;
+
+        // reference number supplied by the client is used as the idempotency key
+        final UUID referenceNumber = Optional.ofNullable(request.getReferenceNumber()).orElseGet(UUID::randomUUID);
+        request.setReferenceNumber(referenceNumber);
+        final Key key = new Key(userId, referenceNumber);
+        final String requestHash = IdempotencyService.hash(userId, request);
+        final SubmissionResponse accepted = SubmissionResponse.builder()
+                .referenceNumber(referenceNumber)
+                .status(SubmissionStatus.ACCEPTED)
+                .build();
+        final Submission previous = submissions.asMap().putIfAbsent(key, new Submission(requestHash, accepted));
+        if (previous != null) {
+            if (!Objects.equals(previous.requestHash(), requestHash))
+                throw new IdempotencyKeyReusedException(messageConfig.getMessage(ERROR_IDEMPOTENCY_KEY_REUSED, referenceNumber));
+            return previous.response();
+        }
+        try {
+            walletExecutor.execute(partitionWalletId, () -> process(key, requestHash, request, operation));
+        } catch (RejectedExecutionException ex) {
+            submissions.invalidate(key);
+            throw new RejectedExecutionException(messageConfig.getMessage(ERROR_SUBMISSION_REJECTED,
+                    bySender ? request.getFromWalletIban() : request.getToWalletIban()), ex);
+        }
+        log.info(messageConfig.getMessage(INFO_TRANSACTION_SUBMITTED, referenceNumber, request.getFromWalletIban(),
+                request.getToWalletIban(), request.getAmount()));
+        return accepted;
+    }
+
+    private void process(Key key,
+                         String requestHash,
+                         TransactionRequest request,
+                         Function<TransactionRequest, CommandResponse> operation) {
+        final UUID referenceNumber = request.getReferenceNumber();
+        try {
+            final CommandResponse response = idempotencyService.execute(key.userId(), request, operation);
+            submissions.put(key, new Submission(requestHash, SubmissionResponse.builder()
+                    .referenceNumber(referenceNumber)
+                    .status(SubmissionStatus.COMPLETED)
+                    .transactionId(response.id())
+                    .transactionStatus(request.getStatus())
+                    .build()));
+        } catch (RuntimeException ex) {
+            log.error(messageConfig.getMessage(ERROR_SUBMISSION_FAILED, referenceNumber, ex.getMessage()), ex);
+            submissions.put(key, new Submission(requestHash, SubmissionResponse.builder()
+                    .referenceNumber(referenceNumber)
+                    .status(SubmissionStatus.FAILED)
+                    .message(ex.getMessage())
+                    .build()));
+        }
+    }
+
+    private record Key(Long userId, UUID referenceNumber) {
+    }
+
+    private record Submission(String requestHash, SubmissionResponse response) {
+    }
+}
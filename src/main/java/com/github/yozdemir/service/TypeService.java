@@ -1,11 +1,18 @@
 package com.github.yozdemir.service;
 
+import com.github.yozdemir.config.MessageSourceConfig;
 import com.github.yozdemir.domain.entity.Type;
+import com.github.yozdemir.exception.NoSuchElementFoundException;
 import com.github.yozdemir.repository.TypeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.github.yozdemir.common.MessageKeys.ERROR_TYPE_NOT_FOUND;
+
 /**
  * Service used for Type related operations.
  */
@@ -14,8 +21,12 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class TypeService {
 
+    private final MessageSourceConfig messageConfig;
     private final TypeRepository typeRepository;
 
+    // types are reference data changed only by the migrations, so a name is read once
+    private final Map<Long, String> names = new ConcurrentHashMap<>();
+
     /**
      * Fetches a single type reference (entity) by the given id.
      *
@@ -25,4 +36,16 @@ public class TypeService {
     public Type getReferenceById(long id) {
         return typeRepository.getReferenceById(id);
     }
+
+    /**
+     * Fetches the name of the type by the given id, reading it only on the first call.
+     *
+     * @param id
+     * @return name of the type
+     */
+    public String getName(long id) {
+        return names.computeIfAbsent(id, key -> typeRepository.findById(key)
+                .map(Type::getName)
+                .orElseThrow(() -> new NoSuchElementFoundException(messageConfig.getMessage(ERROR_TYPE_NOT_FOUND))));
+    }
 }
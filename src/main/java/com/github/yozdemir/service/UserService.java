@@ -1,10 +1,17 @@
 package com.github.yozdemir.service;
 
+import com.github.yozdemir.config.MessageSourceConfig;
 import com.github.yozdemir.domain.entity.Users;
+import com.github.yozdemir.dto.mapper.UserResponseMapper;
+import com.github.yozdemir.dto.response.UserResponse;
+import com.github.yozdemir.exception.NoSuchElementFoundException;
 import com.github.yozdemir.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import static com.github.yozdemir.common.MessageKeys.ERROR_USER_NOT_FOUND;
 
 /**
  * Service used for User related operations.
@@ -14,7 +21,22 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class UserService {
 
+    private final MessageSourceConfig messageConfig;
     private final UserRepository userRepository;
+    private final UserResponseMapper userResponseMapper;
+
+    /**
+     * Fetches a single user by the given id.
+     *
+     * @param id
+     * @return UserResponse
+     */
+    @Transactional(readOnly = true)
+    public UserResponse findById(long id) {
+        return userRepository.findById(id)
+                .map(userResponseMapper::toUserResponse)
+                .orElseThrow(() -> new NoSuchElementFoundException(messageConfig.getMessage(ERROR_USER_NOT_FOUND, id)));
+    }
 
     /**
      * Fetches a single user reference (entity) by the given id.
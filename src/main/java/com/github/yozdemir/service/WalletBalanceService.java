@@ -0,0 +1,162 @@
+package com.github.yozdemir.service;
+
+import com.github.yozdemir.config.MessageSourceConfig;
+import com.github.yozdemir.domain.entity.WalletBalanceSnapshot;
+import com.github.yozdemir.domain.value.Money;
+import com.github.yozdemir.dto.response.WalletBalanceResponse;
+import com.github.yozdemir.exception.NoSuchElementFoundException;
+import com.github.yozdemir.repository.TransactionRepository;
+import com.github.yozdemir.repository.WalletBalanceSnapshotRepository;
+import com.github.yozdemir.repository.WalletRepository;
+import com.github.yozdemir.repository.WalletRepository.WalletBalanceView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static com.github.yozdemir.common.MessageKeys.*;
+
+/**
+ * Service used for the balances of the wallets in the past. The balance of every wallet is kept at the
+ * end of each day (UTC) as a snapshot, so a balance at a point in time is found from the nearest snapshot
+ * before or after it, or from the current balance, and the approved transactions decided in between,
+ * whichever period is shorter.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WalletBalanceService {
+
+    private final MessageSourceConfig messageConfig;
+    private final WalletRepository walletRepository;
+    private final TransactionRepository transactionRepository;
+    private final WalletBalanceSnapshotRepository snapshotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+
+    /**
+     * Fetches the balance of the given wallet at the given point in time. Points in the future are
+     * answered with the current balance.
+     *
+     * @param walletId
+     * @param at
+     * @return WalletBalanceResponse
+     */
+    @Transactional(readOnly = true)
+    public WalletBalanceResponse findBalanceAt(Long walletId, Instant at) {
+        final Instant now = clock.instant();
+        final Instant point = at.isAfter(now) ? now : at;
+
+        // snapshot of a day is the balance at the start of the next day, so the snapshots of the days before
+        // the point are before it and the ones from the day of the point are after it
+        final Optional<WalletBalanceSnapshot> before = snapshotRepository
+                .findFirstByWalletIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(walletId, toDate(point));
+        // the earliest snapshot after the point bounds the period when there is none before it
+        final Optional<WalletBalanceSnapshot> after = snapshotRepository
+                .findFirstByWalletIdAndSnapshotDateGreaterThanEqualOrderBySnapshotDateAsc(walletId, toDate(point));
+        Duration shortest = Duration.between(point, now);
+        if (before.isPresent())
+            shortest = min(shortest, Duration.between(endOf(before.get().getSnapshotDate()), point));
+        if (after.isPresent())
+            shortest = min(shortest, Duration.between(point, endOf(after.get().getSnapshotDate())));
+
+        final Money balance;
+        if (before.isPresent() && shortest.equals(Duration.between(endOf(before.get().getSnapshotDate()), point))) {
+            balance = before.get().getBalance()
+                    .add(transactionRepository.sumBalanceChanges(walletId, endOf(before.get().getSnapshotDate()), point));
+        } else if (after.isPresent() && shortest.equals(Duration.between(point, endOf(after.get().getSnapshotDate())))) {
+            balance = after.get().getBalance()
+                    .subtract(transactionRepository.sumBalanceChanges(walletId, point, endOf(after.get().getSnapshotDate())));
+        } else {
+            balance = walletRepository.findBalanceById(walletId)
+                    .orElseThrow(() -> new NoSuchElementFoundException(messageConfig.getMessage(ERROR_WALLET_NOT_FOUND)))
+                    .subtract(transactionRepository.sumBalanceChanges(walletId, point, now));
+        }
+        return WalletBalanceResponse.builder()
+                .walletId(walletId)
+                .at(point)
+                .balance(balance)
+                .build();
+    }
+
+    /**
+     * Takes the snapshots of all wallets for the days after the last snapshot until yesterday,
+     * each day in its own transaction. On the first run, only yesterday is taken.
+     *
+     * @return number of the taken snapshots
+     */
+    public int takeSnapshots() {
+        final LocalDate yesterday = toDate(clock.instant()).minusDays(1);
+        final LocalDate first = snapshotRepository.findLastSnapshotDate()
+                .map(date -> date.plusDays(1))
+                .orElse(yesterday);
+
+        int taken = 0;
+        for (LocalDate date = first; !date.isAfter(yesterday); date = date.plusDays(1)) {
+            final LocalDate snapshotDate = date;
+            taken += transactionTemplate.execute(status -> takeSnapshots(snapshotDate));
+        }
+        log.info(messageConfig.getMessage(INFO_WALLET_SNAPSHOTS_TAKEN, taken, first, yesterday));
+        return taken;
+    }
+
+    /**
+     * Takes the snapshots of the given day incrementally, the snapshot of the previous day plus the changes
+     * of the day. Wallets without a previous snapshot are calculated back from their current balance.
+     */
+    private int takeSnapshots(LocalDate date) {
+        final Instant start = date.atStartOfDay(ZoneOffset.UTC).toInstant();
+        final Instant end = endOf(date);
+        final Map<Long, Money> previous = snapshotRepository.findBalancesBySnapshotDate(date.minusDays(1)).stream()
+                .collect(Collectors.toMap(WalletBalanceView::getWalletId, WalletBalanceView::getBalance));
+        final Map<Long, Money> changes = transactionRepository.sumBalanceChanges(start, end);
+        Map<Long, Money> changesSinceEnd = null;
+
+        final Instant createdAt = clock.instant();
+        final List<WalletBalanceSnapshot> snapshots = new ArrayList<>();
+        for (WalletBalanceView wallet : walletRepository.findAllBalances()) {
+            final Long walletId = wallet.getWalletId();
+            final Money balance;
+            if (previous.containsKey(walletId)) {
+                balance = previous.get(walletId).add(changes.getOrDefault(walletId, Money.ZERO));
+            } else {
+                if (changesSinceEnd == null)
+                    changesSinceEnd = transactionRepository.sumBalanceChanges(end, createdAt);
+                balance = wallet.getBalance().subtract(changesSinceEnd.getOrDefault(walletId, Money.ZERO));
+            }
+
+            final WalletBalanceSnapshot snapshot = new WalletBalanceSnapshot();
+            snapshot.setWallet(walletRepository.getReferenceById(walletId));
+            snapshot.setSnapshotDate(date);
+            snapshot.setBalance(balance);
+            snapshot.setCreatedAt(createdAt);
+            snapshots.add(snapshot);
+        }
+        snapshotRepository.saveAll(snapshots);
+        return snapshots.size();
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private static Instant endOf(LocalDate date) {
+        return date.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    private static LocalDate toDate(Instant instant) {
+        return LocalDate.ofInstant(instant, ZoneOffset.UTC);
+    }
+}
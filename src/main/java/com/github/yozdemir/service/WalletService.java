@@ -1,30 +1,55 @@
 package com.github.yozdemir.service;
 
+import com.github.yozdemir.cache.RecentTransactionCache;
+import com.github.yozdemir.cache.WalletCache;
+import com.github.yozdemir.concurrency.ConflictRetryExecutor;
+import com.github.yozdemir.concurrency.RetryOnConflict;
+import com.github.yozdemir.concurrency.WalletLockManager;
+import com.github.yozdemir.concurrency.WalletPartitionedExecutor;
 import com.github.yozdemir.config.MessageSourceConfig;
 import com.github.yozdemir.domain.entity.Wallet;
+import com.github.yozdemir.domain.enums.Operation;
 import com.github.yozdemir.domain.enums.Status;
+import com.github.yozdemir.domain.value.Money;
 import com.github.yozdemir.dto.mapper.WalletRequestMapper;
 import com.github.yozdemir.dto.mapper.WalletResponseMapper;
 import com.github.yozdemir.dto.mapper.WalletTransactionRequestMapper;
 import com.github.yozdemir.dto.request.TransactionRequest;
 import com.github.yozdemir.dto.request.WalletRequest;
 import com.github.yozdemir.dto.response.CommandResponse;
+import com.github.yozdemir.dto.response.TransferResultResponse;
 import com.github.yozdemir.dto.response.WalletResponse;
 import com.github.yozdemir.exception.ElementAlreadyExistsException;
 import com.github.yozdemir.exception.InsufficientFundsException;
+import com.github.yozdemir.exception.InvalidRequestException;
 import com.github.yozdemir.exception.NoSuchElementFoundException;
+import com.github.yozdemir.repository.TransactionArchiveRepository;
+import com.github.yozdemir.repository.TransactionViewRepository;
 import com.github.yozdemir.repository.WalletRepository;
 import com.github.yozdemir.validator.IbanValidator;
+import com.github.yozdemir.validator.PageableValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static com.github.yozdemir.common.Constants.*;
 import static com.github.yozdemir.common.MessageKeys.*;
 
 /**
@@ -38,24 +63,42 @@ public class WalletService {
     private final MessageSourceConfig messageConfig;
     private final WalletRepository walletRepository;
     private final TransactionService transactionService;
+    private final TransactionViewRepository transactionViewRepository;
+    private final TransactionArchiveRepository transactionArchiveRepository;
     private final WalletRequestMapper walletRequestMapper;
     private final WalletResponseMapper walletResponseMapper;
     private final WalletTransactionRequestMapper walletTransactionRequestMapper;
     private final IbanValidator ibanValidator;
+    private final PageableValidator pageableValidator;
+    private final WalletLockManager walletLockManager;
+    private final WalletPartitionedExecutor walletExecutor;
+    private final ConflictRetryExecutor conflictRetryExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final WalletCache walletCache;
+    private final RecentTransactionCache recentTransactionCache;
 
-    private final BigDecimal moneyApprovalLimit = new BigDecimal("1000.00");
+    private final Money moneyApprovalLimit = Money.of(1000);
+
+    private static final int IBAN_LOOKUP_SIZE = 1000;
+    // sort keys of the wallets, each one is backed by a unique index
+    private static final List<String> SORT_KEYS = List.of("id", "iban");
+    private static final Sort DEFAULT_SORT = Sort.by("id");
+
+    @Value("${app.wallet.batch.chunkSize:500}")
+    private int batchChunkSize;
 
     /**
      * Fetches a single wallet by the given id.
+     * Wallets are served from the cache, a transaction is only started to load a missing one.
      *
      * @param id
      * @return WalletResponse
      */
-    @Transactional(readOnly = true)
     public WalletResponse findById(long id) {
-        return walletRepository.findById(id)
-                .map(walletResponseMapper::toWalletResponse)
-                .orElseThrow(() -> new NoSuchElementFoundException(messageConfig.getMessage(ERROR_WALLET_NOT_FOUND)));
+        final WalletResponse wallet = walletCache.getWallet(id, key -> transactionTemplate.execute(status -> loadWallet(key)));
+        if (wallet == null)
+            throw new NoSuchElementFoundException(messageConfig.getMessage(ERROR_WALLET_NOT_FOUND));
+        return wallet;
     }
 
     /**
@@ -64,11 +107,8 @@ public class WalletService {
      * @param iban
      * @return WalletResponse
      */
-    @Transactional(readOnly = true)
     public WalletResponse findByIban(String iban) {
-        return walletRepository.findByIban(iban)
-                .map(walletResponseMapper::toWalletResponse)
-                .orElseThrow(() -> new NoSuchElementFoundException(messageConfig.getMessage(ERROR_WALLET_NOT_FOUND)));
+        return findById(getIdByIban(iban));
     }
 
     /**
@@ -96,14 +136,36 @@ public class WalletService {
     }
 
     /**
-     * Fetches all wallets based on the given paging and sorting parameters.
+     * Fetches the id of the wallet by the given iban without loading the wallet itself.
+     *
+     * @param iban
+     * @return id of the wallet
+     */
+    public Long getIdByIban(String iban) {
+        final Long id = walletCache.getWalletId(iban, normalizedIban -> walletRepository.findIdByIban(normalizedIban).orElse(null));
+        if (id == null)
+            throw new NoSuchElementFoundException(messageConfig.getMessage(ERROR_WALLET_NOT_FOUND));
+        return id;
+    }
+
+    private WalletResponse loadWallet(Long id) {
+        return walletRepository.findById(id)
+                .map(walletResponseMapper::toWalletResponse)
+                .orElse(null);
+    }
+
+    /**
+     * Fetches all wallets based on the given paging and sorting parameters. Only a slice is
+     * returned unless the count is requested, which counts all wallets for a page.
      *
      * @param pageable
-     * @return List of WalletResponse
+     * @param count
+     * @return Slice of WalletResponse
      */
     @Transactional(readOnly = true)
-    public Page<WalletResponse> findAll(Pageable pageable) {
-        final Page<Wallet> wallets = walletRepository.findAll(pageable);
+    public Slice<WalletResponse> findAll(Pageable pageable, boolean count) {
+        final Pageable page = pageableValidator.validate(pageable, SORT_KEYS, DEFAULT_SORT);
+        final Slice<Wallet> wallets = count ? walletRepository.findAll(page) : walletRepository.findAllBy(page);
         if (wallets.isEmpty())
             throw new NoSuchElementFoundException(messageConfig.getMessage(ERROR_NO_RECORDS));
         return wallets.map(walletResponseMapper::toWalletResponse);
@@ -123,6 +185,7 @@ public class WalletService {
             throw new ElementAlreadyExistsException(messageConfig.getMessage(ERROR_WALLET_NAME_EXISTS));
 
         ibanValidator.isValid(request.getIban(), null);
+        checkScale(request.getBalance(), request.getCurrency());
 
         final Wallet wallet = walletRequestMapper.toWallet(request);
         walletRepository.save(wallet);
@@ -140,26 +203,37 @@ public class WalletService {
      * @param request
      * @return id of the transaction
      */
+    @RetryOnConflict
     @Transactional
     public CommandResponse transferFunds(TransactionRequest request) {
-        final Wallet toWallet = getByIban(request.getToWalletIban());
-        final Wallet fromWallet = getByIban(request.getFromWalletIban());
-
-        // check if the balance of sender wallet has equal or higher to/than transfer amount
-        if (fromWallet.getBalance().compareTo(request.getAmount()) < 0)
+        final Long toWalletId = getIdByIban(request.getToWalletIban());
+        final Long fromWalletId = getIdByIban(request.getFromWalletIban());
+        final Money amount = request.getAmount();
+        // a transfer to the same wallet would be debited without being credited
+        if (fromWalletId.equals(toWalletId))
+            throw new InvalidRequestException(messageConfig.getMessage(ERROR_SAME_WALLET_TRANSFER));
+        checkScale(amount, fromWalletId);
+        checkScale(amount, toWalletId);
+        lockForTransaction(fromWalletId, fromWalletId, toWalletId);
+        walletCache.evictAfterCommit(fromWalletId, toWalletId);
+
+        // rows are updated in ascending id order, so that transfers in opposite directions
+        // cannot deadlock on the database row locks when no wallet lock is taken
+        if (toWalletId < fromWalletId)
+            credit(toWalletId, amount, Money.ZERO);
+
+        // check and update balance of the sender wallet in a single statement
+        if (walletRepository.debitIfSufficient(fromWalletId, amount, amount, Money.ZERO) == 0)
             throw new InsufficientFundsException(messageConfig.getMessage(ERROR_INSUFFICIENT_FUNDS));
 
-        // update balance of the sender wallet
-        fromWallet.setBalance(fromWallet.getBalance().subtract(request.getAmount()));
-
         // update balance of the receiver wallet
-        toWallet.setBalance(toWallet.getBalance().add(request.getAmount()));
+        if (toWalletId > fromWalletId)
+            credit(toWalletId, amount, Money.ZERO);
+        request.setStatus(Status.APPROVED);
+        request.setOperation(Operation.TRANSFER);
+        log.info(messageConfig.getMessage(INFO_WALLET_BALANCES_UPDATED, request.getFromWalletIban(), request.getToWalletIban()));
 
-        walletRepository.save(fromWallet);
-        walletRepository.save(toWallet);
-        log.info(messageConfig.getMessage(INFO_WALLET_BALANCES_UPDATED, fromWallet.getBalance(), toWallet.getBalance()));
-
-        final CommandResponse response = transactionService.create(request);
+        final CommandResponse response = transactionService.create(request, fromWalletId, toWalletId);
         return CommandResponse.builder().id(response.id()).build();
     }
 
@@ -169,28 +243,65 @@ public class WalletService {
      * @param request
      * @return id of the transaction
      */
+    @RetryOnConflict
     @Transactional
     public CommandResponse addFunds(TransactionRequest request) {
-        final Wallet toWallet = getByIban(request.getToWalletIban());
-
-        addAccordingToLimits(toWallet,request);
+        final Long fromWalletId = getIdByIban(request.getFromWalletIban());
+        final Long toWalletId = getIdByIban(request.getToWalletIban());
+        checkScale(request.getAmount(), toWalletId);
+        lockForTransaction(toWalletId, toWalletId);
+        walletCache.evictAfterCommit(toWalletId);
 
-        walletRepository.save(toWallet);
-        log.info(messageConfig.getMessage(INFO_WALLET_BALANCE_UPDATED, toWallet.getBalance()));
+        addAccordingToLimits(toWalletId, request);
+        request.setOperation(Operation.DEPOSIT);
+        log.info(messageConfig.getMessage(INFO_WALLET_BALANCE_UPDATED, request.getToWalletIban(), request.getAmount()));
 
-        final CommandResponse response = transactionService.create(request);
+        final CommandResponse response = transactionService.create(request, fromWalletId, toWalletId);
         return CommandResponse.builder().id(response.id()).build();
     }
 
-    void addAccordingToLimits(final Wallet toWallet,TransactionRequest request){
-        final BigDecimal amount = request.getAmount();
-        // update balance of the receiver wallet
-        toWallet.setUsableBalance(toWallet.getUsableBalance().add(amount));
-        if (amount.compareTo(moneyApprovalLimit)<0) {
-            toWallet.setBalance(toWallet.getBalance().add(amount));
+    /**
+     * Locks the given wallets, unless the current thread is the partition worker of the checked wallet,
+     * which is its single writer. The other wallet of a transfer is only credited by an atomic update that
+     * increments its version, so the entity updates of the batch transfers still fail on a conflict.
+     */
+    private void lockForTransaction(Long checkedWalletId, Long... walletIds) {
+        if (!walletExecutor.isWorkerOf(checkedWalletId))
+            walletLockManager.lockForTransaction(walletIds);
+    }
+
+    /**
+     * Checks that the amount has at most the fraction digits of the currency of the given wallet.
+     * Currencies are cached separately from the wallets, so the check does not load the wallet.
+     */
+    private void checkScale(Money amount, Long walletId) {
+        final String currency = walletCache.getCurrency(walletId, id -> walletRepository.findCurrencyById(id).orElse(null));
+        // a wallet deleted meanwhile is reported by its balance update
+        if (currency != null)
+            checkScale(amount, currency);
+    }
+
+    private void checkScale(Money amount, String currency) {
+        final boolean hasScale;
+        try {
+            hasScale = amount.hasScaleOf(currency);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidRequestException(messageConfig.getMessage(ERROR_INVALID_CURRENCY, currency), ex);
+        }
+        if (!hasScale)
+            throw new InvalidRequestException(messageConfig.getMessage(ERROR_AMOUNT_SCALE, amount, currency));
+    }
+
+    void addAccordingToLimits(final Long toWalletId, TransactionRequest request) {
+        final Money amount = request.getAmount();
+        // update balance of the receiver wallet, amounts over the limit are only added to the usable balance
+        if (amount.isLessThan(moneyApprovalLimit)) {
+            credit(toWalletId, amount, amount);
             request.setStatus(Status.APPROVED);
+        } else {
+            credit(toWalletId, Money.ZERO, amount);
+            request.setStatus(Status.PENDING);
         }
-        else request.setStatus(Status.PENDING);
     }
 
     /**
@@ -199,36 +310,175 @@ public class WalletService {
      * @param request
      * @return id of the transaction
      */
+    @RetryOnConflict
     @Transactional
     public CommandResponse withdrawFunds(TransactionRequest request) {
-        final Wallet fromWallet = getByIban(request.getFromWalletIban());
-
-        // check if the balance of sender wallet has equal or higher to/than transfer amount
-        if (fromWallet.getBalance().compareTo(request.getAmount()) < 0)
+        final Long fromWalletId = getIdByIban(request.getFromWalletIban());
+        final Long toWalletId = getIdByIban(request.getToWalletIban());
+        final Money amount = request.getAmount();
+        checkScale(amount, fromWalletId);
+        lockForTransaction(fromWalletId, fromWalletId);
+        walletCache.evictAfterCommit(fromWalletId);
+
+        // check if the balance of sender wallet has equal or higher to/than transfer amount and update it
+        // in a single statement, amounts over the limit are only subtracted from the usable balance
+        final boolean approved = amount.isLessThan(moneyApprovalLimit);
+        if (walletRepository.debitIfSufficient(fromWalletId, amount, approved ? amount : Money.ZERO, amount) == 0)
             throw new InsufficientFundsException(messageConfig.getMessage(ERROR_INSUFFICIENT_FUNDS));
 
-        final BigDecimal amount = request.getAmount();
-        // update balance of the sender wallet
-        fromWallet.setUsableBalance(fromWallet.getUsableBalance().subtract(amount));
-        if (amount.compareTo(moneyApprovalLimit)<0) {
-            fromWallet.setBalance(fromWallet.getBalance().subtract(amount));
-            request.setStatus(Status.APPROVED);
+        request.setStatus(approved ? Status.APPROVED : Status.PENDING);
+        request.setOperation(Operation.WITHDRAWAL);
+        log.info(messageConfig.getMessage(INFO_WALLET_BALANCE_UPDATED, request.getFromWalletIban(), amount.negate()));
+
+        final CommandResponse response = transactionService.create(request, fromWalletId, toWalletId);
+        return CommandResponse.builder().id(response.id()).build();
+    }
+
+    /**
+     * Transfers funds for the given requests in chunks, each chunk in a single transaction.
+     * A failed transfer does not affect the others, and the result of every request is returned
+     * in the order of the requests.
+     *
+     * @param requests
+     * @return List of TransferResultResponse
+     */
+    public List<TransferResultResponse> transferFundsBatch(List<TransactionRequest> requests) {
+        // ibans are matched as the single transfers match them
+        requests.forEach(request -> {
+            request.setFromWalletIban(WalletCache.normalizeIban(request.getFromWalletIban()));
+            request.setToWalletIban(WalletCache.normalizeIban(request.getToWalletIban()));
+        });
+        final Map<String, Long> walletIds = getIdsByIban(requests);
+        final List<TransferResultResponse> results = new ArrayList<>(requests.size());
+
+        for (int offset = 0; offset < requests.size(); offset += batchChunkSize) {
+            final int start = offset;
+            final List<TransactionRequest> chunk = requests.subList(start, Math.min(start + batchChunkSize, requests.size()));
+            try {
+                results.addAll(conflictRetryExecutor.execute("WalletService.transferFundsBatch",
+                        () -> transactionTemplate.execute(status -> transferChunk(chunk, start, walletIds))));
+            } catch (ConcurrencyFailureException ex) {
+                // the chunk is rolled back as a whole, other chunks are still processed
+                results.addAll(deniedChunk(chunk, start, messageConfig.getMessage(ERROR_CONCURRENT_UPDATE)));
+            } catch (RuntimeException ex) {
+                // the previous chunks are already committed, so their results are still returned
+                final String message = messageConfig.getMessage(ERROR_TRANSFER_CHUNK_FAILED, start, chunk.size());
+                log.error(message, ex);
+                results.addAll(deniedChunk(chunk, start, message));
+            }
         }
-        else request.setStatus(Status.PENDING);
+        return results;
+    }
 
-        walletRepository.save(fromWallet);
-        log.info(messageConfig.getMessage(INFO_WALLET_BALANCE_UPDATED, fromWallet.getBalance()));
+    private Map<String, Long> getIdsByIban(List<TransactionRequest> requests) {
+        final List<String> ibans = requests.stream()
+                .flatMap(request -> Stream.of(request.getFromWalletIban(), request.getToWalletIban()))
+                .distinct()
+                .toList();
 
-        final CommandResponse response = transactionService.create(request);
-        return CommandResponse.builder().id(response.id()).build();
+        // keep the IN lists within the bind parameter limits of the databases
+        final Map<String, Long> walletIds = new HashMap<>();
+        for (int i = 0; i < ibans.size(); i += IBAN_LOOKUP_SIZE) {
+            walletRepository.findIdsByIbanIn(ibans.subList(i, Math.min(i + IBAN_LOOKUP_SIZE, ibans.size())))
+                    .forEach(wallet -> walletIds.put(wallet.getIban(), wallet.getId()));
+        }
+        return walletIds;
+    }
+
+    private List<TransferResultResponse> transferChunk(List<TransactionRequest> chunk, int offset, Map<String, Long> walletIds) {
+        final Long[] ids = chunk.stream()
+                .flatMap(request -> Stream.of(walletIds.get(request.getFromWalletIban()), walletIds.get(request.getToWalletIban())))
+                .filter(Objects::nonNull)
+                .distinct()
+                .toArray(Long[]::new);
+        walletLockManager.lockForTransaction(ids);
+        walletCache.evictAfterCommit(ids);
+
+        // balances are changed on the loaded wallets, so that the updates are flushed in JDBC batches
+        final Map<String, Wallet> wallets = walletRepository.findAllById(Arrays.asList(ids)).stream()
+                .collect(Collectors.toMap(Wallet::getIban, Function.identity()));
+
+        // balances are kept as units while the chunk is applied, and each wallet is set once at the end
+        final Map<Wallet, long[]> balances = new HashMap<>();
+        wallets.values().forEach(wallet -> balances.put(wallet, new long[]{wallet.getBalance().getUnits()}));
+
+        final TransferResultResponse[] results = new TransferResultResponse[chunk.size()];
+        final List<Integer> approvedIndexes = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            final TransactionRequest request = chunk.get(i);
+            final Wallet fromWallet = wallets.get(request.getFromWalletIban());
+            final Wallet toWallet = wallets.get(request.getToWalletIban());
+            final Money amount = request.getAmount();
+
+            if (fromWallet == null || toWallet == null) {
+                results[i] = denied(offset + i, messageConfig.getMessage(ERROR_WALLET_NOT_FOUND));
+            } else if (fromWallet == toWallet) {
+                results[i] = denied(offset + i, messageConfig.getMessage(ERROR_SAME_WALLET_TRANSFER));
+            } else if (!amount.hasScaleOf(fromWallet.getCurrency()) || !amount.hasScaleOf(toWallet.getCurrency())) {
+                results[i] = denied(offset + i, messageConfig.getMessage(ERROR_AMOUNT_SCALE, amount,
+                        amount.hasScaleOf(fromWallet.getCurrency()) ? toWallet.getCurrency() : fromWallet.getCurrency()));
+            } else if (balances.get(fromWallet)[0] < amount.getUnits()) {
+                results[i] = denied(offset + i, messageConfig.getMessage(ERROR_INSUFFICIENT_FUNDS));
+            } else {
+                final long[] fromBalance = balances.get(fromWallet);
+                final long[] toBalance = balances.get(toWallet);
+                fromBalance[0] = Math.subtractExact(fromBalance[0], amount.getUnits());
+                toBalance[0] = Math.addExact(toBalance[0], amount.getUnits());
+                request.setStatus(Status.APPROVED);
+                request.setOperation(Operation.TRANSFER);
+                approvedIndexes.add(i);
+            }
+        }
+        balances.forEach((wallet, balance) -> {
+            if (wallet.getBalance().getUnits() != balance[0])
+                wallet.setBalance(Money.ofUnits(balance[0]));
+        });
+
+        final List<Long> transactionIds = transactionService.createAll(
+                approvedIndexes.stream().map(chunk::get).toList(), wallets);
+        for (int i = 0; i < approvedIndexes.size(); i++) {
+            final int index = approvedIndexes.get(i);
+            results[index] = TransferResultResponse.builder()
+                    .index(offset + index)
+                    .id(transactionIds.get(i))
+                    .status(Status.APPROVED)
+                    .build();
+        }
+        log.info(messageConfig.getMessage(INFO_TRANSFER_CHUNK_COMPLETED,
+                chunk.size(), approvedIndexes.size(), chunk.size() - approvedIndexes.size()));
+        return Arrays.asList(results);
+    }
+
+    private List<TransferResultResponse> deniedChunk(List<TransactionRequest> chunk, int offset, String message) {
+        final List<TransferResultResponse> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            results.add(denied(offset + i, message));
+        }
+        return results;
+    }
+
+    private TransferResultResponse denied(int index, String message) {
+        return TransferResultResponse.builder()
+                .index(index)
+                .status(Status.DENIED)
+                .message(message)
+                .build();
+    }
+
+    private void credit(Long walletId, Money balanceAmount, Money usableAmount) {
+        if (walletRepository.credit(walletId, balanceAmount, usableAmount) == 0)
+            throw new NoSuchElementFoundException(messageConfig.getMessage(ERROR_WALLET_NOT_FOUND));
     }
 
     /**
      * Updates wallet using the given request parameters.
+     * The changes are applied to the loaded wallet, so a concurrent balance change is detected by its version.
      *
      * @param request
      * @return id of the updated wallet
      */
+    @RetryOnConflict
+    @Transactional
     public CommandResponse update(long id, WalletRequest request) {
         final Wallet foundWallet = walletRepository.findById(id)
                 .orElseThrow(() -> new NoSuchElementFoundException(messageConfig.getMessage(ERROR_WALLET_NOT_FOUND)));
@@ -245,8 +495,19 @@ public class WalletService {
 
         ibanValidator.isValid(request.getIban(), null);
 
-        final Wallet wallet = walletRequestMapper.toWallet(request);
-        walletRepository.save(wallet);
+        checkScale(foundWallet.getBalance(), request.getCurrency());
+
+        walletCache.evictAfterCommit(id);
+        walletCache.evictIbansAfterCommit(foundWallet.getIban(), request.getIban());
+        walletCache.evictCurrenciesAfterCommit(id);
+        walletRequestMapper.updateWallet(request, foundWallet);
+        final Wallet wallet = walletRepository.saveAndFlush(foundWallet);
+        // the read model and the archive of the transactions keep a copy of the wallet fields,
+        // the owner is read from them for the history and the exports of a user
+        transactionViewRepository.updateWallet(id, wallet.getIban(), wallet.getName(), request.getUserId());
+        transactionArchiveRepository.updateWallet(id, wallet.getIban(), wallet.getName(), request.getUserId());
+        // the cached transactions of any user may embed the wallet, wallet updates are rare
+        recentTransactionCache.evictAllAfterCommit();
         log.info(messageConfig.getMessage(INFO_WALLET_UPDATED, wallet.getIban(), wallet.getName(), wallet.getBalance()));
         return CommandResponse.builder().id(id).build();
     }
@@ -260,6 +521,9 @@ public class WalletService {
         final Wallet wallet = walletRepository.findById(id)
                 .orElseThrow(() -> new NoSuchElementFoundException(messageConfig.getMessage(ERROR_WALLET_NOT_FOUND)));
         walletRepository.delete(wallet);
+        walletCache.evictAfterCommit(id);
+        walletCache.evictIbansAfterCommit(wallet.getIban());
+        walletCache.evictCurrenciesAfterCommit(id);
         log.info(messageConfig.getMessage(INFO_WALLET_DELETED, wallet.getIban(), wallet.getName(), wallet.getBalance()));
     }
 }
@@ -0,0 +1,52 @@
+package com.github.yozdemir.validator;
+
+import com.github.yozdemir.config.MessageSourceConfig;
+import com.github.yozdemir.exception.InvalidRequestException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+import static com.github.yozdemir.common.Constants.MAX_PAGE_SIZE;
+import static com.github.yozdemir.common.MessageKeys.ERROR_INVALID_PAGE_SIZE;
+import static com.github.yozdemir.common.MessageKeys.ERROR_INVALID_SORT;
+
+/**
+ * Validator of the paging and sorting parameters of the list endpoints. The page size is limited and
+ * only the sort keys backed by an index are accepted, so a page is never sorted over all rows.
+ */
+@Component
+@RequiredArgsConstructor
+public class PageableValidator {
+
+    private static final String ID = "id";
+
+    private final MessageSourceConfig messageConfig;
+
+    /**
+     * Validates the given pageable and returns it sorted by the given default sort when it is not sorted.
+     * The id is added as the last sort key, so the rows have the same order on every request.
+     *
+     * @param pageable
+     * @param sortKeys
+     * @param defaultSort
+     * @return Pageable
+     */
+    public Pageable validate(Pageable pageable, Collection<String> sortKeys, Sort defaultSort) {
+        if (pageable.getPageSize() > MAX_PAGE_SIZE)
+            throw new InvalidRequestException(messageConfig.getMessage(ERROR_INVALID_PAGE_SIZE, MAX_PAGE_SIZE));
+        for (Sort.Order order : pageable.getSort()) {
+            if (!sortKeys.contains(order.getProperty()))
+                throw new InvalidRequestException(messageConfig.getMessage(ERROR_INVALID_SORT, order.getProperty(), sortKeys));
+        }
+
+        final Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : defaultSort;
+        if (sort.getOrderFor(ID) != null)
+            return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                sort.and(Sort.by(sort.iterator().next().getDirection(), ID)));
+    }
+}
@@ -0,0 +1,16 @@
+package com.github.yozdemir.validator;
+
+import com.github.yozdemir.domain.value.Money;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PositiveMoneyValidator implements ConstraintValidator<PositiveMoney, Money> {
+
+    @Override
+    public boolean isValid(Money money, ConstraintValidatorContext context) {
+        // null values are checked by @NotNull
+        return money == null || money.signum() > 0;
+    }
+}
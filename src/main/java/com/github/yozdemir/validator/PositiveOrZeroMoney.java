@@ -0,0 +1,26 @@
+package com.github.yozdemir.validator;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static com.github.yozdemir.common.MessageKeys.ERROR_FIELD_VALIDATION;
+import static java.lang.annotation.ElementType.*;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+@Documented
+@Target({ElementType.FIELD, METHOD, PARAMETER, ANNOTATION_TYPE, TYPE_USE})
+@Retention(RUNTIME)
+@Constraint(validatedBy = {PositiveOrZeroMoneyValidator.class})
+public @interface PositiveOrZeroMoney {
+
+    String message() default ERROR_FIELD_VALIDATION;
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
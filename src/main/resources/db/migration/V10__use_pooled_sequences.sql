@@ -0,0 +1,20 @@
+-- ids are reserved by the application in blocks of 50 (pooled-lo optimizer), the value returned by
+-- a sequence is the first id of a block, so the sequences are incremented by the block size
+CREATE SEQUENCE IF NOT EXISTS role_seq START WITH 3;
+CREATE SEQUENCE IF NOT EXISTS type_seq START WITH 3;
+
+ALTER SEQUENCE role_seq INCREMENT BY 50;
+ALTER SEQUENCE type_seq INCREMENT BY 50;
+ALTER SEQUENCE user_seq INCREMENT BY 50;
+ALTER SEQUENCE wallet_seq INCREMENT BY 50;
+ALTER SEQUENCE transaction_seq INCREMENT BY 50;
+
+-- ids of every table are taken from its sequence instead of a separate identity
+ALTER TABLE role ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE role ALTER COLUMN id SET DEFAULT NEXT VALUE FOR role_seq;
+ALTER TABLE type ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE type ALTER COLUMN id SET DEFAULT NEXT VALUE FOR type_seq;
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT NEXT VALUE FOR user_seq;
+ALTER TABLE transaction ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE transaction ALTER COLUMN id SET DEFAULT NEXT VALUE FOR transaction_seq;
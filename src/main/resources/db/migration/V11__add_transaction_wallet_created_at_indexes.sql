@@ -0,0 +1,3 @@
+-- history of a wallet is read in creation order, starting after the key of the last fetched row
+CREATE INDEX IF NOT EXISTS transaction_from_wallet_created_at_idx ON transaction (from_wallet_id, created_at, id);
+CREATE INDEX IF NOT EXISTS transaction_to_wallet_created_at_idx ON transaction (to_wallet_id, created_at, id);
@@ -0,0 +1,6 @@
+-- history of a wallet is read latest first, so the indexes are kept in the same order; this lets the
+-- page be read in index order and stop at the page size instead of sorting the whole wallet range
+DROP INDEX IF EXISTS transaction_from_wallet_created_at_idx;
+DROP INDEX IF EXISTS transaction_to_wallet_created_at_idx;
+CREATE INDEX IF NOT EXISTS transaction_from_wallet_latest_idx ON transaction (from_wallet_id DESC, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS transaction_to_wallet_latest_idx ON transaction (to_wallet_id DESC, created_at DESC, id DESC);
@@ -0,0 +1,4 @@
+INSERT INTO type (id, name, description) VALUES (3, 'Transfer', 'Transfer money');
+
+-- the next block of ids starts after the inserted type
+ALTER SEQUENCE type_seq RESTART WITH 4;
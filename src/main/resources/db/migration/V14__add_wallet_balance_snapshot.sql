@@ -0,0 +1,13 @@
+CREATE SEQUENCE IF NOT EXISTS wallet_balance_snapshot_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE wallet_balance_snapshot (
+    id BIGINT DEFAULT NEXT VALUE FOR wallet_balance_snapshot_seq PRIMARY KEY,
+    wallet_id BIGINT NOT NULL,
+    snapshot_date DATE NOT NULL,
+    balance DECIMAL(19, 4) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT fk_wallet_balance_snapshot_wallet FOREIGN KEY (wallet_id) REFERENCES wallet (id) ON DELETE CASCADE
+);
+
+-- nearest snapshot of a wallet is the last one before a date
+CREATE UNIQUE INDEX IF NOT EXISTS wallet_balance_snapshot_wallet_id_date_key ON wallet_balance_snapshot (wallet_id, snapshot_date);
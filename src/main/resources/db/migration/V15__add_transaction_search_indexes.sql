@@ -0,0 +1,6 @@
+-- every filter of the transaction search leads an index, and the sort keys of the search (created_at and
+-- amount) follow it, so a slice is read in index order instead of sorting all matching rows
+CREATE INDEX IF NOT EXISTS transaction_created_at_idx ON transaction (created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS transaction_amount_idx ON transaction (amount DESC, id DESC);
+CREATE INDEX IF NOT EXISTS transaction_type_created_at_idx ON transaction (type_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS transaction_status_amount_idx ON transaction (status, amount DESC, id DESC);
@@ -0,0 +1,49 @@
+-- read model of the transactions, flattened with the fields of their wallets and types, so the transactions
+-- are read from a single table; rows are written in the same database transaction as their transactions
+CREATE TABLE transaction_view (
+    id BIGINT PRIMARY KEY,
+    reference_number VARCHAR(36) NOT NULL,
+    amount DECIMAL(19, 4) NOT NULL,
+    description VARCHAR(50),
+    created_at TIMESTAMP NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    type_id BIGINT NOT NULL,
+    type_name VARCHAR(50) NOT NULL,
+    from_wallet_id BIGINT NOT NULL,
+    from_wallet_iban VARCHAR(34) NOT NULL,
+    from_wallet_name VARCHAR(50) NOT NULL,
+    from_user_id BIGINT NOT NULL,
+    to_wallet_id BIGINT NOT NULL,
+    to_wallet_iban VARCHAR(34) NOT NULL,
+    to_wallet_name VARCHAR(50) NOT NULL,
+    to_user_id BIGINT NOT NULL
+);
+
+INSERT INTO transaction_view (id, reference_number, amount, description, created_at, status, type_id, type_name,
+                              from_wallet_id, from_wallet_iban, from_wallet_name, from_user_id,
+                              to_wallet_id, to_wallet_iban, to_wallet_name, to_user_id)
+SELECT t.id, t.reference_number, t.amount, t.description, t.created_at, t.status, ty.id, ty.name,
+       fw.id, fw.iban, fw.name, fw.user_id, tw.id, tw.iban, tw.name, tw.user_id
+FROM transaction t
+JOIN type ty ON ty.id = t.type_id
+JOIN wallet fw ON fw.id = t.from_wallet_id
+JOIN wallet tw ON tw.id = t.to_wallet_id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS transaction_view_reference_number_key ON transaction_view (reference_number);
+-- history of a user is read latest first by sent and received transactions separately
+CREATE INDEX IF NOT EXISTS transaction_view_from_user_latest_idx ON transaction_view (from_user_id DESC, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS transaction_view_to_user_latest_idx ON transaction_view (to_user_id DESC, created_at DESC, id DESC);
+-- every filter of the transaction search leads an index, followed by the sort keys of the search
+CREATE INDEX IF NOT EXISTS transaction_view_from_wallet_latest_idx ON transaction_view (from_wallet_id DESC, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS transaction_view_to_wallet_latest_idx ON transaction_view (to_wallet_id DESC, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS transaction_view_created_at_idx ON transaction_view (created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS transaction_view_amount_idx ON transaction_view (amount DESC, id DESC);
+CREATE INDEX IF NOT EXISTS transaction_view_type_created_at_idx ON transaction_view (type_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS transaction_view_status_created_at_idx ON transaction_view (status, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS transaction_view_status_amount_idx ON transaction_view (status, amount DESC, id DESC);
+
+-- transactions are not searched anymore
+DROP INDEX IF EXISTS transaction_created_at_idx;
+DROP INDEX IF EXISTS transaction_amount_idx;
+DROP INDEX IF EXISTS transaction_type_created_at_idx;
+DROP INDEX IF EXISTS transaction_status_amount_idx;
@@ -0,0 +1,30 @@
+-- decided transactions older than the archive age are moved here, so the transactions and their read model
+-- only keep the recent ones; rows are copied from the read model with the fields of their wallets and types
+CREATE TABLE transaction_archive (
+    id BIGINT PRIMARY KEY,
+    reference_number VARCHAR(36) NOT NULL,
+    amount DECIMAL(19, 4) NOT NULL,
+    description VARCHAR(50),
+    created_at TIMESTAMP NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    type_id BIGINT NOT NULL,
+    type_name VARCHAR(50) NOT NULL,
+    from_wallet_id BIGINT NOT NULL,
+    from_wallet_iban VARCHAR(34) NOT NULL,
+    from_wallet_name VARCHAR(50) NOT NULL,
+    from_user_id BIGINT NOT NULL,
+    to_wallet_id BIGINT NOT NULL,
+    to_wallet_iban VARCHAR(34) NOT NULL,
+    to_wallet_name VARCHAR(50) NOT NULL,
+    to_user_id BIGINT NOT NULL,
+    archived_at TIMESTAMP NOT NULL
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS transaction_archive_reference_number_key ON transaction_archive (reference_number);
+-- history of a user is read latest first by sent and received transactions separately
+CREATE INDEX IF NOT EXISTS transaction_archive_from_user_latest_idx ON transaction_archive (from_user_id DESC, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS transaction_archive_to_user_latest_idx ON transaction_archive (to_user_id DESC, created_at DESC, id DESC);
+-- balance changes of a wallet and of a period are summed by these
+CREATE INDEX IF NOT EXISTS transaction_archive_from_wallet_created_at_idx ON transaction_archive (from_wallet_id, created_at);
+CREATE INDEX IF NOT EXISTS transaction_archive_to_wallet_created_at_idx ON transaction_archive (to_wallet_id, created_at);
+CREATE INDEX IF NOT EXISTS transaction_archive_created_at_idx ON transaction_archive (created_at);
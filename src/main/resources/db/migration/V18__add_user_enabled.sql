@@ -0,0 +1,2 @@
+-- disabled users cannot log in, and their issued tokens are rejected once their cached status expires
+ALTER TABLE users ADD COLUMN enabled BOOLEAN NOT NULL DEFAULT TRUE;
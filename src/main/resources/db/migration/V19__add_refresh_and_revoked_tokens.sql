@@ -0,0 +1,22 @@
+CREATE SEQUENCE IF NOT EXISTS refresh_token_seq START WITH 1 INCREMENT BY 50;
+
+-- refresh tokens are single use and stored by their SHA-256 digest, the tokens are only known by the clients
+CREATE TABLE refresh_token (
+    id BIGINT DEFAULT NEXT VALUE FOR refresh_token_seq PRIMARY KEY,
+    token_hash VARCHAR(64) NOT NULL,
+    user_id BIGINT NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT fk_refresh_token_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS refresh_token_token_hash_key ON refresh_token (token_hash);
+CREATE INDEX IF NOT EXISTS refresh_token_expires_at_idx ON refresh_token (expires_at);
+
+-- ids of the revoked access tokens, kept until the tokens expire and loaded into memory at startup
+CREATE TABLE revoked_token (
+    token_id VARCHAR(36) PRIMARY KEY,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS revoked_token_expires_at_idx ON revoked_token (expires_at);
@@ -0,0 +1,2 @@
+-- digest of the requester and the body of an idempotent request, a reused reference number must match it
+ALTER TABLE transaction ADD COLUMN request_hash VARCHAR(64);
@@ -0,0 +1,17 @@
+-- balance changes are effective when a transaction is decided, which is later than its creation for the pending ones;
+-- the decision time of the existing rows is not known, so their creation time is taken
+ALTER TABLE transaction ADD COLUMN decided_at TIMESTAMP;
+ALTER TABLE transaction_archive ADD COLUMN decided_at TIMESTAMP;
+UPDATE transaction SET decided_at = created_at WHERE status <> 'PENDING';
+UPDATE transaction_archive SET decided_at = created_at;
+
+-- balance changes of a wallet and of a period are summed by these
+CREATE INDEX IF NOT EXISTS transaction_from_wallet_decided_at_idx ON transaction (from_wallet_id, decided_at);
+CREATE INDEX IF NOT EXISTS transaction_to_wallet_decided_at_idx ON transaction (to_wallet_id, decided_at);
+CREATE INDEX IF NOT EXISTS transaction_decided_at_idx ON transaction (decided_at);
+DROP INDEX IF EXISTS transaction_archive_from_wallet_created_at_idx;
+DROP INDEX IF EXISTS transaction_archive_to_wallet_created_at_idx;
+DROP INDEX IF EXISTS transaction_archive_created_at_idx;
+CREATE INDEX IF NOT EXISTS transaction_archive_from_wallet_decided_at_idx ON transaction_archive (from_wallet_id, decided_at);
+CREATE INDEX IF NOT EXISTS transaction_archive_to_wallet_decided_at_idx ON transaction_archive (to_wallet_id, decided_at);
+CREATE INDEX IF NOT EXISTS transaction_archive_decided_at_idx ON transaction_archive (decided_at);
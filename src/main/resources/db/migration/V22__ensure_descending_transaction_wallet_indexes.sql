@@ -0,0 +1,6 @@
+-- history of a wallet is read latest first by the descending indexes of V12; a database whose V11 already
+-- created them in descending order (and that was repaired to skip V12) ends up with the same indexes
+DROP INDEX IF EXISTS transaction_from_wallet_created_at_idx;
+DROP INDEX IF EXISTS transaction_to_wallet_created_at_idx;
+CREATE INDEX IF NOT EXISTS transaction_from_wallet_latest_idx ON transaction (from_wallet_id DESC, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS transaction_to_wallet_latest_idx ON transaction (to_wallet_id DESC, created_at DESC, id DESC);
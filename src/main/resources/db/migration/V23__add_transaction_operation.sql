@@ -0,0 +1,13 @@
+-- the direction of the balance change is recorded by the wallet operation instead of the transaction type,
+-- which is chosen by the client; the operation of the existing rows is taken from their type
+ALTER TABLE transaction ADD COLUMN operation VARCHAR(20);
+ALTER TABLE transaction_archive ADD COLUMN operation VARCHAR(20);
+UPDATE transaction SET operation = CASE type_id WHEN 1 THEN 'DEPOSIT' WHEN 3 THEN 'TRANSFER' ELSE 'WITHDRAWAL' END;
+UPDATE transaction_archive SET operation = CASE type_id WHEN 1 THEN 'DEPOSIT' WHEN 3 THEN 'TRANSFER' ELSE 'WITHDRAWAL' END;
+ALTER TABLE transaction ALTER COLUMN operation VARCHAR(20) NOT NULL;
+ALTER TABLE transaction_archive ALTER COLUMN operation VARCHAR(20) NOT NULL;
+
+-- the Transfer type of V13 is not assigned by the service anymore, it is kept only while rows refer to it
+DELETE FROM type WHERE id = 3
+    AND NOT EXISTS (SELECT 1 FROM transaction WHERE type_id = 3)
+    AND NOT EXISTS (SELECT 1 FROM transaction_archive WHERE type_id = 3);
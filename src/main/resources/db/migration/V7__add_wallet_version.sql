@@ -0,0 +1 @@
+ALTER TABLE wallet ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS transaction_status_created_at_idx ON transaction (status, created_at);
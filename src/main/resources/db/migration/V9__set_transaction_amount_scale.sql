@@ -0,0 +1 @@
+ALTER TABLE transaction ALTER COLUMN amount DECIMAL(19, 4) NOT NULL;
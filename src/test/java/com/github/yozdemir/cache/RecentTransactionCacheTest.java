@@ -0,0 +1,89 @@
+package com.github.yozdemir.cache;
+
+import com.github.yozdemir.dto.response.TransactionResponse;
+import com.github.yozdemir.domain.enums.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecentTransactionCacheTest {
+
+    private RecentTransactionCache recentTransactionCache;
+
+    @BeforeEach
+    void setUp() {
+        recentTransactionCache = new RecentTransactionCache(new SimpleMeterRegistry(), 2, 100);
+    }
+
+    @Test
+    void getRecent_shouldLoadOnceAndKeepOnlyLatestTransactions() {
+        var loads = new AtomicInteger();
+
+        var first = recentTransactionCache.getRecent(1L, id -> {
+            loads.incrementAndGet();
+            return List.of(createTestResponse(3L), createTestResponse(2L), createTestResponse(1L));
+        });
+        var second = recentTransactionCache.getRecent(1L, id -> fail("should be cached"));
+
+        assertEquals(List.of(3L, 2L), ids(first));
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void addAfterCommit_shouldPrependTransactionToCachedUsersOnly() {
+        recentTransactionCache.getRecent(1L, id -> List.of(createTestResponse(2L), createTestResponse(1L)));
+
+        recentTransactionCache.addAfterCommit(() -> createTestResponse(3L), 1L, 2L);
+        recentTransactionCache.addAfterCommit(() -> createTestResponse(3L), 1L);
+
+        assertEquals(List.of(3L, 2L), ids(recentTransactionCache.getRecent(1L, id -> fail("should be cached"))));
+        assertEquals(List.of(), recentTransactionCache.getRecent(2L, id -> List.of()));
+    }
+
+    @Test
+    void addAfterCommit_shouldNotBuildTransactionWhenNoUserIsCached() {
+        recentTransactionCache.addAfterCommit(() -> fail("should not be built"), 1L, 2L);
+
+        assertEquals(List.of(), recentTransactionCache.getRecent(1L, id -> List.of()));
+    }
+
+    @Test
+    void updateAfterCommit_shouldReplaceKeptTransaction() {
+        recentTransactionCache.getRecent(1L, id -> List.of(createTestResponse(2L), createTestResponse(1L)));
+        var approved = createTestResponse(1L);
+        approved.setStatus(Status.APPROVED);
+
+        recentTransactionCache.updateAfterCommit(approved, 1L);
+        recentTransactionCache.updateAfterCommit(createTestResponse(5L), 1L);
+
+        var recent = recentTransactionCache.getRecent(1L, id -> fail("should be cached"));
+        assertEquals(List.of(2L, 1L), ids(recent));
+        assertSame(approved, recent.get(1));
+    }
+
+    @Test
+    void evictAllAfterCommit_shouldReloadOnNextRead() {
+        recentTransactionCache.getRecent(1L, id -> List.of(createTestResponse(1L)));
+
+        recentTransactionCache.evictAllAfterCommit();
+
+        assertEquals(List.of(2L), ids(recentTransactionCache.getRecent(1L, id -> List.of(createTestResponse(2L)))));
+    }
+
+    private List<Long> ids(List<TransactionResponse> transactions) {
+        return transactions.stream().map(TransactionResponse::getId).toList();
+    }
+
+    private TransactionResponse createTestResponse(Long id) {
+        var response = new TransactionResponse();
+        response.setId(id);
+        response.setStatus(Status.PENDING);
+        return response;
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.yozdemir.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConflictRetryExecutorTest {
+
+    private static final String OPERATION = "WalletService.transferFunds";
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void execute_shouldRetryUntilActionSucceeds() {
+        var executor = new ConflictRetryExecutor(meterRegistry, 5, 1, 5, 0.2, 10);
+        var calls = new AtomicInteger();
+
+        var result = executor.execute(OPERATION, () -> {
+            if (calls.incrementAndGet() < 3)
+                throw new ObjectOptimisticLockingFailureException("Wallet", 1L);
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(3, calls.get());
+        assertEquals(2, count("wallet.mutation.conflicts"));
+        assertEquals(2, count("wallet.mutation.retries"));
+        assertEquals(0, count("wallet.mutation.failures"));
+        assertEquals(3, meterRegistry.get("wallet.mutation.attempts").summary().max());
+    }
+
+    @Test
+    void execute_shouldThrowExceptionWhenMaxAttemptsIsReached() {
+        var executor = new ConflictRetryExecutor(meterRegistry, 3, 1, 5, 0.2, 10);
+        var calls = new AtomicInteger();
+
+        assertThrows(CannotAcquireLockException.class, () -> executor.execute(OPERATION, () -> {
+            calls.incrementAndGet();
+            throw new CannotAcquireLockException("locked");
+        }));
+
+        assertEquals(3, calls.get());
+        assertEquals(1, meterRegistry.get("wallet.mutation.failures").tag("reason", "attempts").counter().count());
+    }
+
+    @Test
+    void execute_shouldStopRetryingWhenBudgetIsExhausted() {
+        var executor = new ConflictRetryExecutor(meterRegistry, 10, 1, 5, 0.0, 2);
+        var calls = new AtomicInteger();
+
+        assertThrows(CannotAcquireLockException.class, () -> executor.execute(OPERATION, () -> {
+            calls.incrementAndGet();
+            throw new CannotAcquireLockException("locked");
+        }));
+
+        assertEquals(3, calls.get());
+        assertEquals(0, executor.getAvailableBudget());
+        assertEquals(1, meterRegistry.get("wallet.mutation.failures").tag("reason", "budget").counter().count());
+    }
+
+    @Test
+    void execute_shouldNotRetryInsideActiveTransaction() {
+        var executor = new ConflictRetryExecutor(meterRegistry, 5, 1, 5, 0.2, 10);
+        var calls = new AtomicInteger();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThrows(CannotAcquireLockException.class, () -> executor.execute(OPERATION, () -> {
+                calls.incrementAndGet();
+                throw new CannotAcquireLockException("locked");
+            }));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        assertEquals(1, calls.get());
+        assertEquals(1, meterRegistry.get("wallet.mutation.failures").tag("reason", "nested").counter().count());
+    }
+
+    @Test
+    void execute_shouldNotRetryOtherExceptions() {
+        var executor = new ConflictRetryExecutor(meterRegistry, 5, 1, 5, 0.2, 10);
+        var calls = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> executor.execute(OPERATION, () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException();
+        }));
+
+        assertEquals(1, calls.get());
+        assertEquals(1, count("wallet.mutation.calls"));
+    }
+
+    private double count(String name) {
+        var counter = meterRegistry.find(name).tag("operation", OPERATION).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -0,0 +1,162 @@
+package com.github.yozdemir.concurrency;
+
+import com.github.yozdemir.config.MessageSourceConfig;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class WalletLockManagerTest {
+
+    private static final int WALLETS = 16;
+    private static final long INITIAL_BALANCE = 1_000_000L;
+
+    @Mock
+    private MessageSourceConfig messageConfig;
+
+    @Test
+    void constructor_shouldRoundStripeCountUpToPowerOfTwo() {
+        assertEquals(16, new WalletLockManager(messageConfig, 10, 100, ConcurrencyMode.PESSIMISTIC).getStripeCount());
+        assertEquals(1, new WalletLockManager(messageConfig, 1, 100, ConcurrencyMode.PESSIMISTIC).getStripeCount());
+        assertThrows(IllegalArgumentException.class, () -> new WalletLockManager(messageConfig, 0, 100, ConcurrencyMode.PESSIMISTIC));
+    }
+
+    @Test
+    void lockForTransaction_shouldThrowExceptionWithoutActiveTransaction() {
+        var lockManager = new WalletLockManager(messageConfig, 64, 100, ConcurrencyMode.PESSIMISTIC);
+
+        assertThrows(IllegalStateException.class, () -> lockManager.lockForTransaction(1L));
+    }
+
+    @Test
+    void lockForTransaction_shouldNotLockInOptimisticMode() throws Exception {
+        var lockManager = new WalletLockManager(messageConfig, 64, 50, ConcurrencyMode.OPTIMISTIC);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            lockManager.lockForTransaction(1L);
+
+            assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+            // the wallet is still free for another thread
+            var executor = Executors.newSingleThreadExecutor();
+            try {
+                executor.submit(() -> lockManager.lock(1L).close()).get(5, TimeUnit.SECONDS);
+            } finally {
+                executor.shutdownNow();
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void lock_shouldThrowExceptionWhenWalletIsLockedByAnotherThread() throws Exception {
+        var lockManager = new WalletLockManager(messageConfig, 64, 50, ConcurrencyMode.PESSIMISTIC);
+        var locked = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> holder = executor.submit(() -> {
+                try (var locks = lockManager.lock(1L)) {
+                    locked.countDown();
+                    release.await();
+                }
+                return null;
+            });
+            assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+            assertThrows(CannotAcquireLockException.class, () -> lockManager.lock(2L, 1L));
+
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+            // every stripe taken by the failed attempt must have been released again
+            try (var locks = lockManager.lock(2L)) {
+                assertNotNull(locks);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Threads transfer random amounts between a small set of wallets (so both directions of the same pair
+     * run concurrently) using an unsynchronized read-modify-write on the balances. Any lost update or
+     * deadlock fails the test.
+     */
+    @Test
+    void lock_shouldNotLoseUpdatesUnderConcurrentTransfers() {
+        transferConcurrently(8, 500);
+    }
+
+    /**
+     * Throughput benchmark: the same transfers on 64 threads, run by the benchmark profile only.
+     */
+    @Test
+    @Tag("benchmark")
+    void lock_shouldNotLoseUpdatesUnderManyConcurrentTransfers() {
+        transferConcurrently(64, 5_000);
+    }
+
+    private void transferConcurrently(int threads, int transfersPerThread) {
+        var lockManager = new WalletLockManager(messageConfig, 8, 5_000, ConcurrencyMode.PESSIMISTIC);
+        var balances = new long[WALLETS];
+        var expected = new AtomicLong[WALLETS];
+        for (int i = 0; i < WALLETS; i++) {
+            balances[i] = INITIAL_BALANCE;
+            expected[i] = new AtomicLong(INITIAL_BALANCE);
+        }
+
+        assertTimeoutPreemptively(Duration.ofSeconds(60), () -> {
+            var executor = Executors.newFixedThreadPool(threads);
+            var start = new CountDownLatch(1);
+            try {
+                var futures = LongStream.range(0, threads).mapToObj(t -> executor.submit(() -> {
+                    start.await();
+                    var random = ThreadLocalRandom.current();
+                    for (int i = 0; i < transfersPerThread; i++) {
+                        int from = random.nextInt(WALLETS);
+                        int to = (from + 1 + random.nextInt(WALLETS - 1)) % WALLETS;
+                        long amount = 1 + random.nextInt(100);
+                        try (var locks = lockManager.lock((long) from, (long) to)) {
+                            long fromBalance = balances[from];
+                            long toBalance = balances[to];
+                            Thread.onSpinWait();
+                            balances[from] = fromBalance - amount;
+                            balances[to] = toBalance + amount;
+                        }
+                        expected[from].addAndGet(-amount);
+                        expected[to].addAndGet(amount);
+                    }
+                    return null;
+                })).toList();
+
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        });
+
+        for (int i = 0; i < WALLETS; i++) {
+            assertEquals(expected[i].get(), balances[i], "balance of wallet " + i);
+        }
+        assertEquals(WALLETS * INITIAL_BALANCE, LongStream.of(balances).sum());
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.yozdemir.concurrency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WalletPartitionedExecutorTest {
+
+    private WalletPartitionedExecutor walletExecutor;
+
+    @BeforeEach
+    void setUp() {
+        walletExecutor = new WalletPartitionedExecutor(4, 10, 1000);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        walletExecutor.shutdown();
+    }
+
+    @Test
+    void executeAndWait_shouldRunOnWorkerOfWallet() {
+        var owner = walletExecutor.executeAndWait(1L, () -> walletExecutor.isWorkerOf(1L));
+        var other = walletExecutor.executeAndWait(1L, () -> walletExecutor.isWorkerOf(2L));
+        // a nested call of the same partition runs on the worker instead of waiting for itself
+        var nested = walletExecutor.executeAndWait(1L, () -> walletExecutor.executeAndWait(5L, Thread.currentThread()::getName));
+
+        assertTrue(owner);
+        assertFalse(other);
+        assertTrue(nested.startsWith("wallet-worker-1"));
+        assertFalse(walletExecutor.isWorkerOf(1L));
+    }
+
+    @Test
+    void executeAndWait_shouldRethrowExceptionOfTask() {
+        assertThrows(IllegalStateException.class, () -> walletExecutor.executeAndWait(1L, () -> {
+            throw new IllegalStateException("failed");
+        }));
+    }
+}
@@ -0,0 +1,123 @@
+package com.github.yozdemir.domain.value;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    private static final int AMOUNTS = 1_024;
+    private static final BigDecimal DECIMAL_FEE = new BigDecimal("1.2500");
+    private static final Money FEE = Money.of(DECIMAL_FEE);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new SimpleModule()
+            .addSerializer(Money.class, new MoneySerializer())
+            .addDeserializer(Money.class, new MoneyDeserializer()));
+
+    @Test
+    void of_shouldKeepAmountAsMinorUnits() {
+        var money = Money.of(new BigDecimal("12.345"));
+
+        assertEquals(123450L, money.getUnits());
+        assertEquals(new BigDecimal("12.3450"), money.toBigDecimal());
+        assertEquals(Money.parse("12.3450"), money);
+    }
+
+    @Test
+    void of_shouldThrowExceptionWhenAmountHasMoreFractionDigits() {
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("0.00001")));
+    }
+
+    @Test
+    void hasScaleOf_shouldCheckMinorUnitsOfCurrency() {
+        assertEquals(2, Money.scaleOf("TRY"));
+        assertEquals(0, Money.scaleOf("JPY"));
+        assertEquals(3, Money.scaleOf("BHD"));
+        assertEquals(Money.SCALE, Money.scaleOf("XAU"));
+        assertTrue(Money.parse("12.34").hasScaleOf("TRY"));
+        assertFalse(Money.parse("12.345").hasScaleOf("TRY"));
+        assertTrue(Money.parse("12.345").hasScaleOf("BHD"));
+        assertFalse(Money.parse("12.5").hasScaleOf("JPY"));
+        assertThrows(IllegalArgumentException.class, () -> Money.scaleOf("ABC"));
+    }
+
+    @Test
+    void add_shouldThrowExceptionOnOverflow() {
+        var max = Money.ofUnits(Long.MAX_VALUE);
+
+        assertThrows(ArithmeticException.class, () -> max.add(Money.ofUnits(1L)));
+        assertThrows(ArithmeticException.class, () -> Money.ofUnits(Long.MIN_VALUE).negate());
+    }
+
+    @Test
+    void arithmetic_shouldReturnExpectedAmounts() {
+        var amount = Money.parse("100.25");
+
+        assertEquals(Money.parse("150.75"), amount.add(Money.parse("50.5")));
+        assertEquals(Money.parse("-0.75"), amount.subtract(Money.of(101)));
+        assertTrue(amount.isLessThan(Money.of(1000)));
+        assertEquals(-1, amount.negate().signum());
+        assertSame(Money.ZERO, amount.subtract(amount));
+    }
+
+    @Test
+    void json_shouldWriteNumberAndReadNumberOrString() throws Exception {
+        assertEquals("1250.5000", objectMapper.writeValueAsString(Money.parse("1250.5")));
+        assertEquals(Money.parse("1250.5"), objectMapper.readValue("1250.5", Money.class));
+        assertEquals(Money.of(200), objectMapper.readValue("\"200\"", Money.class));
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("0.00001", Money.class));
+    }
+
+    /**
+     * The same balance updates (add of an amount, compare and subtract of a fee) applied with BigDecimal,
+     * with Money and with the units of Money summed as longs must end with the same balance. Their costs
+     * are measured by MoneyBenchmark of the jmh profile.
+     */
+    @Test
+    void arithmetic_shouldMatchBigDecimal() {
+        final BigDecimal[] decimals = new BigDecimal[AMOUNTS];
+        final Money[] amounts = new Money[AMOUNTS];
+        for (int i = 0; i < AMOUNTS; i++) {
+            decimals[i] = BigDecimal.valueOf(i * 7919L % 100_000L, 2).setScale(Money.SCALE);
+            amounts[i] = Money.of(decimals[i]);
+        }
+
+        assertEquals(Money.of(applyDecimals(decimals)), applyAmounts(amounts));
+        assertEquals(applyAmounts(amounts).getUnits(), applyUnits(amounts));
+    }
+
+    private static BigDecimal applyDecimals(BigDecimal[] amounts) {
+        BigDecimal balance = BigDecimal.ZERO.setScale(Money.SCALE);
+        for (BigDecimal amount : amounts) {
+            balance = balance.add(amount);
+            if (balance.compareTo(DECIMAL_FEE) > 0)
+                balance = balance.subtract(DECIMAL_FEE);
+        }
+        return balance;
+    }
+
+    private static Money applyAmounts(Money[] amounts) {
+        Money balance = Money.ZERO;
+        for (Money amount : amounts) {
+            balance = balance.add(amount);
+            if (FEE.isLessThan(balance))
+                balance = balance.subtract(FEE);
+        }
+        return balance;
+    }
+
+    private static long applyUnits(Money[] amounts) {
+        long balance = 0L;
+        for (Money amount : amounts) {
+            balance = Math.addExact(balance, amount.getUnits());
+            if (FEE.getUnits() < balance)
+                balance = Math.subtractExact(balance, FEE.getUnits());
+        }
+        return balance;
+    }
+}
@@ -0,0 +1,46 @@
+package com.github.yozdemir.repository;
+
+import com.github.yozdemir.domain.entity.RefreshToken;
+import com.github.yozdemir.domain.entity.Users;
+import com.github.yozdemir.security.TokenDigests;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+class RefreshTokenRepositoryTest {
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private String tokenHash;
+
+    @BeforeEach
+    void setUp() {
+        tokenHash = TokenDigests.sha256(TokenDigests.generate());
+        var refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(tokenHash);
+        refreshToken.setUser(entityManager.find(Users.class, 1L));
+        refreshToken.setCreatedAt(Instant.EPOCH);
+        refreshToken.setExpiresAt(Instant.EPOCH.plusSeconds(60));
+        entityManager.persistAndFlush(refreshToken);
+    }
+
+    @Test
+    void deleteByTokenHashAndUserId_shouldNotDeleteTokenOfAnotherUser() {
+        assertEquals(0, refreshTokenRepository.deleteByTokenHashAndUserId(tokenHash, 2L));
+        assertTrue(refreshTokenRepository.findByTokenHash(tokenHash).isPresent());
+
+        assertEquals(1, refreshTokenRepository.deleteByTokenHashAndUserId(tokenHash, 1L));
+        assertTrue(refreshTokenRepository.findByTokenHash(tokenHash).isEmpty());
+    }
+}
@@ -0,0 +1,128 @@
+package com.github.yozdemir.repository;
+
+import com.github.yozdemir.domain.entity.Transaction;
+import com.github.yozdemir.domain.entity.TransactionArchive;
+import com.github.yozdemir.domain.entity.Type;
+import com.github.yozdemir.domain.entity.Wallet;
+import com.github.yozdemir.domain.enums.Operation;
+import com.github.yozdemir.domain.enums.Status;
+import com.github.yozdemir.domain.value.Money;
+import com.github.yozdemir.dto.mapper.TransactionViewMapper;
+import com.github.yozdemir.dto.mapper.TransactionViewMapperImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+class TransactionArchiveRepositoryTest {
+
+    private static final Instant ARCHIVED_AT = Instant.parse("2023-06-01T00:00:00Z");
+
+    private final TransactionViewMapper transactionViewMapper = new TransactionViewMapperImpl();
+
+    @Autowired
+    private TransactionArchiveRepository transactionArchiveRepository;
+
+    @Autowired
+    private TransactionViewRepository transactionViewRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Transaction transaction;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new Transaction();
+        transaction.setAmount(Money.of(10));
+        transaction.setCreatedAt(Instant.EPOCH.plusSeconds(100));
+        transaction.setDecidedAt(Instant.EPOCH.plusSeconds(150));
+        transaction.setReferenceNumber(UUID.randomUUID());
+        transaction.setStatus(Status.APPROVED);
+        transaction.setFromWallet(entityManager.find(Wallet.class, 1L));
+        transaction.setToWallet(entityManager.find(Wallet.class, 3L));
+        transaction.setType(entityManager.find(Type.class, 1L));
+        transaction.setOperation(Operation.TRANSFER);
+        entityManager.persist(transaction);
+        transactionViewRepository.save(transactionViewMapper.toTransactionView(transaction,
+                transactionViewMapper.toTransactionWalletResponse(transaction.getFromWallet()),
+                transactionViewMapper.toTransactionWalletResponse(transaction.getToWallet()),
+                transaction.getType().getName()));
+        entityManager.flush();
+
+        // moved the same way as the archive service does
+        transactionArchiveRepository.insertFromTransactionViews(List.of(transaction.getId()), ARCHIVED_AT);
+        transactionViewRepository.deleteAllByIdInBatch(List.of(transaction.getId()));
+        transactionRepository.deleteAllByIdInBatch(List.of(transaction.getId()));
+        entityManager.clear();
+    }
+
+    @Test
+    void insertFromTransactionViews_shouldCopyRowsOfReadModel() {
+        var archived = transactionArchiveRepository.findByReferenceNumber(transaction.getReferenceNumber()).orElseThrow();
+
+        assertEquals(transaction.getId(), archived.getId());
+        assertEquals(Money.of(10), archived.getAmount());
+        assertEquals(transaction.getFromWallet().getIban(), archived.getFromWalletIban());
+        assertEquals(transaction.getToWallet().getUser().getId(), archived.getToUserId());
+        assertEquals(Instant.EPOCH.plusSeconds(150), archived.getDecidedAt());
+        assertEquals(ARCHIVED_AT, archived.getArchivedAt());
+        assertTrue(transactionViewRepository.findById(transaction.getId()).isEmpty());
+        assertTrue(transactionRepository.findById(transaction.getId()).isEmpty());
+    }
+
+    @Test
+    void findLatestByFromUserId_shouldReadArchivedTransactionsOfUser() {
+        var userId = transaction.getFromWallet().getUser().getId();
+
+        var page = transactionArchiveRepository.findLatestByFromUserId(userId, PageRequest.ofSize(10));
+
+        assertEquals(List.of(transaction.getId()), page.stream().map(TransactionArchive::getId).toList());
+    }
+
+    @Test
+    void streamAllByUserId_shouldReadSentAndReceivedArchivedTransactionsOfUser() {
+        var fromUserId = transaction.getFromWallet().getUser().getId();
+        var toUserId = transaction.getToWallet().getUser().getId();
+
+        try (var sent = transactionArchiveRepository.streamAllByUserId(fromUserId);
+             var received = transactionArchiveRepository.streamAllByUserId(toUserId)) {
+            assertEquals(List.of(transaction.getId()), sent.map(TransactionArchive::getId).toList());
+            assertEquals(List.of(transaction.getId()), received.map(TransactionArchive::getId).toList());
+        }
+    }
+
+    @Test
+    void updateWallet_shouldUpdateOwnerOfArchivedTransactions() {
+        transactionArchiveRepository.updateWallet(1L, "TR990000000000000000000001", "Renamed", 2L);
+        entityManager.clear();
+
+        var archived = transactionArchiveRepository.findById(transaction.getId()).orElseThrow();
+        assertEquals("TR990000000000000000000001", archived.getFromWalletIban());
+        assertEquals("Renamed", archived.getFromWalletName());
+        assertEquals(2L, archived.getFromUserId());
+        assertEquals(transaction.getToWallet().getIban(), archived.getToWalletIban());
+    }
+
+    @Test
+    void sumBalanceChanges_shouldIncludeArchivedTransactions() {
+        var from = Instant.EPOCH;
+        var to = Instant.EPOCH.plusSeconds(200);
+
+        assertEquals(Map.of(1L, Money.of(-10), 3L, Money.of(10)), transactionRepository.sumBalanceChanges(from, to));
+        assertEquals(Money.of(-10), transactionRepository.sumBalanceChanges(1L, from, to));
+    }
+}
@@ -0,0 +1,123 @@
+package com.github.yozdemir.repository;
+
+import com.github.yozdemir.domain.entity.Transaction;
+import com.github.yozdemir.domain.entity.Type;
+import com.github.yozdemir.domain.entity.Wallet;
+import com.github.yozdemir.domain.enums.Operation;
+import com.github.yozdemir.domain.enums.Status;
+import com.github.yozdemir.domain.value.Money;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class TransactionInsertBenchmarkTest {
+
+    private static final int TRANSACTIONS = 2_000;
+    private static final int BLOCK_SIZE = 50;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+    private Wallet fromWallet;
+    private Wallet toWallet;
+    private Type type;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        fromWallet = entityManager.find(Wallet.class, 1L);
+        toWallet = entityManager.find(Wallet.class, 2L);
+        type = entityManager.find(Type.class, 1L);
+    }
+
+    /**
+     * The pooled inserts take a sequence call per block of 50 and an insert batch per block, and get unique ids.
+     */
+    @Test
+    void persist_shouldAllocateIdsInBlocksAndBatchInserts() {
+        final int transactions = 4 * BLOCK_SIZE;
+
+        statistics.clear();
+        final Set<Long> ids = insertPooled(transactions);
+
+        assertEquals(transactions, ids.size());
+        assertTrue(statistics.getPrepareStatementCount() <= 2L * (transactions / BLOCK_SIZE + 1));
+    }
+
+    /**
+     * Throughput benchmark: the same transactions are inserted once the way single id allocation did it
+     * (a sequence call and a flushed insert per row) and once with the pooled ids (a sequence call per block
+     * of 50 and JDBC batched inserts). Statements and throughput are logged.
+     */
+    @Test
+    @Tag("benchmark")
+    void persist_shouldInsertFasterWithPooledIds() {
+        statistics.clear();
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            entityManager.getEntityManager().createNativeQuery("SELECT NEXT VALUE FOR transaction_seq").getSingleResult();
+            final Transaction transaction = createTestTransaction(fromWallet, toWallet, type);
+            entityManager.persist(transaction);
+            entityManager.flush();
+            // the flushed row is detached, so the next flushes do not check it again
+            entityManager.detach(transaction);
+        }
+        final long singleNanos = System.nanoTime() - startedAt;
+        final long singleStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        startedAt = System.nanoTime();
+        final Set<Long> ids = insertPooled(TRANSACTIONS);
+        final long pooledNanos = System.nanoTime() - startedAt;
+        final long pooledStatements = statistics.getPrepareStatementCount();
+
+        log.info("{} inserts: single ids {} statements in {} ms, pooled ids {} statements in {} ms", TRANSACTIONS,
+                singleStatements, singleNanos / 1_000_000, pooledStatements, pooledNanos / 1_000_000);
+        assertEquals(TRANSACTIONS, ids.size());
+        assertTrue(pooledStatements * 10 < singleStatements);
+    }
+
+    private Set<Long> insertPooled(int transactions) {
+        final Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < transactions; i++) {
+            final Transaction transaction = createTestTransaction(fromWallet, toWallet, type);
+            entityManager.persist(transaction);
+            ids.add(transaction.getId());
+        }
+        entityManager.flush();
+        return ids;
+    }
+
+    private Transaction createTestTransaction(Wallet fromWallet, Wallet toWallet, Type type) {
+        var transaction = new Transaction();
+        transaction.setAmount(Money.of(10));
+        transaction.setCreatedAt(Instant.EPOCH);
+        transaction.setReferenceNumber(UUID.randomUUID());
+        transaction.setStatus(Status.APPROVED);
+        transaction.setFromWallet(fromWallet);
+        transaction.setToWallet(toWallet);
+        transaction.setType(type);
+        transaction.setOperation(Operation.DEPOSIT);
+        return transaction;
+    }
+}
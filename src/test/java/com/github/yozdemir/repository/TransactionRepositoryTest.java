@@ -0,0 +1,76 @@
+package com.github.yozdemir.repository;
+
+import com.github.yozdemir.domain.entity.Transaction;
+import com.github.yozdemir.domain.entity.Type;
+import com.github.yozdemir.domain.entity.Wallet;
+import com.github.yozdemir.domain.enums.Operation;
+import com.github.yozdemir.domain.enums.Status;
+import com.github.yozdemir.domain.value.Money;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+class TransactionRepositoryTest {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void sumBalanceChanges_shouldSumApprovedTransactionsOfPeriodByDirection() {
+        var transfer = createTestTransaction(1L, 2L, 100);
+        transfer.setOperation(Operation.TRANSFER);
+        var withdrawal = createTestTransaction(2L, 3L, 101);
+        withdrawal.setOperation(Operation.WITHDRAWAL);
+        var pending = createTestTransaction(3L, 1L, 102);
+        pending.setStatus(Status.PENDING);
+        entityManager.persist(transfer);
+        entityManager.persist(withdrawal);
+        entityManager.persist(pending);
+        entityManager.flush();
+        var from = Instant.EPOCH.plusSeconds(100);
+        var to = Instant.EPOCH.plusSeconds(103);
+
+        var changes = transactionRepository.sumBalanceChanges(from, to);
+
+        assertEquals(Map.of(1L, Money.of(-10), 2L, Money.ZERO), changes);
+        assertEquals(Money.of(-10), transactionRepository.sumBalanceChanges(1L, from, to));
+        assertEquals(Money.ZERO, transactionRepository.sumBalanceChanges(3L, from, to));
+    }
+
+    @Test
+    void sumBalanceChanges_shouldSumApprovedTransactionsByDecisionTime() {
+        var approvedLater = createTestTransaction(1L, 2L, 100);
+        approvedLater.setDecidedAt(Instant.EPOCH.plusSeconds(200));
+        entityManager.persist(approvedLater);
+        entityManager.flush();
+
+        assertEquals(Money.ZERO, transactionRepository.sumBalanceChanges(2L, Instant.EPOCH, Instant.EPOCH.plusSeconds(200)));
+        assertEquals(Money.of(10), transactionRepository.sumBalanceChanges(2L, Instant.EPOCH.plusSeconds(200),
+                Instant.EPOCH.plusSeconds(201)));
+    }
+
+    private Transaction createTestTransaction(long fromWalletId, long toWalletId, long second) {
+        var transaction = new Transaction();
+        transaction.setAmount(Money.of(10));
+        transaction.setCreatedAt(Instant.EPOCH.plusSeconds(second));
+        transaction.setDecidedAt(transaction.getCreatedAt());
+        transaction.setReferenceNumber(UUID.randomUUID());
+        transaction.setStatus(Status.APPROVED);
+        transaction.setFromWallet(entityManager.find(Wallet.class, fromWalletId));
+        transaction.setToWallet(entityManager.find(Wallet.class, toWalletId));
+        transaction.setType(entityManager.find(Type.class, 1L));
+        transaction.setOperation(Operation.DEPOSIT);
+        return transaction;
+    }
+}
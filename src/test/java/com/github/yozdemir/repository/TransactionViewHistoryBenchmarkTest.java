@@ -0,0 +1,125 @@
+package com.github.yozdemir.repository;
+
+import com.github.yozdemir.domain.entity.TransactionView;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// the rows are committed to the private database of the context of each test, which is closed after it
+@Slf4j
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class TransactionViewHistoryBenchmarkTest {
+
+    private static final int USERS = 1_000;
+    private static final int PAGE_SIZE = 21;
+    private static final int RUNS = 50;
+    private static final long USER_ID = 42L;
+
+    private static final String JOINED_QUERY = "SELECT id FROM transaction_view WHERE from_user_id = ? OR to_user_id = ? " +
+            "ORDER BY created_at DESC, id DESC LIMIT " + PAGE_SIZE;
+    private static final String SENT_QUERY = "SELECT id FROM transaction_view WHERE from_user_id = ? " +
+            "ORDER BY from_user_id DESC, created_at DESC, id DESC LIMIT " + PAGE_SIZE;
+
+    @Autowired
+    private TransactionViewRepository transactionViewRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * The latest page of the history of a user is read from 20k transactions with the single query matching
+     * both owner columns and with the per-direction lookups of the repository. Both must return the same page,
+     * and the lookups must be served by the owner indexes.
+     */
+    @Test
+    void findLatestByUserId_shouldReadPageFromOwnerIndexes() {
+        seed(20_000);
+
+        assertEquals(PAGE_SIZE, findJoinedIds().size());
+        assertEquals(findJoinedIds(), findLatestIds());
+        assertTrue(explain(SENT_QUERY).contains("TRANSACTION_VIEW_FROM_USER_LATEST_IDX"));
+    }
+
+    /**
+     * Latency benchmark: the same reads from 1M transactions. Plans and median latencies are logged.
+     */
+    @Test
+    @Tag("benchmark")
+    void findLatestByUserId_shouldReadPageFromOwnerIndexesOfManyTransactions() {
+        seed(1_000_000);
+
+        assertEquals(findJoinedIds(), findLatestIds());
+        log.info("single query {} ms, plan: {}", medianMillis(this::findJoinedIds), explain(JOINED_QUERY));
+        log.info("per-direction lookups {} ms, sent lookup plan: {}", medianMillis(this::findLatestIds), explain(SENT_QUERY));
+        assertTrue(explain(SENT_QUERY).contains("TRANSACTION_VIEW_FROM_USER_LATEST_IDX"));
+    }
+
+    // every user sends to and receives from other users, one transaction per second
+    private void seed(int transactions) {
+        // only the indexes of the history are kept, so the rows are loaded faster
+        Stream.of("transaction_view_from_wallet_latest_idx", "transaction_view_to_wallet_latest_idx",
+                        "transaction_view_created_at_idx", "transaction_view_amount_idx",
+                        "transaction_view_type_created_at_idx", "transaction_view_status_created_at_idx",
+                        "transaction_view_status_amount_idx")
+                .forEach(index -> jdbcTemplate.execute("DROP INDEX IF EXISTS " + index));
+        jdbcTemplate.update("INSERT INTO transaction_view (id, reference_number, amount, created_at, status, type_id, " +
+                "type_name, from_wallet_id, from_wallet_iban, from_wallet_name, from_user_id, " +
+                "to_wallet_id, to_wallet_iban, to_wallet_name, to_user_id) " +
+                "SELECT 1000000 + x, RANDOM_UUID(), 10, DATEADD('SECOND', x, TIMESTAMP '2020-01-01 00:00:00'), " +
+                "'APPROVED', 1, 'Deposit', MOD(x, ?) + 1, 'TR' || MOD(x, ?), 'Wallet', MOD(x, ?) + 1, " +
+                "MOD(x * 7, ?) + 1, 'TR' || MOD(x * 7, ?), 'Wallet', MOD(x * 7, ?) + 1 " +
+                "FROM SYSTEM_RANGE(1, ?)", USERS, USERS, USERS, USERS, USERS, USERS, transactions);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private List<Long> findJoinedIds() {
+        return jdbcTemplate.queryForList(JOINED_QUERY, Long.class, USER_ID, USER_ID);
+    }
+
+    private List<Long> findLatestIds() {
+        final PageRequest limit = PageRequest.ofSize(PAGE_SIZE);
+        return Stream.concat(transactionViewRepository.findLatestByFromUserId(USER_ID, limit).stream(),
+                        transactionViewRepository.findLatestByToUserId(USER_ID, limit).stream())
+                .sorted(Comparator.comparing(TransactionView::getCreatedAt).thenComparing(TransactionView::getId).reversed())
+                .map(TransactionView::getId)
+                .distinct()
+                .limit(PAGE_SIZE)
+                .toList();
+    }
+
+    private String explain(String query) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + query.replace("?", "" + USER_ID), String.class);
+    }
+
+    private static double medianMillis(Supplier<?> read) {
+        final long[] nanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            final long startedAt = System.nanoTime();
+            read.get();
+            nanos[i] = System.nanoTime() - startedAt;
+        }
+        Arrays.sort(nanos);
+        return nanos[RUNS / 2] / 1e6;
+    }
+}
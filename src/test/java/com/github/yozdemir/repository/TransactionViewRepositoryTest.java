@@ -0,0 +1,250 @@
+package com.github.yozdemir.repository;
+
+import com.github.yozdemir.domain.entity.Transaction;
+import com.github.yozdemir.domain.entity.TransactionView;
+import com.github.yozdemir.domain.entity.Type;
+import com.github.yozdemir.domain.entity.Wallet;
+import com.github.yozdemir.domain.enums.Operation;
+import com.github.yozdemir.domain.enums.Status;
+import com.github.yozdemir.domain.value.Money;
+import com.github.yozdemir.dto.mapper.TransactionResponseMapper;
+import com.github.yozdemir.dto.mapper.TransactionResponseMapperImpl;
+import com.github.yozdemir.dto.mapper.TransactionViewMapper;
+import com.github.yozdemir.dto.mapper.TransactionViewMapperImpl;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static com.github.yozdemir.repository.TransactionSpecifications.createdFrom;
+import static com.github.yozdemir.repository.TransactionSpecifications.isFromWallet;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class TransactionViewRepositoryTest {
+
+    @Autowired
+    private TransactionViewRepository transactionViewRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final TransactionResponseMapper transactionResponseMapper = new TransactionResponseMapperImpl();
+    private final TransactionViewMapper transactionViewMapper = new TransactionViewMapperImpl();
+
+    private Statistics statistics;
+    private Transaction transaction;
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        // transactions between the wallets of different users
+        ids = new ArrayList<>();
+        for (long i = 0; i < 20; i++) {
+            transaction = createTestTransaction(i % 10 + 1, (i + 3) % 10 + 1, i);
+            entityManager.persist(transaction);
+            transactionViewRepository.save(toView(transaction));
+            ids.add(transaction.getId());
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void save_shouldInsertNewRowWithoutReadingIt() {
+        var newTransaction = createTestTransaction(1L, 2L, 100);
+        entityManager.persist(newTransaction);
+        entityManager.flush();
+        var view = toView(newTransaction);
+
+        var statements = countStatements(() -> {
+            transactionViewRepository.save(view);
+            entityManager.flush();
+        });
+
+        assertEquals(1, statements);
+        assertTrue(transactionViewRepository.existsById(newTransaction.getId()));
+    }
+
+    @Test
+    void save_shouldKeepFieldsOfWalletsAndType() {
+        var view = transactionViewRepository.findByReferenceNumber(transaction.getReferenceNumber()).orElseThrow();
+
+        assertEquals(transaction.getId(), view.getId());
+        assertEquals(transaction.getAmount(), view.getAmount());
+        assertEquals(transaction.getFromWallet().getIban(), view.getFromWalletIban());
+        assertEquals(transaction.getFromWallet().getName(), view.getFromWalletName());
+        assertEquals(transaction.getFromWallet().getUser().getId(), view.getFromUserId());
+        assertEquals(transaction.getToWallet().getIban(), view.getToWalletIban());
+        assertEquals(transaction.getToWallet().getUser().getId(), view.getToUserId());
+        assertEquals(transaction.getType().getName(), view.getTypeName());
+    }
+
+    @Test
+    void findByReferenceNumber_shouldReadResponseInSingleStatement() {
+        var statements = countStatements(() -> {
+            var response = transactionViewRepository.findByReferenceNumber(transaction.getReferenceNumber())
+                    .map(transactionResponseMapper::toTransactionResponse)
+                    .orElseThrow();
+            assertEquals(transaction.getFromWallet().getIban(), response.getFromWallet().getIban());
+            assertEquals(transaction.getToWallet().getUser().getId(), response.getToWallet().getUserId());
+        });
+
+        assertEquals(1, statements);
+    }
+
+    @Test
+    void findLatestByFromUserId_shouldReadPageOfSentTransactionsOfAllWalletsOfUser() {
+        var userId = entityManager.find(Wallet.class, 1L).getUser().getId();
+
+        var statements = countStatements(() -> {
+            var page = transactionViewRepository.findLatestByFromUserId(userId, PageRequest.ofSize(5));
+            assertEquals(5, page.size());
+            assertTrue(page.stream().allMatch(view -> userId.equals(view.getFromUserId())));
+            assertEquals(page.stream().map(TransactionView::getCreatedAt).sorted(Comparator.reverseOrder()).toList(),
+                    page.stream().map(TransactionView::getCreatedAt).toList());
+            page.forEach(transactionResponseMapper::toTransactionResponse);
+        });
+
+        assertEquals(1, statements);
+    }
+
+    @Test
+    void findLatestByToUserId_shouldReadPageWithSameNumberOfStatementsForAnyPageSize() {
+        var userId = entityManager.find(Wallet.class, 1L).getUser().getId();
+
+        var smallPage = countStatements(() -> transactionViewRepository.findLatestByToUserId(userId, PageRequest.ofSize(1))
+                .forEach(transactionResponseMapper::toTransactionResponse));
+        var largePage = countStatements(() -> transactionViewRepository.findLatestByToUserId(userId, PageRequest.ofSize(10))
+                .forEach(transactionResponseMapper::toTransactionResponse));
+
+        assertEquals(1, smallPage);
+        assertEquals(smallPage, largePage);
+    }
+
+    @Test
+    void findAll_shouldReadPageWithSameNumberOfStatementsForAnyPageSize() {
+        var smallPage = countStatements(() -> transactionViewRepository.findAll(PageRequest.of(0, 2))
+                .map(transactionResponseMapper::toTransactionResponse));
+        var largePage = countStatements(() -> transactionViewRepository.findAll(PageRequest.of(0, 15))
+                .map(transactionResponseMapper::toTransactionResponse));
+
+        // page and count
+        assertEquals(2, smallPage);
+        assertEquals(smallPage, largePage);
+    }
+
+    @Test
+    void streamAllByUserId_shouldReadEachTransactionOfUserOnceInIdOrder() {
+        var userId = entityManager.find(Wallet.class, 1L).getUser().getId();
+        var expected = transactionViewRepository.findAllById(ids).stream()
+                .filter(view -> userId.equals(view.getFromUserId()) || userId.equals(view.getToUserId()))
+                .map(TransactionView::getId)
+                .sorted()
+                .toList();
+
+        try (var stream = transactionViewRepository.streamAllByUserId(userId)) {
+            assertEquals(expected, stream.map(TransactionView::getId).toList());
+        }
+    }
+
+    @Test
+    void findSlice_shouldReadSliceInSortOrderWithoutCountingMatchingTransactions() {
+        var specification = isFromWallet(1L).and(createdFrom(Instant.EPOCH));
+        var pageable = PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+
+        var statements = countStatements(() -> {
+            var slice = transactionViewRepository.findSlice(specification, pageable);
+            assertTrue(slice.hasNext());
+            assertEquals(Instant.EPOCH.plusSeconds(10), slice.getContent().get(0).getCreatedAt());
+            slice.map(transactionResponseMapper::toTransactionResponse);
+        });
+
+        assertEquals(1, statements);
+    }
+
+    @Test
+    void searchIndexes_shouldBeOnReadModelOnly() {
+        // the search indexes of the transactions (V15) are replaced by the ones of the read model (V16)
+        var transactionIndexes = jdbcTemplate.queryForList("SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES " +
+                "WHERE TABLE_NAME = 'TRANSACTION'", String.class);
+        var plan = jdbcTemplate.queryForObject("EXPLAIN SELECT * FROM transaction_view WHERE type_id = 1 " +
+                "ORDER BY created_at DESC, id DESC LIMIT 20", String.class);
+
+        assertFalse(transactionIndexes.contains("TRANSACTION_TYPE_CREATED_AT_IDX"));
+        assertFalse(transactionIndexes.contains("TRANSACTION_AMOUNT_IDX"));
+        assertTrue(plan.contains("TRANSACTION_VIEW_TYPE_CREATED_AT_IDX"), plan);
+    }
+
+    @Test
+    void updateStatus_shouldUpdateStatusOfGivenTransactions() {
+        transactionViewRepository.updateStatus(List.of(transaction.getId()), Status.DENIED);
+        entityManager.clear();
+
+        assertEquals(Status.DENIED, transactionViewRepository.findById(transaction.getId()).orElseThrow().getStatus());
+        assertEquals(Status.APPROVED, transactionViewRepository.findById(ids.get(0)).orElseThrow().getStatus());
+    }
+
+    @Test
+    void updateWallet_shouldUpdateSentAndReceivedTransactionsOfWallet() {
+        transactionViewRepository.updateWallet(1L, "TR990000000000000000000001", "Renamed", 2L);
+        entityManager.clear();
+
+        var rows = transactionViewRepository.findAllById(ids).stream()
+                .filter(view -> view.getFromWalletId() == 1L || view.getToWalletId() == 1L)
+                .toList();
+        assertFalse(rows.isEmpty());
+        rows.forEach(view -> {
+            var sent = view.getFromWalletId() == 1L;
+            assertEquals("TR990000000000000000000001", sent ? view.getFromWalletIban() : view.getToWalletIban());
+            assertEquals("Renamed", sent ? view.getFromWalletName() : view.getToWalletName());
+            assertEquals(2L, sent ? view.getFromUserId() : view.getToUserId());
+        });
+    }
+
+    private TransactionView toView(Transaction transaction) {
+        return transactionViewMapper.toTransactionView(transaction,
+                transactionViewMapper.toTransactionWalletResponse(transaction.getFromWallet()),
+                transactionViewMapper.toTransactionWalletResponse(transaction.getToWallet()),
+                transaction.getType().getName());
+    }
+
+    private long countStatements(Runnable read) {
+        entityManager.clear();
+        statistics.clear();
+        read.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Transaction createTestTransaction(long fromWalletId, long toWalletId, long second) {
+        var transaction = new Transaction();
+        transaction.setAmount(Money.of(10));
+        transaction.setCreatedAt(Instant.EPOCH.plusSeconds(second));
+        transaction.setReferenceNumber(UUID.randomUUID());
+        transaction.setStatus(Status.APPROVED);
+        transaction.setFromWallet(entityManager.find(Wallet.class, fromWalletId));
+        transaction.setToWallet(entityManager.find(Wallet.class, toWalletId));
+        transaction.setType(entityManager.find(Type.class, 1L));
+        transaction.setOperation(Operation.DEPOSIT);
+        return transaction;
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.yozdemir.repository;
+
+import com.github.yozdemir.dto.mapper.WalletResponseMapper;
+import com.github.yozdemir.dto.mapper.UserResponseMapperImpl;
+import com.github.yozdemir.dto.mapper.WalletResponseMapperImpl;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class WalletRepositoryTest {
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final WalletResponseMapper walletResponseMapper = new WalletResponseMapperImpl();
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        ReflectionTestUtils.setField(walletResponseMapper, "userResponseMapper", new UserResponseMapperImpl());
+    }
+
+    @Test
+    void findAll_shouldReadPageWithSameNumberOfStatementsForAnyPageSize() {
+        var smallPage = countStatements(() -> walletRepository.findAll(PageRequest.of(0, 2))
+                .map(walletResponseMapper::toWalletResponse));
+        var largePage = countStatements(() -> walletRepository.findAll(PageRequest.of(0, 8))
+                .map(walletResponseMapper::toWalletResponse));
+
+        // page, count and roles of the users
+        assertEquals(3, smallPage);
+        assertEquals(smallPage, largePage);
+    }
+
+    @Test
+    void findByUserId_shouldFetchUserOfWallets() {
+        var statements = countStatements(() -> walletRepository.findByUserId(1L)
+                .forEach(walletResponseMapper::toWalletResponse));
+
+        // wallets and roles of the user
+        assertEquals(2, statements);
+    }
+
+    private long countStatements(Runnable read) {
+        entityManager.clear();
+        statistics.clear();
+        read.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.yozdemir.security;
+
+import com.github.yozdemir.cache.VerifiedTokenCache;
+import com.github.yozdemir.config.MessageSourceConfig;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.impl.TextCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Clock;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtUtilsTest {
+
+    private static final String SECRET = "secret";
+
+    private JwtUtils jwtUtils;
+
+    @Mock
+    private MessageSourceConfig messageConfig;
+
+    private List<SimpleGrantedAuthority> authorities;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils(messageConfig,
+                new VerifiedTokenCache(new SimpleMeterRegistry(), Clock.systemUTC(), 100), SECRET, 60000);
+        authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN"));
+        var user = new UserDetailsImpl(1L, "testuser", "password", "Test", "User", "12345678901", authorities, true);
+        token = jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(user, null, authorities));
+    }
+
+    @Test
+    void verifyJwtToken_shouldBuildUserFromClaims() {
+        var verified = jwtUtils.verifyJwtToken(token);
+        var result = verified.userDetails();
+
+        assertEquals(1L, result.getId());
+        assertEquals("testuser", result.getUsername());
+        assertNull(result.getFirstName());
+        assertNull(result.getLastName());
+        assertNull(result.getTckn());
+        assertEquals(authorities, result.getAuthorities());
+        assertNull(result.getPassword());
+        assertTrue(result.isEnabled());
+        assertNotNull(verified.tokenId());
+        assertNotEquals(verified.tokenId(), jwtUtils.verifyJwtToken(jwtUtils.generateJwtToken(result)).tokenId());
+    }
+
+    @Test
+    void generateJwtToken_shouldNotCarryPersonalDetails() {
+        var claims = Jwts.parser().setSigningKey(TextCodec.BASE64.decode(SECRET)).parseClaimsJws(token).getBody();
+
+        assertEquals(Set.of(Claims.ID, Claims.SUBJECT, "id", "roles", Claims.ISSUED_AT, Claims.EXPIRATION),
+                claims.keySet());
+    }
+
+    @Test
+    void verifyJwtToken_shouldNotVerifyTokenAgainUntilItExpires() {
+        var first = jwtUtils.verifyJwtToken(token);
+        var second = jwtUtils.verifyJwtToken(token);
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void verifyJwtToken_shouldReturnNullWhenSignatureIsInvalid() {
+        var other = new JwtUtils(messageConfig,
+                new VerifiedTokenCache(new SimpleMeterRegistry(), Clock.systemUTC(), 100), "other", 60000);
+
+        assertNull(other.verifyJwtToken(token));
+        assertNull(jwtUtils.verifyJwtToken(token + "x"));
+    }
+
+    @Test
+    void verifyJwtToken_shouldReturnNullWhenTokenIsExpired() {
+        var expired = new JwtUtils(messageConfig,
+                new VerifiedTokenCache(new SimpleMeterRegistry(), Clock.systemUTC(), 100), SECRET, -1000);
+        var user = new UserDetailsImpl(1L, "testuser", "password", "Test", "User", "12345678901", authorities, true);
+
+        assertNull(jwtUtils.verifyJwtToken(
+                expired.generateJwtToken(new UsernamePasswordAuthenticationToken(user, null, authorities))));
+    }
+
+    @Test
+    void verifyJwtToken_shouldReturnNullWhenTokenHasNoUserClaims() {
+        var token = Jwts.builder()
+                .setSubject("testuser")
+                .setExpiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(SignatureAlgorithm.HS512, SECRET)
+                .compact();
+
+        assertNull(jwtUtils.verifyJwtToken(token));
+    }
+}
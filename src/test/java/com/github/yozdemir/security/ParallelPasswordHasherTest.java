@@ -0,0 +1,51 @@
+package com.github.yozdemir.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelPasswordHasherTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ParallelPasswordHasher passwordHasher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        passwordHasher = new ParallelPasswordHasher(meterRegistry, 4, 2, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    void encodeAll_shouldHashPasswordsInOrder() {
+        var passwords = List.of("password1", "password2", "password3");
+
+        var hashes = passwordHasher.encodeAll(passwords);
+
+        var encoder = new BCryptPasswordEncoder(4);
+        assertEquals(passwords.size(), hashes.size());
+        for (int i = 0; i < passwords.size(); i++) {
+            assertTrue(encoder.matches(passwords.get(i), hashes.get(i)));
+        }
+        assertEquals(1, meterRegistry.get("auth.password.bulk").timer().count());
+    }
+
+    @Test
+    void parallelism_shouldLeaveProcessorsOfLoginThreads() {
+        assertEquals(4, ParallelPasswordHasher.parallelism(4, 8, 2));
+        assertEquals(2, ParallelPasswordHasher.parallelism(4, 4, 2));
+        assertEquals(1, ParallelPasswordHasher.parallelism(4, 2, 2));
+        assertEquals(1, ParallelPasswordHasher.parallelism(4, 1, 2));
+        assertTrue(passwordHasher.getParallelism() <= 2);
+    }
+}
@@ -0,0 +1,89 @@
+package com.github.yozdemir.security;
+
+import com.github.yozdemir.config.MessageSourceConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class PooledPasswordEncoderTest {
+
+    @Mock
+    private MessageSourceConfig messageConfig;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PooledPasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        passwordEncoder = new PooledPasswordEncoder(messageConfig, meterRegistry, 4, 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordEncoder.shutdown();
+    }
+
+    @Test
+    void matches_shouldVerifyPasswordOnPoolAndRecordMetrics() {
+        var encoded = passwordEncoder.encode("password");
+
+        assertTrue(passwordEncoder.matches("password", encoded));
+        assertFalse(passwordEncoder.matches("other", encoded));
+        assertEquals(1, meterRegistry.get("auth.password.hash").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("auth.password.hash").tag("operation", "matches").timer().count());
+        assertEquals(3, meterRegistry.get("auth.password.queue").timer().count());
+    }
+
+    @Test
+    void upgradeEncoding_shouldUpgradeHashesOfAnotherStrength() {
+        assertFalse(passwordEncoder.upgradeEncoding(passwordEncoder.encode("password")));
+        assertTrue(passwordEncoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("password")));
+        assertFalse(passwordEncoder.upgradeEncoding(""));
+        assertFalse(passwordEncoder.upgradeEncoding(null));
+    }
+
+    @Test
+    void encode_shouldRejectWhenQueueIsFull() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var running = CompletableFuture.runAsync(() -> passwordEncoder.execute("test", () -> {
+            started.countDown();
+            return await(release);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        var queued = CompletableFuture.runAsync(() -> passwordEncoder.execute("test", () -> true));
+        while (meterRegistry.get("auth.password.queue.size").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(RejectedExecutionException.class, () -> passwordEncoder.encode("password"));
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+        assertEquals(1, meterRegistry.get("auth.password.rejected").counter().count());
+    }
+
+    private boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
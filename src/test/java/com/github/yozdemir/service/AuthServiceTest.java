@@ -1,35 +1,63 @@
 package com.github.yozdemir.service;
 
 import com.github.yozdemir.config.MessageSourceConfig;
+import com.github.yozdemir.domain.entity.RefreshToken;
+import com.github.yozdemir.domain.entity.RevokedToken;
+import com.github.yozdemir.domain.entity.Role;
 import com.github.yozdemir.domain.entity.Users;
+import com.github.yozdemir.domain.enums.RoleType;
+import com.github.yozdemir.domain.enums.SignupStatus;
 import com.github.yozdemir.dto.mapper.SignupRequestMapper;
 import com.github.yozdemir.dto.request.LoginRequest;
+import com.github.yozdemir.dto.request.RefreshTokenRequest;
 import com.github.yozdemir.dto.request.SignupRequest;
 import com.github.yozdemir.exception.ElementAlreadyExistsException;
+import com.github.yozdemir.repository.RefreshTokenRepository;
+import com.github.yozdemir.repository.RevokedTokenRepository;
 import com.github.yozdemir.repository.UserRepository;
 import com.github.yozdemir.security.JwtUtils;
+import com.github.yozdemir.security.ParallelPasswordHasher;
+import com.github.yozdemir.security.RevokedTokenSet;
+import com.github.yozdemir.security.TokenDigests;
 import com.github.yozdemir.security.UserDetailsImpl;
+import com.github.yozdemir.security.VerifiedToken;
 import com.github.yozdemir.service.AuthService;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
+import static com.github.yozdemir.common.MessageKeys.ERROR_USERNAME_EXISTS;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class AuthServiceTest {
 
+    private static final Instant NOW = Instant.parse("2024-03-01T00:00:00Z");
+
     @InjectMocks
     private AuthService authService;
 
@@ -48,6 +76,24 @@ class AuthServiceTest {
     @Mock
     private MessageSourceConfig messageConfig;
 
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private RevokedTokenSet revokedTokenSet;
+
+    @Mock
+    private RoleService roleService;
+
+    @Mock
+    private ParallelPasswordHasher passwordHasher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     private LoginRequest loginRequest;
     private UserDetailsImpl userDetails;
     private Authentication authentication;
@@ -62,13 +108,22 @@ class AuthServiceTest {
                 "Test",
                 "User",
                 "12345678901",
-                Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")),
+                true
         );
         authentication = new UsernamePasswordAuthenticationToken(
                 userDetails,
                 null,
                 userDetails.getAuthorities()
         );
+        ReflectionTestUtils.setField(authService, "clock", Clock.fixed(NOW, ZoneOffset.UTC));
+        ReflectionTestUtils.setField(authService, "refreshExpirationMs", 60000L);
+        ReflectionTestUtils.setField(authService, "batchChunkSize", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
     }
 
     @Test
@@ -77,11 +132,18 @@ class AuthServiceTest {
                 .thenReturn(authentication);
         when(jwtUtils.generateJwtToken(authentication))
                 .thenReturn("test.jwt.token");
+        var user = new Users();
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
 
         var response = authService.login(loginRequest);
 
+        var captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
         assertNotNull(response);
         assertEquals("test.jwt.token", response.getToken());
+        assertEquals(TokenDigests.sha256(response.getRefreshToken()), captor.getValue().getTokenHash());
+        assertEquals(user, captor.getValue().getUser());
+        assertEquals(NOW.plusMillis(60000), captor.getValue().getExpiresAt());
         assertEquals(1L, response.getId());
         assertEquals("testuser", response.getUsername());
         assertEquals("Test", response.getFirstName());
@@ -92,6 +154,68 @@ class AuthServiceTest {
         verify(jwtUtils).generateJwtToken(authentication);
     }
 
+    @Test
+    void refresh_shouldReplaceRefreshTokenWithoutCheckingPassword() {
+        var user = new Users();
+        user.setId(1L);
+        user.setUsername("testuser");
+        var refreshToken = new RefreshToken();
+        refreshToken.setId(5L);
+        refreshToken.setUser(user);
+        refreshToken.setExpiresAt(NOW.plusSeconds(60));
+        when(refreshTokenRepository.findByTokenHash(TokenDigests.sha256("refresh"))).thenReturn(Optional.of(refreshToken));
+        when(refreshTokenRepository.deleteUsed(5L)).thenReturn(1);
+        when(jwtUtils.generateJwtToken(any(UserDetailsImpl.class))).thenReturn("test.jwt.token");
+
+        var response = authService.refresh(new RefreshTokenRequest("refresh"));
+
+        assertEquals("test.jwt.token", response.getToken());
+        assertNotEquals("refresh", response.getRefreshToken());
+        assertEquals("testuser", response.getUsername());
+        verify(refreshTokenRepository).save(any(RefreshToken.class));
+        verifyNoInteractions(authenticationManager);
+    }
+
+    @Test
+    void refresh_shouldThrowExceptionWhenTokenIsAlreadyUsed() {
+        var refreshToken = new RefreshToken();
+        refreshToken.setId(5L);
+        refreshToken.setExpiresAt(NOW.plusSeconds(60));
+        when(refreshTokenRepository.findByTokenHash(TokenDigests.sha256("refresh"))).thenReturn(Optional.of(refreshToken));
+        when(refreshTokenRepository.deleteUsed(5L)).thenReturn(0);
+
+        assertThrows(BadCredentialsException.class, () -> authService.refresh(new RefreshTokenRequest("refresh")));
+
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void refresh_shouldThrowExceptionWhenTokenIsExpired() {
+        var refreshToken = new RefreshToken();
+        refreshToken.setExpiresAt(NOW);
+        when(refreshTokenRepository.findByTokenHash(TokenDigests.sha256("refresh"))).thenReturn(Optional.of(refreshToken));
+
+        assertThrows(BadCredentialsException.class, () -> authService.refresh(new RefreshTokenRequest("refresh")));
+
+        verify(refreshTokenRepository, never()).deleteUsed(any());
+    }
+
+    @Test
+    void logout_shouldRevokeAccessTokenOfRequest() {
+        var token = new VerifiedToken("token-id", userDetails, NOW.plusSeconds(60));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userDetails, token, userDetails.getAuthorities()));
+        when(revokedTokenRepository.save(any(RevokedToken.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        authService.logout(1L, new RefreshTokenRequest("refresh"));
+
+        var captor = ArgumentCaptor.forClass(RevokedToken.class);
+        verify(revokedTokenSet).add(captor.capture());
+        assertEquals("token-id", captor.getValue().getTokenId());
+        assertEquals(NOW.plusSeconds(60), captor.getValue().getExpiresAt());
+        verify(refreshTokenRepository).deleteByTokenHashAndUserId(TokenDigests.sha256("refresh"), 1L);
+    }
+
     @Test
     void signup_shouldCreateNewUser() {
         var signupRequest = new SignupRequest(
@@ -170,4 +294,97 @@ class AuthServiceTest {
         verify(signupRequestMapper, never()).toUser(any());
         verify(userRepository, never()).save(any());
     }
+
+    @Test
+    void signupBatch_shouldCreateUsersAndRejectConflicts() {
+        var created = signupRequest("newuser", "new@example.com", "ROLE_USER");
+        var existingUsername = signupRequest("ExistingUser", "other@example.com", "ROLE_USER");
+        var duplicateEmail = signupRequest("another", "NEW@example.com", "ROLE_USER");
+        var invalidRole = signupRequest("thirduser", "third@example.com", "ROLE_UNKNOWN");
+        var role = new Role();
+        role.setType(RoleType.ROLE_USER);
+
+        when(userRepository.findUsernamesIn(List.of("newuser", "existinguser"))).thenReturn(List.of("existinguser"));
+        when(userRepository.findUsernamesIn(List.of("another", "thirduser"))).thenReturn(List.of());
+        when(userRepository.findEmailsIn(anyList())).thenReturn(List.of());
+        when(passwordHasher.encodeAll(List.of("password"))).thenReturn(List.of("hash"));
+        runInTransaction();
+        when(roleService.getReferenceByTypeIsIn(anySet())).thenReturn(List.of(role));
+        var user = new Users();
+        user.setId(5L);
+        when(signupRequestMapper.toUser(created, "hash", Set.of(role))).thenReturn(user);
+        when(userRepository.saveAllAndFlush(List.of(user))).thenReturn(List.of(user));
+
+        var results = authService.signupBatch(List.of(created, existingUsername, duplicateEmail, invalidRole));
+
+        assertEquals(4, results.size());
+        assertEquals(SignupStatus.CREATED, results.get(0).status());
+        assertEquals(5L, results.get(0).id());
+        for (int i = 1; i < results.size(); i++) {
+            assertEquals(i, results.get(i).index());
+            assertEquals(SignupStatus.REJECTED, results.get(i).status());
+            assertNull(results.get(i).id());
+        }
+        // the second chunk has no valid signup, so nothing is hashed or saved for it
+        verify(passwordHasher).encodeAll(anyList());
+        verify(userRepository).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    void signupBatch_shouldRetryChunkWithoutUserCreatedConcurrently() {
+        var first = signupRequest("firstuser", "first@example.com", "ROLE_USER");
+        var second = signupRequest("seconduser", "second@example.com", "ROLE_USER");
+        var role = new Role();
+        role.setType(RoleType.ROLE_USER);
+        var user = new Users();
+        user.setId(6L);
+
+        // the first user is created by another request between the lookup and the insert
+        when(userRepository.findUsernamesIn(List.of("firstuser", "seconduser")))
+                .thenReturn(List.of())
+                .thenReturn(List.of("firstuser"));
+        when(userRepository.findEmailsIn(anyList())).thenReturn(List.of());
+        when(passwordHasher.encodeAll(anyList())).thenReturn(List.of("hash1", "hash2"));
+        when(transactionTemplate.execute(any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate"))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        when(roleService.getReferenceByTypeIsIn(anySet())).thenReturn(List.of(role));
+        when(signupRequestMapper.toUser(second, "hash2", Set.of(role))).thenReturn(user);
+        when(userRepository.saveAllAndFlush(List.of(user))).thenReturn(List.of(user));
+        lenient().when(messageConfig.getMessage(ERROR_USERNAME_EXISTS)).thenReturn("username exists");
+
+        var results = authService.signupBatch(List.of(first, second));
+
+        assertEquals(SignupStatus.REJECTED, results.get(0).status());
+        assertEquals("username exists", results.get(0).reason());
+        assertEquals(SignupStatus.CREATED, results.get(1).status());
+        assertEquals(6L, results.get(1).id());
+        // passwords are hashed once, the retry reuses them
+        verify(passwordHasher).encodeAll(anyList());
+    }
+
+    @Test
+    void signupBatch_shouldRejectChunkWhenConflictIsNotOnUsernameOrEmail() {
+        var first = signupRequest("firstuser", "first@example.com", "ROLE_USER");
+        var second = signupRequest("seconduser", "second@example.com", "ROLE_USER");
+
+        when(userRepository.findUsernamesIn(anyList())).thenReturn(List.of());
+        when(userRepository.findEmailsIn(anyList())).thenReturn(List.of());
+        when(passwordHasher.encodeAll(anyList())).thenReturn(List.of("hash1", "hash2"));
+        when(transactionTemplate.execute(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        var results = authService.signupBatch(List.of(first, second));
+
+        assertEquals(2, results.size());
+        assertTrue(results.stream().allMatch(result -> result.status() == SignupStatus.REJECTED));
+    }
+
+    private SignupRequest signupRequest(String username, String email, String role) {
+        return new SignupRequest(null, "12345678901", "New", "User", username, email, "password", Set.of(role));
+    }
+
+    private void runInTransaction() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+    }
 }
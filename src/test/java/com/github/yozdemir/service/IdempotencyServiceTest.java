@@ -0,0 +1,162 @@
+package com.github.yozdemir.service;
+
+import com.github.yozdemir.config.MessageSourceConfig;
+import com.github.yozdemir.domain.value.Money;
+import com.github.yozdemir.dto.request.TransactionRequest;
+import com.github.yozdemir.dto.response.CommandResponse;
+import com.github.yozdemir.exception.IdempotencyKeyReusedException;
+import com.github.yozdemir.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final Long USER_ID = 1L;
+
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private MessageSourceConfig messageConfig;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(messageConfig, transactionRepository, new SimpleMeterRegistry(), 100, 60);
+    }
+
+    @Test
+    void execute_shouldReturnCachedResponseForSameReferenceNumber() {
+        var request = createTestTransactionRequest(UUID.randomUUID());
+        var executions = new AtomicInteger();
+
+        var first = idempotencyService.execute(USER_ID, request, r -> new CommandResponse((long) executions.incrementAndGet()));
+        var second = idempotencyService.execute(USER_ID, request, r -> new CommandResponse((long) executions.incrementAndGet()));
+
+        assertEquals(1L, first.id());
+        assertEquals(first, second);
+        assertEquals(1, executions.get());
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void execute_shouldAlwaysExecuteRequestWithoutReferenceNumber() {
+        var request = createTestTransactionRequest(null);
+        var executions = new AtomicInteger();
+
+        idempotencyService.execute(USER_ID, request, r -> new CommandResponse((long) executions.incrementAndGet()));
+        idempotencyService.execute(USER_ID, request, r -> new CommandResponse((long) executions.incrementAndGet()));
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void execute_shouldNotCacheFailedExecution() {
+        var request = createTestTransactionRequest(UUID.randomUUID());
+
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute(USER_ID, request, r -> {
+            throw new IllegalStateException();
+        }));
+        var response = idempotencyService.execute(USER_ID, request, r -> new CommandResponse(2L));
+
+        assertEquals(2L, response.id());
+    }
+
+    @Test
+    void execute_shouldReturnStoredTransactionWhenReferenceNumberIsDuplicated() {
+        var referenceNumber = UUID.randomUUID();
+        var request = createTestTransactionRequest(referenceNumber);
+        when(transactionRepository.findRequestHashByReferenceNumber(referenceNumber))
+                .thenReturn(Optional.of(createTestRequestHashView(7L, IdempotencyService.hash(USER_ID, request))));
+
+        var response = idempotencyService.execute(USER_ID, request, r -> {
+            throw new DataIntegrityViolationException("duplicate");
+        });
+
+        assertEquals(7L, response.id());
+    }
+
+    @Test
+    void execute_shouldThrowExceptionWhenViolationIsNotCausedByReferenceNumber() {
+        var referenceNumber = UUID.randomUUID();
+        var request = createTestTransactionRequest(referenceNumber);
+        when(transactionRepository.findRequestHashByReferenceNumber(referenceNumber)).thenReturn(Optional.empty());
+
+        assertThrows(DataIntegrityViolationException.class, () -> idempotencyService.execute(USER_ID, request, r -> {
+            throw new DataIntegrityViolationException("not null");
+        }));
+    }
+
+    @Test
+    void execute_shouldExecuteSameReferenceNumberOfAnotherUserSeparately() {
+        var request = createTestTransactionRequest(UUID.randomUUID());
+        var executions = new AtomicInteger();
+
+        idempotencyService.execute(USER_ID, request, r -> new CommandResponse((long) executions.incrementAndGet()));
+        var response = idempotencyService.execute(2L, request, r -> new CommandResponse((long) executions.incrementAndGet()));
+
+        assertEquals(2L, response.id());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void execute_shouldThrowExceptionWhenReferenceNumberIsReusedWithAnotherRequest() {
+        var referenceNumber = UUID.randomUUID();
+        var request = createTestTransactionRequest(referenceNumber);
+        var changed = createTestTransactionRequest(referenceNumber);
+        changed.setAmount(Money.of(300));
+        idempotencyService.execute(USER_ID, request, r -> new CommandResponse(1L));
+
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> idempotencyService.execute(USER_ID, changed, r -> new CommandResponse(2L)));
+    }
+
+    @Test
+    void execute_shouldThrowExceptionWhenStoredTransactionHasAnotherRequestHash() {
+        var referenceNumber = UUID.randomUUID();
+        var request = createTestTransactionRequest(referenceNumber);
+        when(transactionRepository.findRequestHashByReferenceNumber(referenceNumber))
+                .thenReturn(Optional.of(createTestRequestHashView(7L, "another")));
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> idempotencyService.execute(USER_ID, request, r -> {
+            throw new DataIntegrityViolationException("duplicate");
+        }));
+    }
+
+    private TransactionRepository.RequestHashView createTestRequestHashView(Long id, String requestHash) {
+        return new TransactionRepository.RequestHashView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getRequestHash() {
+                return requestHash;
+            }
+        };
+    }
+
+    private TransactionRequest createTestTransactionRequest(UUID referenceNumber) {
+        var request = new TransactionRequest();
+        request.setFromWalletIban("FROM123");
+        request.setToWalletIban("TO123");
+        request.setAmount(Money.of(200));
+        request.setReferenceNumber(referenceNumber);
+        return request;
+    }
+}
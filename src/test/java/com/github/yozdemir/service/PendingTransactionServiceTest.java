@@ -0,0 +1,91 @@
+package com.github.yozdemir.service;
+
+import com.github.yozdemir.config.MessageSourceConfig;
+import com.github.yozdemir.domain.enums.Status;
+import com.github.yozdemir.repository.TransactionRepository;
+import com.github.yozdemir.repository.TransactionRepository.TransactionKeyView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PendingTransactionServiceTest {
+
+    private static final Instant NOW = Instant.parse("2023-03-01T10:00:00Z");
+
+    private PendingTransactionService pendingTransactionService;
+
+    @Mock
+    private MessageSourceConfig messageConfig;
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @BeforeEach
+    void setUp() {
+        pendingTransactionService = new PendingTransactionService(messageConfig, transactionService,
+                transactionRepository, Clock.fixed(NOW, ZoneOffset.UTC));
+        ReflectionTestUtils.setField(pendingTransactionService, "chunkSize", 2);
+    }
+
+    @Test
+    void decide_shouldDecideInChunksAndReturnSkippedIds() {
+        when(transactionService.decidePending(List.of(1L, 2L), Status.APPROVED)).thenReturn(List.of(1L));
+        when(transactionService.decidePending(List.of(3L), Status.APPROVED)).thenReturn(List.of(3L));
+
+        var result = pendingTransactionService.decide(List.of(1L, 2L, 1L, 3L), Status.APPROVED);
+
+        assertEquals(Status.APPROVED, result.status());
+        assertEquals(2, result.decided());
+        assertEquals(List.of(2L), result.skippedIds());
+    }
+
+    @Test
+    void sweep_shouldContinueFromLastKeyOfPreviousPage() {
+        var createdBefore = NOW.minus(Duration.ofHours(1));
+        var first = createTestKey(1L, NOW.minusSeconds(7200));
+        var second = createTestKey(2L, NOW.minusSeconds(7100));
+        var third = createTestKey(3L, NOW.minusSeconds(7000));
+        when(transactionRepository.findKeysByStatus(eq(Status.PENDING), eq(createdBefore), eq(Instant.EPOCH), eq(0L), any()))
+                .thenReturn(List.of(first, second));
+        when(transactionRepository.findKeysByStatus(eq(Status.PENDING), eq(createdBefore), eq(second.getCreatedAt()), eq(2L), any()))
+                .thenReturn(List.of(third));
+        when(transactionService.decidePending(List.of(1L, 2L), Status.DENIED)).thenReturn(List.of(1L, 2L));
+        when(transactionService.decidePending(List.of(3L), Status.DENIED)).thenReturn(List.of(3L));
+
+        var result = pendingTransactionService.sweep(Status.DENIED, Duration.ofHours(1));
+
+        assertEquals(3, result);
+        verify(transactionRepository, times(2)).findKeysByStatus(any(), any(), any(), any(), any());
+    }
+
+    private TransactionKeyView createTestKey(Long id, Instant createdAt) {
+        return new TransactionKeyView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Instant getCreatedAt() {
+                return createdAt;
+            }
+        };
+    }
+}
@@ -0,0 +1,112 @@
+package com.github.yozdemir.service;
+
+import com.github.yozdemir.config.MessageSourceConfig;
+import com.github.yozdemir.domain.enums.Status;
+import com.github.yozdemir.repository.TransactionArchiveRepository;
+import com.github.yozdemir.repository.TransactionRepository;
+import com.github.yozdemir.repository.TransactionRepository.TransactionKeyView;
+import com.github.yozdemir.repository.TransactionViewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionArchiveServiceTest {
+
+    private static final Instant NOW = Instant.parse("2023-03-01T10:00:00Z");
+
+    private TransactionArchiveService transactionArchiveService;
+
+    @Mock
+    private MessageSourceConfig messageConfig;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionViewRepository transactionViewRepository;
+
+    @Mock
+    private TransactionArchiveRepository transactionArchiveRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionArchiveService = new TransactionArchiveService(messageConfig, transactionRepository,
+                transactionViewRepository, transactionArchiveRepository, transactionTemplate, Clock.fixed(NOW, ZoneOffset.UTC));
+        ReflectionTestUtils.setField(transactionArchiveService, "chunkSize", 2);
+    }
+
+    @Test
+    void archive_shouldMoveDecidedTransactionsInBatchesFromLastKeyOfPreviousBatch() {
+        var createdBefore = NOW.minus(Duration.ofDays(90));
+        var first = createTestKey(1L, createdBefore.minusSeconds(300));
+        var second = createTestKey(2L, createdBefore.minusSeconds(200));
+        var third = createTestKey(3L, createdBefore.minusSeconds(100));
+        when(transactionRepository.findKeysByStatus(eq(Status.APPROVED), eq(createdBefore), eq(Instant.EPOCH), eq(0L), any()))
+                .thenReturn(List.of(first, second));
+        when(transactionRepository.findKeysByStatus(eq(Status.APPROVED), eq(createdBefore), eq(second.getCreatedAt()), eq(2L), any()))
+                .thenReturn(List.of(third));
+        when(transactionArchiveRepository.insertFromTransactionViews(List.of(1L, 2L), NOW)).thenReturn(2);
+        when(transactionArchiveRepository.insertFromTransactionViews(List.of(3L), NOW)).thenReturn(1);
+        runInTransaction();
+
+        var result = transactionArchiveService.archive(Duration.ofDays(90));
+
+        assertEquals(3, result);
+        verify(transactionViewRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(transactionRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(transactionRepository).deleteAllByIdInBatch(List.of(3L));
+        verify(transactionRepository, never()).findKeysByStatus(eq(Status.PENDING), any(), any(), any(), any());
+        verify(transactionRepository).findKeysByStatus(eq(Status.DENIED), eq(createdBefore), eq(Instant.EPOCH), eq(0L), any());
+    }
+
+    @Test
+    void archive_shouldNotDeleteTransactionsWhenTheirReadModelIsIncomplete() {
+        var createdBefore = NOW.minus(Duration.ofDays(90));
+        when(transactionRepository.findKeysByStatus(eq(Status.APPROVED), eq(createdBefore), eq(Instant.EPOCH), eq(0L), any()))
+                .thenReturn(List.of(createTestKey(1L, createdBefore.minusSeconds(100))));
+        when(transactionArchiveRepository.insertFromTransactionViews(List.of(1L), NOW)).thenReturn(0);
+        runInTransaction();
+
+        assertThrows(IllegalStateException.class, () -> transactionArchiveService.archive(Duration.ofDays(90)));
+
+        verifyNoInteractions(transactionViewRepository);
+        verify(transactionRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    private void runInTransaction() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    private TransactionKeyView createTestKey(Long id, Instant createdAt) {
+        return new TransactionKeyView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Instant getCreatedAt() {
+                return createdAt;
+            }
+        };
+    }
+}
@@ -0,0 +1,149 @@
+package com.github.yozdemir.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.yozdemir.config.MessageSourceConfig;
+import com.github.yozdemir.domain.entity.TransactionArchive;
+import com.github.yozdemir.domain.entity.TransactionRecord;
+import com.github.yozdemir.domain.entity.TransactionView;
+import com.github.yozdemir.domain.enums.ExportFormat;
+import com.github.yozdemir.domain.enums.Status;
+import com.github.yozdemir.domain.value.Money;
+import com.github.yozdemir.domain.value.MoneySerializer;
+import com.github.yozdemir.dto.mapper.TransactionExportResponseMapperImpl;
+import com.github.yozdemir.repository.TransactionArchiveRepository;
+import com.github.yozdemir.repository.TransactionViewRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static com.github.yozdemir.common.Constants.EXPORT_FETCH_SIZE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionExportServiceTest {
+
+    private TransactionExportService transactionExportService;
+
+    @Mock
+    private MessageSourceConfig messageConfig;
+
+    @Mock
+    private TransactionViewRepository transactionViewRepository;
+
+    @Mock
+    private TransactionArchiveRepository transactionArchiveRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .registerModule(new SimpleModule().addSerializer(new MoneySerializer()))
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @BeforeEach
+    void setUp() {
+        transactionExportService = new TransactionExportService(messageConfig, transactionViewRepository,
+                transactionArchiveRepository, new TransactionExportResponseMapperImpl(), objectMapper, entityManager);
+    }
+
+    @Test
+    void export_shouldWriteCsvRowsOfUserTransactions() throws Exception {
+        var transaction = createTestTransaction(1L);
+        transaction.setDescription("Rent, \"May\"");
+        when(transactionViewRepository.streamAllByUserId(1L)).thenReturn(Stream.of(transaction));
+        var out = new ByteArrayOutputStream();
+
+        var count = transactionExportService.export(1L, ExportFormat.CSV, out);
+
+        var lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, count);
+        assertEquals(2, lines.length);
+        assertEquals("id,referenceNumber,createdAt,amount,status,type,fromWalletIban,toWalletIban,description", lines[0]);
+        assertEquals("1," + transaction.getReferenceNumber() + ",1970-01-01T00:00:01Z,12.5000,APPROVED,Transfer,"
+                + "FROM123,TO123,\"Rent, \"\"May\"\"\"", lines[1]);
+    }
+
+    @Test
+    void export_shouldWriteJsonLineOfEveryTransaction() throws Exception {
+        when(transactionViewRepository.streamAll()).thenReturn(Stream.of(createTestTransaction(1L), createTestTransaction(2L)));
+        var out = new ByteArrayOutputStream();
+
+        transactionExportService.export(null, ExportFormat.NDJSON, out);
+
+        var lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        var row = objectMapper.readTree(lines[1]);
+        assertEquals(2L, row.get("id").asLong());
+        assertEquals(12.5, row.get("amount").asDouble());
+        assertEquals("FROM123", row.get("fromWalletIban").asText());
+        verify(transactionViewRepository, never()).streamAllByUserId(any());
+    }
+
+    @Test
+    void export_shouldWriteArchivedTransactionsFirst() throws Exception {
+        when(transactionArchiveRepository.streamAllByUserId(1L))
+                .thenReturn(Stream.of(createTestTransaction(new TransactionArchive(), 1L)));
+        when(transactionViewRepository.streamAllByUserId(1L)).thenReturn(Stream.of(createTestTransaction(2L)));
+        var out = new ByteArrayOutputStream();
+
+        var count = transactionExportService.export(1L, ExportFormat.NDJSON, out);
+
+        var lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(1L, objectMapper.readTree(lines[0]).get("id").asLong());
+        assertEquals(2L, objectMapper.readTree(lines[1]).get("id").asLong());
+    }
+
+    @Test
+    void export_shouldClearPersistenceContextAfterEveryChunk() throws Exception {
+        when(transactionViewRepository.streamAll())
+                .thenReturn(LongStream.rangeClosed(1, 2L * EXPORT_FETCH_SIZE + 1).mapToObj(this::createTestTransaction));
+
+        var count = transactionExportService.export(null, ExportFormat.NDJSON, new ByteArrayOutputStream());
+
+        assertEquals(2L * EXPORT_FETCH_SIZE + 1, count);
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void export_shouldWriteOnlyHeaderWhenUserHasNoTransactions() throws Exception {
+        when(transactionViewRepository.streamAllByUserId(1L)).thenReturn(Stream.empty());
+        var out = new ByteArrayOutputStream();
+
+        var count = transactionExportService.export(1L, ExportFormat.CSV, out);
+
+        assertEquals(0, count);
+        assertEquals(1, out.toString(StandardCharsets.UTF_8).split("\n").length);
+    }
+
+    private TransactionView createTestTransaction(long id) {
+        return createTestTransaction(new TransactionView(), id);
+    }
+
+    private <T extends TransactionRecord> T createTestTransaction(T transaction, long id) {
+        transaction.setId(id);
+        transaction.setReferenceNumber(UUID.randomUUID());
+        transaction.setCreatedAt(Instant.ofEpochSecond(1));
+        transaction.setAmount(Money.parse("12.5"));
+        transaction.setStatus(Status.APPROVED);
+        transaction.setTypeName("Transfer");
+        transaction.setFromWalletIban("FROM123");
+        transaction.setToWalletIban("TO123");
+        return transaction;
+    }
+}
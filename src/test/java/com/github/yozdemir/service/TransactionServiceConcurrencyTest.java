@@ -0,0 +1,81 @@
+package com.github.yozdemir.service;
+
+import com.github.yozdemir.domain.value.Money;
+import com.github.yozdemir.dto.request.TransactionRequest;
+import com.github.yozdemir.repository.WalletRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "logging.level.com.github.yozdemir=WARN"})
+class TransactionServiceConcurrencyTest {
+
+    private static final int APPROVALS = 4;
+    private static final String SENDER_IBAN = "TR100000000000000000000001";
+    private static final String RECEIVER_IBAN = "TR100000000000000000000003";
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    /**
+     * Concurrency test: the same pending deposit is approved by several threads at once. Only one
+     * approval must succeed, so the deposit is added to the balance of the receiver exactly once.
+     */
+    @Test
+    void approveOrDenyTransaction_shouldApproveConcurrentDuplicatesOnce() throws InterruptedException {
+        final var request = new TransactionRequest();
+        request.setFromWalletIban(SENDER_IBAN);
+        request.setToWalletIban(RECEIVER_IBAN);
+        request.setAmount(Money.of(5000));
+        request.setTypeId(1L);
+        final Long transactionId = walletService.addFunds(request).id();
+        final Money balance = walletRepository.findByIban(RECEIVER_IBAN).orElseThrow().getBalance();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(APPROVALS);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<?>> approvals = new ArrayList<>();
+        try {
+            for (int i = 0; i < APPROVALS; i++) {
+                approvals.add(executor.submit((Callable<?>) () -> {
+                    start.await();
+                    return transactionService.approveOrDenyTransaction(transactionId);
+                }));
+            }
+            start.countDown();
+
+            int approved = 0;
+            for (Future<?> approval : approvals) {
+                try {
+                    approval.get();
+                    approved++;
+                } catch (ExecutionException ex) {
+                    assertInstanceOf(IllegalStateException.class, ex.getCause());
+                }
+            }
+            assertEquals(1, approved);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(balance.add(Money.of(5000)), walletRepository.findByIban(RECEIVER_IBAN).orElseThrow().getBalance());
+    }
+}
@@ -1,27 +1,55 @@
 package com.github.yozdemir.service;
 
+import com.github.yozdemir.cache.RecentTransactionCache;
+import com.github.yozdemir.cache.WalletCache;
+import com.github.yozdemir.concurrency.WalletLockManager;
 import com.github.yozdemir.config.MessageSourceConfig;
 import com.github.yozdemir.dto.mapper.TransactionRequestMapper;
 import com.github.yozdemir.dto.mapper.TransactionResponseMapper;
+import com.github.yozdemir.dto.mapper.TransactionViewMapper;
 import com.github.yozdemir.dto.request.TransactionRequest;
+import com.github.yozdemir.dto.request.TransactionSearchRequest;
 import com.github.yozdemir.dto.response.TransactionResponse;
+import com.github.yozdemir.dto.response.TransactionWalletResponse;
+import com.github.yozdemir.dto.response.WalletResponse;
+import com.github.yozdemir.exception.InvalidRequestException;
 import com.github.yozdemir.exception.NoSuchElementFoundException;
 import com.github.yozdemir.domain.entity.Transaction;
+import com.github.yozdemir.domain.entity.TransactionArchive;
+import com.github.yozdemir.domain.entity.TransactionView;
+import com.github.yozdemir.domain.entity.Type;
 import com.github.yozdemir.domain.entity.Wallet;
+import com.github.yozdemir.domain.enums.Operation;
+import com.github.yozdemir.domain.enums.Status;
+import com.github.yozdemir.domain.value.Money;
+import com.github.yozdemir.domain.value.TransactionCursor;
+import com.github.yozdemir.repository.TransactionArchiveRepository;
 import com.github.yozdemir.repository.TransactionRepository;
+import com.github.yozdemir.repository.TransactionViewRepository;
+import com.github.yozdemir.repository.WalletRepository;
 import com.github.yozdemir.service.TransactionService;
+import com.github.yozdemir.validator.PageableValidator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
 
-import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -29,22 +57,49 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class TransactionServiceTest {
 
+    private static final Instant NOW = Instant.parse("2024-03-01T00:00:00Z");
+
     @InjectMocks
     private TransactionService transactionService;
 
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Mock
+    private TransactionViewRepository transactionViewRepository;
+
+    @Mock
+    private TransactionArchiveRepository transactionArchiveRepository;
+
     @Mock
     private TransactionRequestMapper transactionRequestMapper;
 
+    @Mock
+    private WalletRepository walletRepository;
+
     @Mock
     private TransactionResponseMapper transactionResponseMapper;
 
+    @Mock
+    private TransactionViewMapper transactionViewMapper;
+
+    @Mock
+    private TypeService typeService;
+
     @Mock
     private MessageSourceConfig messageConfig;
 
+    @Mock
+    private WalletLockManager walletLockManager;
+
+    @Mock
+    private WalletCache walletCache;
+
+    @Mock
+    private RecentTransactionCache recentTransactionCache;
+
     private Transaction testTransaction;
+    private TransactionView testView;
     private TransactionResponse testTransactionResponse;
 
     @BeforeEach
@@ -52,127 +107,255 @@ class TransactionServiceTest {
         testTransaction = new Transaction();
         testTransaction.setId(1L);
         testTransaction.setReferenceNumber(UUID.randomUUID());
-        testTransaction.setAmount(BigDecimal.valueOf(100));
+        testTransaction.setAmount(Money.of(100));
+
+        testView = createTestView(1L, Instant.parse("2024-01-02T00:00:00Z"));
 
         testTransactionResponse = new TransactionResponse();
         testTransactionResponse.setId(1L);
         testTransactionResponse.setReferenceNumber(testTransaction.getReferenceNumber());
-        testTransactionResponse.setAmount(BigDecimal.valueOf(100));
+        testTransactionResponse.setAmount(Money.of(100));
+
+        ReflectionTestUtils.setField(transactionService, "pageableValidator", new PageableValidator(messageConfig));
+        ReflectionTestUtils.setField(transactionService, "clock", Clock.fixed(NOW, ZoneOffset.UTC));
+        ReflectionTestUtils.setField(transactionService, "archiveMaxAgeDays", 30L);
     }
 
     @Test
     void findById_shouldReturnTransactionResponse() {
-        when(transactionRepository.findById(1L)).thenReturn(Optional.of(testTransaction));
-        when(transactionResponseMapper.toTransactionResponse(testTransaction)).thenReturn(testTransactionResponse);
+        when(transactionViewRepository.findById(1L)).thenReturn(Optional.of(testView));
+        when(transactionResponseMapper.toTransactionResponse(testView)).thenReturn(testTransactionResponse);
 
         var result = transactionService.findById(1L);
 
         assertNotNull(result);
         assertEquals(testTransactionResponse, result);
 
-        verify(transactionRepository).findById(1L);
-        verify(transactionResponseMapper).toTransactionResponse(testTransaction);
+        verify(transactionViewRepository).findById(1L);
+        verify(transactionResponseMapper).toTransactionResponse(testView);
     }
 
     @Test
     void findById_shouldThrowExceptionWhenTransactionNotFound() {
-        when(transactionRepository.findById(1L)).thenReturn(Optional.empty());
+        when(transactionViewRepository.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(NoSuchElementFoundException.class, () -> transactionService.findById(1L));
 
-        verify(transactionRepository).findById(1L);
+        verify(transactionViewRepository).findById(1L);
     }
 
     @Test
     void findByReferenceNumber_shouldReturnTransactionResponse() {
         var referenceNumber = testTransaction.getReferenceNumber();
 
-        when(transactionRepository.findByReferenceNumber(referenceNumber)).thenReturn(Optional.of(testTransaction));
-        when(transactionResponseMapper.toTransactionResponse(testTransaction)).thenReturn(testTransactionResponse);
+        when(transactionViewRepository.findByReferenceNumber(referenceNumber)).thenReturn(Optional.of(testView));
+        when(transactionResponseMapper.toTransactionResponse(testView)).thenReturn(testTransactionResponse);
 
         var result = transactionService.findByReferenceNumber(referenceNumber);
 
         assertNotNull(result);
         assertEquals(testTransactionResponse, result);
 
-        verify(transactionRepository).findByReferenceNumber(referenceNumber);
-        verify(transactionResponseMapper).toTransactionResponse(testTransaction);
+        verify(transactionViewRepository).findByReferenceNumber(referenceNumber);
+        verify(transactionResponseMapper).toTransactionResponse(testView);
+    }
+
+    @Test
+    void findByReferenceNumber_shouldFallBackToArchive() {
+        var referenceNumber = UUID.randomUUID();
+        var archived = new TransactionArchive();
+
+        when(transactionViewRepository.findByReferenceNumber(referenceNumber)).thenReturn(Optional.empty());
+        when(transactionArchiveRepository.findByReferenceNumber(referenceNumber)).thenReturn(Optional.of(archived));
+        when(transactionResponseMapper.toTransactionResponse(archived)).thenReturn(testTransactionResponse);
+
+        var result = transactionService.findByReferenceNumber(referenceNumber);
+
+        assertEquals(testTransactionResponse, result);
     }
 
     @Test
     void findByReferenceNumber_shouldThrowExceptionWhenTransactionNotFound() {
         var referenceNumber = UUID.randomUUID();
 
-        when(transactionRepository.findByReferenceNumber(referenceNumber)).thenReturn(Optional.empty());
+        when(transactionViewRepository.findByReferenceNumber(referenceNumber)).thenReturn(Optional.empty());
 
         assertThrows(NoSuchElementFoundException.class, () -> transactionService.findByReferenceNumber(referenceNumber));
 
-        verify(transactionRepository).findByReferenceNumber(referenceNumber);
+        verify(transactionViewRepository).findByReferenceNumber(referenceNumber);
     }
 
     @Test
-    void findAllByUserId_shouldReturnListOfTransactionResponses() {
+    void findByReferenceNumber_shouldOnlyReturnTransactionOfWalletOwner() {
+        var referenceNumber = testView.getReferenceNumber();
+        testView.setFromUserId(1L);
+        testView.setToUserId(2L);
+
+        when(transactionViewRepository.findByReferenceNumber(referenceNumber)).thenReturn(Optional.of(testView));
+        when(transactionResponseMapper.toTransactionResponse(testView)).thenReturn(testTransactionResponse);
+
+        assertEquals(testTransactionResponse, transactionService.findByReferenceNumber(referenceNumber, 1L));
+        assertEquals(testTransactionResponse, transactionService.findByReferenceNumber(referenceNumber, 2L));
+        assertThrows(NoSuchElementFoundException.class, () -> transactionService.findByReferenceNumber(referenceNumber, 3L));
+    }
+
+    @Test
+    void findAllByUserId_shouldMergeLookupsOfBothDirectionsWithoutDuplicates() {
         var userId = 1L;
-        var transactions = List.of(testTransaction, testTransaction);
+        var other = createTestView(2L, Instant.parse("2024-01-01T00:00:00Z"));
 
-        when(transactionRepository.findAllByUserId(userId)).thenReturn(transactions);
-        when(transactionResponseMapper.toTransactionResponse(any(Transaction.class))).thenReturn(testTransactionResponse);
+        when(transactionViewRepository.findLatestByFromUserId(userId, PageRequest.ofSize(3))).thenReturn(List.of(testView, other));
+        // transfer between the wallets of the user is found by both lookups
+        when(transactionViewRepository.findLatestByToUserId(userId, PageRequest.ofSize(3))).thenReturn(List.of(testView));
+        when(transactionResponseMapper.toTransactionResponse(any(TransactionView.class))).thenReturn(testTransactionResponse);
 
-        var result = transactionService.findAllByUserId(userId);
+        var result = transactionService.findAllByUserId(userId, null, 2);
 
         assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals(testTransactionResponse, result.get(0));
-        assertEquals(testTransactionResponse, result.get(1));
+        assertEquals(2, result.content().size());
+        assertEquals(testTransactionResponse, result.content().get(0));
+        assertNull(result.nextCursor());
+
+        verify(transactionResponseMapper, times(2)).toTransactionResponse(any(TransactionView.class));
+    }
+
+    @Test
+    void findAllByUserId_shouldReturnCursorOfLastRowWhenThereIsNextPage() {
+        var userId = 1L;
+        var createdAt = Instant.parse("2024-01-01T10:15:30.123456Z");
+        testView.setCreatedAt(createdAt);
+        var next = createTestView(2L, createdAt.minusSeconds(1));
+
+        when(transactionViewRepository.findLatestByFromUserIdBefore(userId, Instant.EPOCH, 5L, PageRequest.ofSize(2)))
+                .thenReturn(List.of(next));
+        when(transactionViewRepository.findLatestByToUserIdBefore(userId, Instant.EPOCH, 5L, PageRequest.ofSize(2)))
+                .thenReturn(List.of(testView, next));
+        when(transactionResponseMapper.toTransactionResponse(testView)).thenReturn(testTransactionResponse);
+
+        var cursor = new TransactionCursor(Instant.EPOCH, 5L).encode();
+        var result = transactionService.findAllByUserId(userId, cursor, 1);
+
+        assertEquals(List.of(testTransactionResponse), result.content());
+        assertEquals(new TransactionCursor(createdAt, 1L), TransactionCursor.decode(result.nextCursor()));
+        verify(transactionResponseMapper, never()).toTransactionResponse(next);
+    }
+
+    @Test
+    void findAllByUserId_shouldReadArchiveWhenPageIsNotFilledByRecentTransactions() {
+        var userId = 1L;
+        var archived = new TransactionArchive();
+        archived.setId(3L);
+        archived.setCreatedAt(NOW.minusSeconds(100 * 86400));
+
+        when(transactionViewRepository.findLatestByFromUserId(userId, PageRequest.ofSize(3))).thenReturn(List.of(testView));
+        when(transactionArchiveRepository.findLatestByToUserId(userId, PageRequest.ofSize(3))).thenReturn(List.of(archived));
+        when(transactionResponseMapper.toTransactionResponse(testView)).thenReturn(testTransactionResponse);
+        when(transactionResponseMapper.toTransactionResponse(archived)).thenReturn(new TransactionResponse());
+
+        var result = transactionService.findAllByUserId(userId, null, 2);
+
+        assertEquals(2, result.content().size());
+        assertEquals(testTransactionResponse, result.content().get(0));
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    void findAllByUserId_shouldNotReadArchiveWhenPageIsFilledByRecentTransactions() {
+        var userId = 1L;
+        var other = createTestView(2L, NOW.minusSeconds(60));
+        testView.setCreatedAt(NOW);
+
+        when(transactionViewRepository.findLatestByFromUserId(userId, PageRequest.ofSize(2))).thenReturn(List.of(testView, other));
+        when(transactionResponseMapper.toTransactionResponse(testView)).thenReturn(testTransactionResponse);
+
+        var result = transactionService.findAllByUserId(userId, null, 1);
+
+        assertEquals(List.of(testTransactionResponse), result.content());
+        assertNotNull(result.nextCursor());
+        verifyNoInteractions(transactionArchiveRepository);
+    }
+
+    @Test
+    void findAllByUserId_shouldThrowExceptionWhenCursorIsInvalid() {
+        assertThrows(InvalidRequestException.class, () -> transactionService.findAllByUserId(1L, "not-a-cursor", 20));
 
-        verify(transactionRepository).findAllByUserId(userId);
-        verify(transactionResponseMapper, times(2)).toTransactionResponse(any(Transaction.class));
+        verifyNoInteractions(transactionViewRepository);
     }
 
     @Test
     void findAllByUserId_shouldThrowExceptionWhenNoTransactionsFound() {
         var userId = 1L;
 
-        when(transactionRepository.findAllByUserId(userId)).thenReturn(Collections.emptyList());
+        when(transactionViewRepository.findLatestByFromUserId(userId, PageRequest.ofSize(21))).thenReturn(List.of());
+        when(transactionViewRepository.findLatestByToUserId(userId, PageRequest.ofSize(21))).thenReturn(List.of());
 
-        assertThrows(NoSuchElementFoundException.class, () -> transactionService.findAllByUserId(userId));
+        assertThrows(NoSuchElementFoundException.class, () -> transactionService.findAllByUserId(userId, null, 20));
+    }
 
-        verify(transactionRepository).findAllByUserId(userId);
+    @Test
+    void findRecentByUserId_shouldLoadLatestTransactionsOfUserOnMiss() {
+        var userId = 1L;
+        var other = createTestView(2L, NOW.minusSeconds(60));
+        testView.setCreatedAt(NOW);
+        var otherResponse = new TransactionResponse();
+
+        when(recentTransactionCache.getSize()).thenReturn(2);
+        when(recentTransactionCache.getRecent(eq(userId), any())).thenAnswer(invocation ->
+                invocation.<Function<Long, List<TransactionResponse>>>getArgument(1).apply(userId));
+        when(transactionViewRepository.findLatestByFromUserId(userId, PageRequest.ofSize(2))).thenReturn(List.of(other));
+        when(transactionViewRepository.findLatestByToUserId(userId, PageRequest.ofSize(2))).thenReturn(List.of(testView));
+        when(transactionResponseMapper.toTransactionResponse(testView)).thenReturn(testTransactionResponse);
+        when(transactionResponseMapper.toTransactionResponse(other)).thenReturn(otherResponse);
+
+        var result = transactionService.findRecentByUserId(userId);
+
+        assertEquals(List.of(testTransactionResponse, otherResponse), result);
+        verifyNoInteractions(transactionArchiveRepository);
     }
 
     @Test
-    void findAll_shouldReturnPageOfTransactionResponses() {
-        var pageable = Pageable.unpaged();
-        var transactionPage = new PageImpl<>(List.of(testTransaction));
+    void findAll_shouldReturnSliceOfTransactionResponses() {
+        var pageable = PageRequest.of(0, 10);
+        var expectedPageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt", "id"));
 
-        when(transactionRepository.findAll(pageable)).thenReturn(transactionPage);
-        when(transactionResponseMapper.toTransactionResponse(testTransaction)).thenReturn(testTransactionResponse);
+        when(transactionViewRepository.findAllBy(expectedPageable)).thenReturn(new SliceImpl<>(List.of(testView)));
+        when(transactionResponseMapper.toTransactionResponse(testView)).thenReturn(testTransactionResponse);
 
-        var result = transactionService.findAll(pageable);
+        var result = transactionService.findAll(pageable, false);
 
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
         assertEquals(testTransactionResponse, result.getContent().get(0));
+        verify(transactionViewRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void findAll_shouldReturnPageOfTransactionResponsesWhenCountIsRequested() {
+        var pageable = PageRequest.of(0, 10, Sort.by("amount"));
+        var expectedPageable = PageRequest.of(0, 10, Sort.by("amount", "id"));
+
+        when(transactionViewRepository.findAll(expectedPageable)).thenReturn(new PageImpl<>(List.of(testView)));
+        when(transactionResponseMapper.toTransactionResponse(testView)).thenReturn(testTransactionResponse);
 
-        verify(transactionRepository).findAll(pageable);
-        verify(transactionResponseMapper).toTransactionResponse(testTransaction);
+        var result = transactionService.findAll(pageable, true);
+
+        assertInstanceOf(Page.class, result);
+        assertEquals(1, ((Page<?>) result).getTotalElements());
     }
 
     @Test
     void findAll_shouldThrowExceptionWhenNoTransactionsFound() {
-        var pageable = Pageable.unpaged();
-
-        when(transactionRepository.findAll(pageable)).thenReturn(Page.empty());
+        var pageable = PageRequest.of(0, 10);
 
-        assertThrows(NoSuchElementFoundException.class, () -> transactionService.findAll(pageable));
+        when(transactionViewRepository.findAllBy(any())).thenReturn(new SliceImpl<>(List.of()));
 
-        verify(transactionRepository).findAll(pageable);
+        assertThrows(NoSuchElementFoundException.class, () -> transactionService.findAll(pageable, false));
     }
 
     @Test
     void create_shouldCreateNewTransaction() {
         var request = new TransactionRequest();
-        request.setAmount(BigDecimal.valueOf(100));
+        request.setAmount(Money.of(100));
 
         var fromWallet = new Wallet();
         fromWallet.setIban("FROM123");
@@ -180,18 +363,192 @@ class TransactionServiceTest {
         var toWallet = new Wallet();
         toWallet.setIban("TO123");
 
-        testTransaction.setFromWallet(fromWallet);
-        testTransaction.setToWallet(toWallet);
+        request.setFromWalletIban("FROM123");
+        request.setToWalletIban("TO123");
 
+        when(walletRepository.findIdByIban("FROM123")).thenReturn(Optional.of(1L));
+        when(walletRepository.findIdByIban("TO123")).thenReturn(Optional.of(2L));
+        when(walletRepository.getReferenceById(1L)).thenReturn(fromWallet);
+        when(walletRepository.getReferenceById(2L)).thenReturn(toWallet);
         when(transactionRequestMapper.toTransaction(request)).thenReturn(testTransaction);
         when(transactionRepository.save(testTransaction)).thenReturn(testTransaction);
+        var type = new Type();
+        type.setId(1L);
+        testTransaction.setType(type);
+        when(typeService.getName(1L)).thenReturn("Deposit");
+        // the sender is cached, the receiver is read
+        var cachedFromWallet = new WalletResponse();
+        var fromTransactionWallet = new TransactionWalletResponse();
+        var toTransactionWallet = new TransactionWalletResponse();
+        when(walletCache.getCachedWallet(1L)).thenReturn(cachedFromWallet);
+        when(walletCache.getCachedWallet(2L)).thenReturn(null);
+        when(walletRepository.findById(2L)).thenReturn(Optional.of(toWallet));
+        when(transactionViewMapper.toTransactionWalletResponse(cachedFromWallet)).thenReturn(fromTransactionWallet);
+        when(transactionViewMapper.toTransactionWalletResponse(toWallet)).thenReturn(toTransactionWallet);
+        when(transactionViewMapper.toTransactionView(testTransaction, fromTransactionWallet, toTransactionWallet, "Deposit"))
+                .thenReturn(testView);
+        testView.setFromUserId(1L);
+        testView.setToUserId(2L);
 
         var result = transactionService.create(request);
 
         assertNotNull(result);
         assertEquals(1L, result.id());
+        assertEquals(fromWallet, testTransaction.getFromWallet());
+        assertEquals(toWallet, testTransaction.getToWallet());
 
         verify(transactionRequestMapper).toTransaction(request);
         verify(transactionRepository).save(testTransaction);
+        verify(transactionViewRepository).save(testView);
+        verify(walletRepository, never()).findById(1L);
+        verify(transactionViewRepository, never()).findAllById(any());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Supplier<TransactionResponse>> response = ArgumentCaptor.forClass(Supplier.class);
+        verify(recentTransactionCache).addAfterCommit(response.capture(), eq(1L), eq(2L));
+        when(transactionResponseMapper.toTransactionResponse(testView)).thenReturn(testTransactionResponse);
+        assertSame(testTransactionResponse, response.getValue().get());
+    }
+
+    @Test
+    void create_shouldThrowExceptionWhenWalletNotFound() {
+        var request = new TransactionRequest();
+        request.setFromWalletIban("FROM123");
+        request.setToWalletIban("TO123");
+
+        when(walletRepository.findIdByIban("FROM123")).thenReturn(Optional.empty());
+
+        assertThrows(NoSuchElementFoundException.class, () -> transactionService.create(request));
+
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    void decidePending_shouldApplyOneUpdatePerWallet() {
+        var ids = List.of(1L, 2L, 3L);
+        var transactions = List.of(
+                createTestTransaction(1L, Operation.DEPOSIT, 5L, 2L, Money.of(100)),
+                createTestTransaction(2L, Operation.DEPOSIT, 5L, 2L, Money.of(50)),
+                createTestTransaction(3L, Operation.WITHDRAWAL, 2L, 6L, Money.of(30)));
+        when(transactionRepository.findAllByIdInAndStatusForUpdate(ids, Status.PENDING)).thenReturn(transactions);
+
+        var result = transactionService.decidePending(ids, Status.APPROVED);
+
+        assertEquals(ids, result);
+        verify(walletLockManager).lockForTransaction(2L);
+        verify(walletCache).evictAfterCommit(2L);
+        verify(walletRepository).credit(2L, Money.of(120), Money.ZERO);
+        verify(walletRepository, times(1)).credit(anyLong(), any(), any());
+        verify(transactionRepository).updateStatus(ids, Status.APPROVED, NOW);
+        verify(transactionViewRepository).updateStatus(ids, Status.APPROVED);
+    }
+
+    @Test
+    void decidePending_shouldRevertUsableBalanceWhenDenied() {
+        var ids = List.of(1L, 2L);
+        var transactions = List.of(
+                createTestTransaction(1L, Operation.DEPOSIT, 5L, 3L, Money.of(100)),
+                createTestTransaction(2L, Operation.WITHDRAWAL, 4L, 6L, Money.of(30)));
+        when(transactionRepository.findAllByIdInAndStatusForUpdate(ids, Status.PENDING)).thenReturn(transactions);
+
+        transactionService.decidePending(ids, Status.DENIED);
+
+        verify(walletLockManager).lockForTransaction(3L, 4L);
+        verify(walletRepository).credit(3L, Money.ZERO, Money.of(-100));
+        verify(walletRepository).credit(4L, Money.ZERO, Money.of(30));
+        verify(transactionRepository).updateStatus(ids, Status.DENIED, NOW);
+    }
+
+    @Test
+    void search_shouldSortByCreatedAtAndIdWhenSortIsNotGiven() {
+        var filter = new TransactionSearchRequest();
+        filter.setStatus(Status.APPROVED);
+        var pageable = PageRequest.of(1, 10);
+        when(transactionViewRepository.findSlice(any(), any())).thenReturn(new SliceImpl<>(List.of(testView)));
+        when(transactionResponseMapper.toTransactionResponse(testView)).thenReturn(testTransactionResponse);
+
+        var result = transactionService.search(filter, pageable);
+
+        var captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(transactionViewRepository).findSlice(any(), captor.capture());
+        assertEquals(List.of(testTransactionResponse), result.getContent());
+        assertEquals(1, captor.getValue().getPageNumber());
+        assertEquals(Sort.by(Sort.Direction.DESC, "createdAt", "id"), captor.getValue().getSort());
+    }
+
+    @Test
+    void search_shouldThrowExceptionWhenSortKeyIsNotAllowed() {
+        var pageable = PageRequest.of(0, 10, Sort.by("description"));
+
+        assertThrows(InvalidRequestException.class, () -> transactionService.search(new TransactionSearchRequest(), pageable));
+        verifyNoInteractions(transactionViewRepository);
+    }
+
+    @Test
+    void search_shouldThrowExceptionWhenPageSizeIsOverLimit() {
+        var pageable = PageRequest.of(0, 1000);
+
+        assertThrows(InvalidRequestException.class, () -> transactionService.search(new TransactionSearchRequest(), pageable));
+        verifyNoInteractions(transactionViewRepository);
+    }
+
+    @Test
+    void approveOrDenyTransaction_shouldApproveTransactionAndItsReadModel() {
+        var transaction = createTestTransaction(1L, Operation.DEPOSIT, 5L, 2L, Money.of(100));
+        when(transactionRepository.findAllByIdInAndStatusForUpdate(List.of(1L), Status.PENDING)).thenReturn(List.of(transaction));
+        when(transactionViewRepository.findById(1L)).thenReturn(Optional.of(testView));
+        when(transactionResponseMapper.toTransactionResponse(testView)).thenReturn(testTransactionResponse);
+
+        var result = transactionService.approveOrDenyTransaction(1L);
+
+        assertEquals(testTransactionResponse, result);
+        verify(walletRepository).credit(2L, Money.of(100), Money.ZERO);
+        verify(transactionRepository).updateStatus(List.of(1L), Status.APPROVED, NOW);
+        verify(transactionViewRepository).updateStatus(List.of(1L), Status.APPROVED);
+    }
+
+    @Test
+    void approveOrDenyTransaction_shouldThrowExceptionWhenTransactionIsNotPending() {
+        when(transactionRepository.findAllByIdInAndStatusForUpdate(List.of(1L), Status.PENDING)).thenReturn(List.of());
+        when(transactionRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(IllegalStateException.class, () -> transactionService.approveOrDenyTransaction(1L));
+        verifyNoInteractions(walletRepository, transactionViewRepository);
+    }
+
+    @Test
+    void decidePending_shouldSkipWhenNoTransactionIsPending() {
+        var ids = List.of(1L);
+        when(transactionRepository.findAllByIdInAndStatusForUpdate(ids, Status.PENDING)).thenReturn(List.of());
+
+        var result = transactionService.decidePending(ids, Status.APPROVED);
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(walletRepository, walletLockManager);
+        verify(transactionRepository, never()).updateStatus(any(), any(), any());
+        verifyNoInteractions(transactionViewRepository);
+    }
+
+    private Transaction createTestTransaction(Long id, Operation operation, Long fromWalletId, Long toWalletId, Money amount) {
+        var fromWallet = new Wallet();
+        fromWallet.setId(fromWalletId);
+        var toWallet = new Wallet();
+        toWallet.setId(toWalletId);
+
+        var transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setOperation(operation);
+        transaction.setFromWallet(fromWallet);
+        transaction.setToWallet(toWallet);
+        transaction.setAmount(amount);
+        transaction.setStatus(Status.PENDING);
+        return transaction;
+    }
+
+    private TransactionView createTestView(Long id, Instant createdAt) {
+        var view = new TransactionView();
+        view.setId(id);
+        view.setReferenceNumber(UUID.randomUUID());
+        view.setCreatedAt(createdAt);
+        return view;
     }
 }
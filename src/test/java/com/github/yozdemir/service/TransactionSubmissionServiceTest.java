@@ -0,0 +1,222 @@
+package com.github.yozdemir.service;
+
+import com.github.yozdemir.concurrency.WalletPartitionedExecutor;
+import com.github.yozdemir.config.MessageSourceConfig;
+import com.github.yozdemir.domain.enums.Status;
+import com.github.yozdemir.domain.enums.SubmissionStatus;
+import com.github.yozdemir.domain.value.Money;
+import com.github.yozdemir.dto.request.TransactionRequest;
+import com.github.yozdemir.dto.response.CommandResponse;
+import com.github.yozdemir.dto.response.TransactionResponse;
+import com.github.yozdemir.exception.IdempotencyKeyReusedException;
+import com.github.yozdemir.exception.InsufficientFundsException;
+import com.github.yozdemir.exception.NoSuchElementFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionSubmissionServiceTest {
+
+    private static final Long USER_ID = 1L;
+
+    private TransactionSubmissionService transactionSubmissionService;
+
+    @Mock
+    private MessageSourceConfig messageConfig;
+
+    @Mock
+    private WalletService walletService;
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private WalletPartitionedExecutor walletExecutor;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        transactionSubmissionService = new TransactionSubmissionService(messageConfig, walletService,
+                transactionService, walletExecutor, idempotencyService, 60);
+    }
+
+    @Test
+    void submitTransfer_shouldAssignReferenceNumberAndCompleteOnSenderPartition() {
+        var request = createTestTransactionRequest("FROM123", "TO123", Money.of(200));
+        when(walletService.getIdByIban("FROM123")).thenReturn(1L);
+        when(walletService.getIdByIban("TO123")).thenReturn(2L);
+        runTasksImmediately();
+        when(walletService.transferFunds(request)).thenAnswer(invocation -> {
+            request.setStatus(Status.APPROVED);
+            return new CommandResponse(10L);
+        });
+
+        var result = transactionSubmissionService.submitTransfer(USER_ID, request);
+
+        assertEquals(SubmissionStatus.ACCEPTED, result.status());
+        assertNotNull(result.referenceNumber());
+        assertEquals(result.referenceNumber(), request.getReferenceNumber());
+        verify(walletExecutor).execute(eq(1L), any(Runnable.class));
+
+        var status = transactionSubmissionService.findByReferenceNumber(USER_ID, result.referenceNumber());
+        assertEquals(SubmissionStatus.COMPLETED, status.status());
+        assertEquals(10L, status.transactionId());
+        assertEquals(Status.APPROVED, status.transactionStatus());
+        verify(transactionService, never()).findByReferenceNumber(any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void addFunds_shouldRunOnReceiverPartitionAndWait() {
+        var request = createTestTransactionRequest("FROM123", "TO123", Money.of(200));
+        when(walletService.getIdByIban("TO123")).thenReturn(2L);
+        when(walletExecutor.executeAndWait(eq(2L), any()))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+        when(idempotencyService.execute(eq(USER_ID), eq(request), any())).thenReturn(new CommandResponse(10L));
+
+        var result = transactionSubmissionService.addFunds(USER_ID, request);
+
+        assertEquals(10L, result.id());
+        verify(walletExecutor).executeAndWait(eq(2L), any());
+    }
+
+    @Test
+    void submitDeposit_shouldUseReceiverPartition() {
+        var request = createTestTransactionRequest("FROM123", "TO123", Money.of(200));
+        when(walletService.getIdByIban("FROM123")).thenReturn(1L);
+        when(walletService.getIdByIban("TO123")).thenReturn(2L);
+
+        var result = transactionSubmissionService.submitDeposit(USER_ID, request);
+
+        assertEquals(SubmissionStatus.ACCEPTED, result.status());
+        verify(walletExecutor).execute(eq(2L), any(Runnable.class));
+        verify(walletService, never()).addFunds(any());
+        assertEquals(SubmissionStatus.ACCEPTED,
+                transactionSubmissionService.findByReferenceNumber(USER_ID, result.referenceNumber()).status());
+    }
+
+    @Test
+    void submitWithdrawal_shouldRecordFailureOfTheWorker() {
+        var request = createTestTransactionRequest("FROM123", "TO123", Money.of(200));
+        when(walletService.getIdByIban("FROM123")).thenReturn(1L);
+        when(walletService.getIdByIban("TO123")).thenReturn(2L);
+        runTasksImmediately();
+        when(walletService.withdrawFunds(request)).thenThrow(new InsufficientFundsException("insufficient"));
+
+        var result = transactionSubmissionService.submitWithdrawal(USER_ID, request);
+
+        var status = transactionSubmissionService.findByReferenceNumber(USER_ID, result.referenceNumber());
+        assertEquals(SubmissionStatus.FAILED, status.status());
+        assertEquals("insufficient", status.message());
+    }
+
+    @Test
+    void submitTransfer_shouldReturnFirstSubmissionForSameReferenceNumber() {
+        var referenceNumber = UUID.randomUUID();
+        var request = createTestTransactionRequest("FROM123", "TO123", Money.of(200));
+        request.setReferenceNumber(referenceNumber);
+        when(walletService.getIdByIban("FROM123")).thenReturn(1L);
+        when(walletService.getIdByIban("TO123")).thenReturn(2L);
+
+        var first = transactionSubmissionService.submitTransfer(USER_ID, request);
+        var second = transactionSubmissionService.submitTransfer(USER_ID, request);
+
+        assertEquals(referenceNumber, first.referenceNumber());
+        assertEquals(first, second);
+        verify(walletExecutor).execute(eq(1L), any(Runnable.class));
+    }
+
+    @Test
+    void submitTransfer_shouldTrackSameReferenceNumberOfAnotherUserSeparately() {
+        var referenceNumber = UUID.randomUUID();
+        var request = createTestTransactionRequest("FROM123", "TO123", Money.of(200));
+        request.setReferenceNumber(referenceNumber);
+        when(walletService.getIdByIban("FROM123")).thenReturn(1L);
+        when(walletService.getIdByIban("TO123")).thenReturn(2L);
+
+        transactionSubmissionService.submitTransfer(USER_ID, request);
+        transactionSubmissionService.submitTransfer(2L, request);
+
+        verify(walletExecutor, times(2)).execute(eq(1L), any(Runnable.class));
+    }
+
+    @Test
+    void submitTransfer_shouldThrowExceptionWhenReferenceNumberIsReusedWithAnotherRequest() {
+        var referenceNumber = UUID.randomUUID();
+        var request = createTestTransactionRequest("FROM123", "TO123", Money.of(200));
+        request.setReferenceNumber(referenceNumber);
+        var changed = createTestTransactionRequest("FROM123", "TO123", Money.of(300));
+        changed.setReferenceNumber(referenceNumber);
+        when(walletService.getIdByIban("FROM123")).thenReturn(1L);
+        when(walletService.getIdByIban("TO123")).thenReturn(2L);
+
+        transactionSubmissionService.submitTransfer(USER_ID, request);
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> transactionSubmissionService.submitTransfer(USER_ID, changed));
+        verify(walletExecutor).execute(eq(1L), any(Runnable.class));
+    }
+
+    @Test
+    void submitTransfer_shouldThrowExceptionWhenWalletNotFound() {
+        var request = createTestTransactionRequest("FROM123", "TO123", Money.of(200));
+        when(walletService.getIdByIban("FROM123")).thenThrow(new NoSuchElementFoundException("not found"));
+
+        assertThrows(NoSuchElementFoundException.class, () -> transactionSubmissionService.submitTransfer(USER_ID, request));
+        verifyNoInteractions(walletExecutor);
+    }
+
+    @Test
+    void submitTransfer_shouldThrowExceptionWhenPartitionIsFull() {
+        var request = createTestTransactionRequest("FROM123", "TO123", Money.of(200));
+        when(walletService.getIdByIban("FROM123")).thenReturn(1L);
+        when(walletService.getIdByIban("TO123")).thenReturn(2L);
+        doThrow(new RejectedExecutionException()).when(walletExecutor).execute(anyLong(), any(Runnable.class));
+
+        assertThrows(RejectedExecutionException.class, () -> transactionSubmissionService.submitTransfer(USER_ID, request));
+    }
+
+    @Test
+    void findByReferenceNumber_shouldReturnTransactionWhenSubmissionIsNotTracked() {
+        var referenceNumber = UUID.randomUUID();
+        var transaction = new TransactionResponse();
+        transaction.setId(5L);
+        transaction.setStatus(Status.PENDING);
+        when(transactionService.findByReferenceNumber(referenceNumber, USER_ID)).thenReturn(transaction);
+
+        var result = transactionSubmissionService.findByReferenceNumber(USER_ID, referenceNumber);
+
+        assertEquals(SubmissionStatus.COMPLETED, result.status());
+        assertEquals(5L, result.transactionId());
+        assertEquals(Status.PENDING, result.transactionStatus());
+    }
+
+    private void runTasksImmediately() {
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        }).when(walletExecutor).execute(anyLong(), any(Runnable.class));
+        when(idempotencyService.execute(any(), any(), any())).thenAnswer(invocation ->
+                invocation.<Function<TransactionRequest, CommandResponse>>getArgument(2).apply(invocation.getArgument(1)));
+    }
+
+    private TransactionRequest createTestTransactionRequest(String fromWalletIban, String toWalletIban, Money amount) {
+        var request = new TransactionRequest();
+        request.setFromWalletIban(fromWalletIban);
+        request.setToWalletIban(toWalletIban);
+        request.setAmount(amount);
+        return request;
+    }
+}
@@ -1,6 +1,8 @@
 package com.github.yozdemir.service;
 
+import com.github.yozdemir.config.MessageSourceConfig;
 import com.github.yozdemir.domain.entity.Type;
+import com.github.yozdemir.exception.NoSuchElementFoundException;
 import com.github.yozdemir.repository.TypeRepository;
 import com.github.yozdemir.service.TypeService;
 import jakarta.persistence.EntityNotFoundException;
@@ -10,6 +12,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Optional;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -19,6 +23,9 @@ class TypeServiceTest {
     @InjectMocks
     private TypeService typeService;
 
+    @Mock
+    private MessageSourceConfig messageConfig;
+
     @Mock
     private TypeRepository typeRepository;
 
@@ -49,4 +56,25 @@ class TypeServiceTest {
 
         verify(typeRepository).getReferenceById(nonExistentTypeId);
     }
+
+    @Test
+    void getName_shouldReadNameOnlyOnce() {
+        var type = new Type();
+        type.setId(1L);
+        type.setName("Deposit");
+
+        when(typeRepository.findById(1L)).thenReturn(Optional.of(type));
+
+        assertEquals("Deposit", typeService.getName(1L));
+        assertEquals("Deposit", typeService.getName(1L));
+
+        verify(typeRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void getName_shouldThrowExceptionWhenTypeNotFound() {
+        when(typeRepository.findById(999L)).thenReturn(Optional.empty());
+
+        assertThrows(NoSuchElementFoundException.class, () -> typeService.getName(999L));
+    }
 }
@@ -1,6 +1,10 @@
 package com.github.yozdemir.service;
 
+import com.github.yozdemir.config.MessageSourceConfig;
 import com.github.yozdemir.domain.entity.Users;
+import com.github.yozdemir.dto.mapper.UserResponseMapper;
+import com.github.yozdemir.dto.response.UserResponse;
+import com.github.yozdemir.exception.NoSuchElementFoundException;
 import com.github.yozdemir.repository.UserRepository;
 import com.github.yozdemir.service.UserService;
 import jakarta.persistence.EntityNotFoundException;
@@ -10,6 +14,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Optional;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -19,9 +25,37 @@ class UserServiceTest {
     @InjectMocks
     private UserService userService;
 
+    @Mock
+    private MessageSourceConfig messageConfig;
+
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserResponseMapper userResponseMapper;
+
+    @Test
+    void findById_shouldReturnUserResponse() {
+        var user = new Users();
+        user.setId(1L);
+        var expectedResponse = new UserResponse();
+        expectedResponse.setId(1L);
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userResponseMapper.toUserResponse(user)).thenReturn(expectedResponse);
+
+        var result = userService.findById(1L);
+
+        assertEquals(expectedResponse, result);
+    }
+
+    @Test
+    void findById_shouldThrowExceptionWhenUserNotFound() {
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(NoSuchElementFoundException.class, () -> userService.findById(1L));
+    }
+
     @Test
     void getReferenceById_shouldReturnUserReference() {
         var userId = 1L;
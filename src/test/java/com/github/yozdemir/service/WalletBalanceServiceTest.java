@@ -0,0 +1,185 @@
+package com.github.yozdemir.service;
+
+import com.github.yozdemir.config.MessageSourceConfig;
+import com.github.yozdemir.domain.entity.Wallet;
+import com.github.yozdemir.domain.entity.WalletBalanceSnapshot;
+import com.github.yozdemir.domain.value.Money;
+import com.github.yozdemir.exception.NoSuchElementFoundException;
+import com.github.yozdemir.repository.TransactionRepository;
+import com.github.yozdemir.repository.WalletBalanceSnapshotRepository;
+import com.github.yozdemir.repository.WalletRepository;
+import com.github.yozdemir.repository.WalletRepository.WalletBalanceView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WalletBalanceServiceTest {
+
+    private static final Instant NOW = Instant.parse("2023-03-10T10:00:00Z");
+    private static final Instant START_OF_TODAY = Instant.parse("2023-03-10T00:00:00Z");
+    private static final LocalDate TODAY = LocalDate.of(2023, 3, 10);
+
+    private WalletBalanceService walletBalanceService;
+
+    @Mock
+    private MessageSourceConfig messageConfig;
+
+    @Mock
+    private WalletRepository walletRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private WalletBalanceSnapshotRepository snapshotRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        walletBalanceService = new WalletBalanceService(messageConfig, walletRepository, transactionRepository,
+                snapshotRepository, transactionTemplate, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void findBalanceAt_shouldAddChangesAfterNearestSnapshot() {
+        var at = Instant.parse("2023-03-10T02:00:00Z");
+        when(snapshotRepository.findFirstByWalletIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(1L, TODAY))
+                .thenReturn(Optional.of(createTestSnapshot(TODAY.minusDays(1), Money.of(100))));
+        when(transactionRepository.sumBalanceChanges(1L, START_OF_TODAY, at)).thenReturn(Money.of(15));
+
+        var result = walletBalanceService.findBalanceAt(1L, at);
+
+        assertEquals(1L, result.walletId());
+        assertEquals(at, result.at());
+        assertEquals(Money.of(115), result.balance());
+        verify(walletRepository, never()).findBalanceById(any());
+    }
+
+    @Test
+    void findBalanceAt_shouldSubtractChangesSincePointFromCurrentBalanceWhenItIsCloser() {
+        var at = Instant.parse("2023-03-10T09:00:00Z");
+        when(snapshotRepository.findFirstByWalletIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(1L, TODAY))
+                .thenReturn(Optional.of(createTestSnapshot(TODAY.minusDays(1), Money.of(100))));
+        when(walletRepository.findBalanceById(1L)).thenReturn(Optional.of(Money.of(200)));
+        when(transactionRepository.sumBalanceChanges(1L, at, NOW)).thenReturn(Money.of(30));
+
+        var result = walletBalanceService.findBalanceAt(1L, at);
+
+        assertEquals(Money.of(170), result.balance());
+    }
+
+    @Test
+    void findBalanceAt_shouldSubtractChangesUntilEarliestSnapshotWhenThereIsNoneBefore() {
+        var at = Instant.parse("2023-01-01T10:00:00Z");
+        var date = LocalDate.of(2023, 1, 1);
+        when(snapshotRepository.findFirstByWalletIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(1L, date))
+                .thenReturn(Optional.empty());
+        when(snapshotRepository.findFirstByWalletIdAndSnapshotDateGreaterThanEqualOrderBySnapshotDateAsc(1L, date))
+                .thenReturn(Optional.of(createTestSnapshot(date.plusDays(2), Money.of(100))));
+        when(transactionRepository.sumBalanceChanges(1L, at, Instant.parse("2023-01-04T00:00:00Z")))
+                .thenReturn(Money.of(25));
+
+        var result = walletBalanceService.findBalanceAt(1L, at);
+
+        assertEquals(Money.of(75), result.balance());
+        verify(walletRepository, never()).findBalanceById(any());
+    }
+
+    @Test
+    void findBalanceAt_shouldThrowExceptionWhenWalletNotFound() {
+        when(snapshotRepository.findFirstByWalletIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(1L, TODAY))
+                .thenReturn(Optional.empty());
+        when(walletRepository.findBalanceById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(NoSuchElementFoundException.class, () -> walletBalanceService.findBalanceAt(1L, NOW));
+    }
+
+    @Test
+    void takeSnapshots_shouldTakeDaysAfterLastSnapshotIncrementally() {
+        var yesterday = TODAY.minusDays(1);
+        runInTransaction();
+        when(snapshotRepository.findLastSnapshotDate()).thenReturn(Optional.of(yesterday.minusDays(1)));
+        when(snapshotRepository.findBalancesBySnapshotDate(yesterday.minusDays(1)))
+                .thenReturn(List.of(createTestBalance(1L, Money.of(100))));
+        when(transactionRepository.sumBalanceChanges(Instant.parse("2023-03-09T00:00:00Z"), START_OF_TODAY))
+                .thenReturn(Map.of(1L, Money.of(-20)));
+        when(walletRepository.findAllBalances())
+                .thenReturn(List.of(createTestBalance(1L, Money.of(500)), createTestBalance(2L, Money.of(50))));
+        // wallet without a previous snapshot is calculated back from its current balance
+        when(transactionRepository.sumBalanceChanges(START_OF_TODAY, NOW)).thenReturn(Map.of(2L, Money.of(10)));
+        when(walletRepository.getReferenceById(anyLong())).thenAnswer(invocation -> createTestWallet(invocation.getArgument(0)));
+
+        var result = walletBalanceService.takeSnapshots();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<WalletBalanceSnapshot>> captor = ArgumentCaptor.forClass(List.class);
+        verify(snapshotRepository).saveAll(captor.capture());
+        var snapshots = captor.getValue();
+        assertEquals(2, result);
+        assertEquals(yesterday, snapshots.get(0).getSnapshotDate());
+        assertEquals(Money.of(80), snapshots.get(0).getBalance());
+        assertEquals(2L, snapshots.get(1).getWallet().getId());
+        assertEquals(Money.of(40), snapshots.get(1).getBalance());
+    }
+
+    @Test
+    void takeSnapshots_shouldNotTakeAnySnapshotWhenYesterdayIsAlreadyTaken() {
+        when(snapshotRepository.findLastSnapshotDate()).thenReturn(Optional.of(TODAY.minusDays(1)));
+
+        var result = walletBalanceService.takeSnapshots();
+
+        assertEquals(0, result);
+        verifyNoInteractions(transactionTemplate, walletRepository, transactionRepository);
+    }
+
+    private void runInTransaction() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    private WalletBalanceSnapshot createTestSnapshot(LocalDate snapshotDate, Money balance) {
+        var snapshot = new WalletBalanceSnapshot();
+        snapshot.setSnapshotDate(snapshotDate);
+        snapshot.setBalance(balance);
+        return snapshot;
+    }
+
+    private WalletBalanceView createTestBalance(Long walletId, Money balance) {
+        return new WalletBalanceView() {
+            @Override
+            public Long getWalletId() {
+                return walletId;
+            }
+
+            @Override
+            public Money getBalance() {
+                return balance;
+            }
+        };
+    }
+
+    private Wallet createTestWallet(Long id) {
+        var wallet = new Wallet();
+        wallet.setId(id);
+        return wallet;
+    }
+}
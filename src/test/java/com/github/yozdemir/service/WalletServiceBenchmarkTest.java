@@ -0,0 +1,80 @@
+package com.github.yozdemir.service;
+
+import com.github.yozdemir.domain.entity.Wallet;
+import com.github.yozdemir.domain.enums.Status;
+import com.github.yozdemir.domain.value.Money;
+import com.github.yozdemir.dto.request.TransactionRequest;
+import com.github.yozdemir.repository.WalletRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "logging.level.com.github.yozdemir=WARN",
+        "logging.level.com.github.yozdemir.service.WalletServiceBenchmarkTest=INFO"})
+@Tag("benchmark")
+class WalletServiceBenchmarkTest {
+
+    private static final int TRANSFERS = 1_000;
+    private static final String FIRST_IBAN = "TR100000000000000000000001";
+    private static final String SECOND_IBAN = "TR100000000000000000000002";
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    /**
+     * Throughput benchmark: the same transfers between two seeded wallets are applied one call per
+     * transfer and then as a single batch. Every transfer must be approved and the total of the
+     * balances must not change. Timings are logged.
+     */
+    @Test
+    void transferFundsBatch_shouldApplyTransfersFasterThanSingleTransfers() {
+        final Money total = getBalances();
+
+        long startedAt = System.nanoTime();
+        for (TransactionRequest request : createRequests()) {
+            walletService.transferFunds(request);
+        }
+        long singleNanos = System.nanoTime() - startedAt;
+
+        startedAt = System.nanoTime();
+        var results = walletService.transferFundsBatch(createRequests());
+        long batchNanos = System.nanoTime() - startedAt;
+
+        log.info("{} transfers: single {} ms, batch {} ms", TRANSFERS, singleNanos / 1_000_000, batchNanos / 1_000_000);
+        assertEquals(TRANSFERS, results.size());
+        assertTrue(results.stream().allMatch(result -> result.status() == Status.APPROVED));
+        assertEquals(total, getBalances());
+    }
+
+    // transfers go back and forth, so the balances never run out
+    private List<TransactionRequest> createRequests() {
+        return IntStream.range(0, TRANSFERS).mapToObj(i -> {
+            var request = new TransactionRequest();
+            request.setFromWalletIban(i % 2 == 0 ? FIRST_IBAN : SECOND_IBAN);
+            request.setToWalletIban(i % 2 == 0 ? SECOND_IBAN : FIRST_IBAN);
+            request.setAmount(Money.of(1));
+            request.setTypeId(1L);
+            return request;
+        }).toList();
+    }
+
+    private Money getBalances() {
+        return walletRepository.findAll().stream()
+                .map(Wallet::getBalance)
+                .reduce(Money.ZERO, Money::add);
+    }
+}
@@ -1,6 +1,13 @@
 package com.github.yozdemir.service;
 
+import com.github.yozdemir.cache.RecentTransactionCache;
+import com.github.yozdemir.cache.RecentTransactionCache;
+import com.github.yozdemir.cache.WalletCache;
+import com.github.yozdemir.concurrency.ConflictRetryExecutor;
+import com.github.yozdemir.concurrency.WalletLockManager;
+import com.github.yozdemir.concurrency.WalletPartitionedExecutor;
 import com.github.yozdemir.config.MessageSourceConfig;
+import com.github.yozdemir.domain.value.Money;
 import com.github.yozdemir.dto.mapper.WalletRequestMapper;
 import com.github.yozdemir.dto.mapper.WalletResponseMapper;
 import com.github.yozdemir.dto.mapper.WalletTransactionRequestMapper;
@@ -10,25 +17,39 @@ import com.github.yozdemir.dto.response.CommandResponse;
 import com.github.yozdemir.dto.response.WalletResponse;
 import com.github.yozdemir.exception.ElementAlreadyExistsException;
 import com.github.yozdemir.exception.InsufficientFundsException;
+import com.github.yozdemir.exception.InvalidRequestException;
 import com.github.yozdemir.exception.NoSuchElementFoundException;
 import com.github.yozdemir.domain.entity.Wallet;
+import com.github.yozdemir.domain.enums.Status;
+import com.github.yozdemir.repository.TransactionArchiveRepository;
+import com.github.yozdemir.repository.TransactionViewRepository;
 import com.github.yozdemir.repository.WalletRepository;
 import com.github.yozdemir.service.TransactionService;
 import com.github.yozdemir.service.WalletService;
 import com.github.yozdemir.validator.IbanValidator;
+import com.github.yozdemir.validator.PageableValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
 import java.util.Arrays;
-import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -45,6 +66,12 @@ class WalletServiceTest {
     @Mock
     private TransactionService transactionService;
 
+    @Mock
+    private TransactionViewRepository transactionViewRepository;
+
+    @Mock
+    private TransactionArchiveRepository transactionArchiveRepository;
+
     @Mock
     private WalletRequestMapper walletRequestMapper;
 
@@ -60,18 +87,44 @@ class WalletServiceTest {
     @Mock
     private MessageSourceConfig messageConfig;
 
+    @Mock
+    private WalletLockManager walletLockManager;
+
+    @Mock
+    private ConflictRetryExecutor conflictRetryExecutor;
+
+    @Mock
+    private WalletPartitionedExecutor walletExecutor;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private WalletCache walletCache = new WalletCache(new SimpleMeterRegistry(), 100, 5);
+
+    @Mock
+    private RecentTransactionCache recentTransactionCache;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(walletService, "pageableValidator", new PageableValidator(messageConfig));
+    }
+
     @Test
     void findById_shouldReturnWalletResponse() {
-        var wallet = createTestWallet(1L, "TEST123", "Test Wallet", BigDecimal.valueOf(1000));
-        var expectedResponse = createTestWalletResponse(1L, "TEST123", "Test Wallet", BigDecimal.valueOf(1000));
+        var wallet = createTestWallet(1L, "TEST123", "Test Wallet", Money.of(1000));
+        var expectedResponse = createTestWalletResponse(1L, "TEST123", "Test Wallet", Money.of(1000));
 
         when(walletRepository.findById(1L)).thenReturn(Optional.of(wallet));
         when(walletResponseMapper.toWalletResponse(wallet)).thenReturn(expectedResponse);
+        runInTransaction();
 
         var result = walletService.findById(1L);
+        var cachedResult = walletService.findById(1L);
 
         assertNotNull(result);
         assertEquals(expectedResponse, result);
+        assertSame(result, cachedResult);
         verify(walletRepository).findById(1L);
         verify(walletResponseMapper).toWalletResponse(wallet);
     }
@@ -79,36 +132,65 @@ class WalletServiceTest {
     @Test
     void findById_shouldThrowExceptionWhenWalletNotFound() {
         when(walletRepository.findById(1L)).thenReturn(Optional.empty());
+        runInTransaction();
 
         assertThrows(NoSuchElementFoundException.class, () -> walletService.findById(1L));
-        verify(walletRepository).findById(1L);
+        assertThrows(NoSuchElementFoundException.class, () -> walletService.findById(1L));
+        verify(walletRepository, times(2)).findById(1L);
     }
 
     @Test
     void findByIban_shouldReturnWalletResponse() {
-        var wallet = createTestWallet(1L, "TEST123", "Test Wallet", BigDecimal.valueOf(1000));
-        var expectedResponse = createTestWalletResponse(1L, "TEST123", "Test Wallet", BigDecimal.valueOf(1000));
+        var wallet = createTestWallet(1L, "TEST123", "Test Wallet", Money.of(1000));
+        var expectedResponse = createTestWalletResponse(1L, "TEST123", "Test Wallet", Money.of(1000));
 
-        when(walletRepository.findByIban("TEST123")).thenReturn(Optional.of(wallet));
+        when(walletRepository.findIdByIban("TEST123")).thenReturn(Optional.of(1L));
+        when(walletRepository.findById(1L)).thenReturn(Optional.of(wallet));
         when(walletResponseMapper.toWalletResponse(wallet)).thenReturn(expectedResponse);
+        runInTransaction();
 
-        var result = walletService.findByIban("TEST123");
+        var result = walletService.findByIban(" test123");
 
         assertNotNull(result);
         assertEquals(expectedResponse, result);
-        verify(walletRepository).findByIban("TEST123");
+        verify(walletRepository).findIdByIban("TEST123");
         verify(walletResponseMapper).toWalletResponse(wallet);
     }
 
+    @Test
+    void addFunds_shouldEvictCachedWallet() {
+        var wallet = createTestWallet(1L, "TEST123", "Test Wallet", Money.of(1000));
+        var request = createTestTransactionRequest("FROM123", "TEST123", Money.of(200));
+        when(walletRepository.findById(1L)).thenReturn(Optional.of(wallet));
+        when(walletResponseMapper.toWalletResponse(wallet))
+                .thenAnswer(invocation -> createTestWalletResponse(1L, "TEST123", "Test Wallet", wallet.getBalance()));
+        when(walletRepository.findIdByIban("FROM123")).thenReturn(Optional.of(2L));
+        when(walletRepository.findIdByIban("TEST123")).thenReturn(Optional.of(1L));
+        when(walletRepository.credit(1L, Money.of(200), Money.of(200))).thenAnswer(invocation -> {
+            wallet.setBalance(wallet.getBalance().add(Money.of(200)));
+            return 1;
+        });
+        when(transactionService.create(request, 2L, 1L)).thenReturn(new CommandResponse(5L));
+        runInTransaction();
+
+        walletService.findById(1L);
+        walletService.addFunds(request);
+        var result = walletService.findById(1L);
+
+        assertEquals(Money.of(1200), result.getBalance());
+        verify(walletCache).evictAfterCommit(1L);
+        verify(walletRepository, times(2)).findById(1L);
+    }
+
     @Test
     void findByUserId_shouldReturnListOfWalletResponses() {
         var wallets = Arrays.asList(
-                createTestWallet(1L, "TEST123", "Test Wallet 1", BigDecimal.valueOf(1000)),
-                createTestWallet(2L, "TEST456", "Test Wallet 2", BigDecimal.valueOf(2000))
+                createTestWallet(1L, "TEST123", "Test Wallet 1", Money.of(1000)),
+                createTestWallet(2L, "TEST456", "Test Wallet 2", Money.of(2000))
         );
         var expectedResponses = Arrays.asList(
-                createTestWalletResponse(1L, "TEST123", "Test Wallet 1", BigDecimal.valueOf(1000)),
-                createTestWalletResponse(2L, "TEST456", "Test Wallet 2", BigDecimal.valueOf(2000))
+                createTestWalletResponse(1L, "TEST123", "Test Wallet 1", Money.of(1000)),
+                createTestWalletResponse(2L, "TEST456", "Test Wallet 2", Money.of(2000))
         );
 
         when(walletRepository.findByUserId(1L)).thenReturn(wallets);
@@ -126,7 +208,7 @@ class WalletServiceTest {
 
     @Test
     void getByIban_shouldReturnWallet() {
-        var expectedWallet = createTestWallet(1L, "TEST123", "Test Wallet", BigDecimal.valueOf(1000));
+        var expectedWallet = createTestWallet(1L, "TEST123", "Test Wallet", Money.of(1000));
 
         when(walletRepository.findByIban("TEST123")).thenReturn(Optional.of(expectedWallet));
 
@@ -146,38 +228,56 @@ class WalletServiceTest {
     }
 
     @Test
-    void findAll_shouldReturnPageOfWalletResponses() {
-        var walletPage = new PageImpl<>(Collections.singletonList(
-                createTestWallet(1L, "TEST123", "Test Wallet", BigDecimal.valueOf(1000))
-        ));
-        var pageable = Pageable.unpaged();
-        var expectedResponse = createTestWalletResponse(1L, "TEST123", "Test Wallet", BigDecimal.valueOf(1000));
+    void findAll_shouldReturnSliceOfWalletResponses() {
+        var wallet = createTestWallet(1L, "TEST123", "Test Wallet", Money.of(1000));
+        var expectedResponse = createTestWalletResponse(1L, "TEST123", "Test Wallet", Money.of(1000));
+        var pageable = PageRequest.of(0, 10);
 
-        when(walletRepository.findAll(pageable)).thenReturn(walletPage);
-        when(walletResponseMapper.toWalletResponse(any(Wallet.class))).thenReturn(expectedResponse);
+        when(walletRepository.findAllBy(PageRequest.of(0, 10, Sort.by("id")))).thenReturn(new SliceImpl<>(List.of(wallet)));
+        when(walletResponseMapper.toWalletResponse(wallet)).thenReturn(expectedResponse);
 
-        var result = walletService.findAll(pageable);
+        var result = walletService.findAll(pageable, false);
 
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
         assertEquals(expectedResponse, result.getContent().get(0));
-        verify(walletRepository).findAll(pageable);
-        verify(walletResponseMapper).toWalletResponse(any(Wallet.class));
+        verify(walletRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void findAll_shouldReturnPageOfWalletResponsesWhenCountIsRequested() {
+        var wallet = createTestWallet(1L, "TEST123", "Test Wallet", Money.of(1000));
+        var pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "iban"));
+
+        when(walletRepository.findAll(PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "iban", "id"))))
+                .thenReturn(new PageImpl<>(List.of(wallet)));
+
+        var result = walletService.findAll(pageable, true);
+
+        assertInstanceOf(Page.class, result);
+        assertEquals(1, ((Page<?>) result).getTotalElements());
+    }
+
+    @Test
+    void findAll_shouldThrowExceptionWhenSortKeyIsNotIndexed() {
+        var pageable = PageRequest.of(0, 10, Sort.by("balance"));
+
+        assertThrows(InvalidRequestException.class, () -> walletService.findAll(pageable, false));
+        verifyNoInteractions(walletRepository);
     }
 
     @Test
     void findAll_shouldThrowExceptionWhenNoWalletsFound() {
-        var pageable = Pageable.unpaged();
-        when(walletRepository.findAll(pageable)).thenReturn(Page.empty());
+        var pageable = PageRequest.of(0, 10);
+        when(walletRepository.findAllBy(any())).thenReturn(new SliceImpl<>(List.of()));
 
-        assertThrows(NoSuchElementFoundException.class, () -> walletService.findAll(pageable));
-        verify(walletRepository).findAll(pageable);
+        assertThrows(NoSuchElementFoundException.class, () -> walletService.findAll(pageable, false));
     }
 
     @Test
     void create_shouldCreateNewWallet() {
-        var request = createTestWalletRequest(1L, "TEST123", "Test Wallet", BigDecimal.valueOf(1000));
-        var wallet = createTestWallet(1L, "TEST123", "Test Wallet", BigDecimal.valueOf(1000));
+        var request = createTestWalletRequest(1L, "TEST123", "Test Wallet", Money.of(1000));
+        var wallet = createTestWallet(1L, "TEST123", "Test Wallet", Money.of(1000));
 
         when(walletRepository.existsByIbanIgnoreCase(anyString())).thenReturn(false);
         when(walletRepository.existsByUserIdAndNameIgnoreCase(anyLong(), anyString())).thenReturn(false);
@@ -200,7 +300,7 @@ class WalletServiceTest {
 
     @Test
     void create_shouldThrowExceptionWhenIbanAlreadyExists() {
-        var request = createTestWalletRequest(1L, "TEST123", "Test Wallet", BigDecimal.valueOf(1000));
+        var request = createTestWalletRequest(1L, "TEST123", "Test Wallet", Money.of(1000));
 
         when(walletRepository.existsByIbanIgnoreCase(anyString())).thenReturn(true);
 
@@ -208,83 +308,260 @@ class WalletServiceTest {
         verify(walletRepository).existsByIbanIgnoreCase(request.getIban());
     }
 
+    @Test
+    void create_shouldThrowExceptionWhenCurrencyIsUnknown() {
+        var request = createTestWalletRequest(1L, "TEST123", "Test Wallet", Money.of(1000));
+        request.setCurrency("ABC");
+
+        when(walletRepository.existsByIbanIgnoreCase(anyString())).thenReturn(false);
+        when(walletRepository.existsByUserIdAndNameIgnoreCase(anyLong(), anyString())).thenReturn(false);
+
+        assertThrows(InvalidRequestException.class, () -> walletService.create(request));
+        verify(walletRepository, never()).save(any());
+    }
+
+    @Test
+    void update_shouldUpdateWalletFieldsOfTransactionsAndArchive() {
+        var wallet = createTestWallet(1L, "TEST123", "Test Wallet", Money.of(1000));
+        var request = createTestWalletRequest(2L, "TEST123", "Test Wallet", Money.of(1000));
+
+        when(walletRepository.findById(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.saveAndFlush(wallet)).thenReturn(wallet);
+
+        var result = walletService.update(1L, request);
+
+        assertEquals(1L, result.id());
+        verify(walletRequestMapper).updateWallet(request, wallet);
+        verify(transactionViewRepository).updateWallet(1L, "TEST123", "Test Wallet", 2L);
+        verify(transactionArchiveRepository).updateWallet(1L, "TEST123", "Test Wallet", 2L);
+        verify(recentTransactionCache).evictAllAfterCommit();
+    }
+
     @Test
     void transferFunds_shouldTransferFundsBetweenWallets() {
-        var fromWallet = createTestWallet(1L, "FROM123", "From Wallet", BigDecimal.valueOf(1000));
-        var toWallet = createTestWallet(2L, "TO123", "To Wallet", BigDecimal.valueOf(500));
-        var request = createTestTransactionRequest("FROM123", "TO123", BigDecimal.valueOf(200));
+        var request = createTestTransactionRequest("FROM123", "TO123", Money.of(200));
 
-        when(walletRepository.findByIban("FROM123")).thenReturn(Optional.of(fromWallet));
-        when(walletRepository.findByIban("TO123")).thenReturn(Optional.of(toWallet));
-        when(transactionService.create(request)).thenReturn(new CommandResponse(1L));
+        when(walletRepository.findIdByIban("FROM123")).thenReturn(Optional.of(1L));
+        when(walletRepository.findIdByIban("TO123")).thenReturn(Optional.of(2L));
+        when(walletRepository.debitIfSufficient(1L, Money.of(200), Money.of(200), Money.ZERO)).thenReturn(1);
+        when(walletRepository.credit(2L, Money.of(200), Money.ZERO)).thenReturn(1);
+        when(transactionService.create(request, 1L, 2L)).thenReturn(new CommandResponse(1L));
 
         var result = walletService.transferFunds(request);
 
         assertNotNull(result);
         assertEquals(1L, result.id());
-        assertEquals(BigDecimal.valueOf(800), fromWallet.getBalance());
-        assertEquals(BigDecimal.valueOf(700), toWallet.getBalance());
-        verify(walletRepository).save(toWallet);
-        verify(transactionService).create(request);
+        assertEquals(Status.APPROVED, request.getStatus());
+        verify(walletLockManager).lockForTransaction(1L, 2L);
+        verify(walletRepository).debitIfSufficient(1L, Money.of(200), Money.of(200), Money.ZERO);
+        verify(walletRepository).credit(2L, Money.of(200), Money.ZERO);
+        verify(walletRepository, never()).findById(anyLong());
+        verify(transactionService).create(request, 1L, 2L);
+    }
+
+    @Test
+    void transferFunds_shouldThrowExceptionWhenAmountHasMoreFractionDigitsThanCurrency() {
+        var request = createTestTransactionRequest("FROM123", "TO123", Money.parse("200.125"));
+
+        when(walletRepository.findIdByIban("FROM123")).thenReturn(Optional.of(1L));
+        when(walletRepository.findIdByIban("TO123")).thenReturn(Optional.of(2L));
+        when(walletRepository.findCurrencyById(1L)).thenReturn(Optional.of("TRY"));
+
+        assertThrows(InvalidRequestException.class, () -> walletService.transferFunds(request));
+        verify(walletRepository, never()).debitIfSufficient(anyLong(), any(), any(), any());
     }
 
     @Test
     void transferFunds_shouldThrowExceptionWhenInsufficientFunds() {
-        var fromWallet = createTestWallet(1L, "FROM123", "From Wallet", BigDecimal.valueOf(100));
-        var toWallet = createTestWallet(2L, "TO123", "To Wallet", BigDecimal.valueOf(500));
-        var request = createTestTransactionRequest("FROM123", "TO123", BigDecimal.valueOf(200));
+        var request = createTestTransactionRequest("FROM123", "TO123", Money.of(200));
 
-        when(walletRepository.findByIban("FROM123")).thenReturn(Optional.of(fromWallet));
-        when(walletRepository.findByIban("TO123")).thenReturn(Optional.of(toWallet));
+        when(walletRepository.findIdByIban("FROM123")).thenReturn(Optional.of(1L));
+        when(walletRepository.findIdByIban("TO123")).thenReturn(Optional.of(2L));
+        when(walletRepository.debitIfSufficient(1L, Money.of(200), Money.of(200), Money.ZERO)).thenReturn(0);
 
         assertThrows(InsufficientFundsException.class, () -> walletService.transferFunds(request));
+        verify(walletRepository, never()).credit(anyLong(), any(), any());
+        verify(transactionService, never()).create(any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void transferFunds_shouldNotLockWalletsOnWorkerOfSender() {
+        var request = createTestTransactionRequest("FROM123", "TO123", Money.of(200));
+
+        when(walletRepository.findIdByIban("FROM123")).thenReturn(Optional.of(1L));
+        when(walletRepository.findIdByIban("TO123")).thenReturn(Optional.of(2L));
+        when(walletExecutor.isWorkerOf(1L)).thenReturn(true);
+        when(walletRepository.debitIfSufficient(1L, Money.of(200), Money.of(200), Money.ZERO)).thenReturn(1);
+        when(walletRepository.credit(2L, Money.of(200), Money.ZERO)).thenReturn(1);
+        when(transactionService.create(request, 1L, 2L)).thenReturn(new CommandResponse(1L));
+
+        walletService.transferFunds(request);
+
+        verify(walletLockManager, never()).lockForTransaction(any());
+        verify(walletRepository).credit(2L, Money.of(200), Money.ZERO);
+    }
+
+    @Test
+    void transferFunds_shouldThrowExceptionWhenWalletsAreSame() {
+        var request = createTestTransactionRequest("FROM123", "from123", Money.of(200));
+
+        when(walletRepository.findIdByIban("FROM123")).thenReturn(Optional.of(1L));
+
+        assertThrows(InvalidRequestException.class, () -> walletService.transferFunds(request));
+        verify(walletRepository, never()).debitIfSufficient(anyLong(), any(), any(), any());
+        verify(walletRepository, never()).credit(anyLong(), any(), any());
+        verify(transactionService, never()).create(any(), anyLong(), anyLong());
     }
 
     @Test
     void addFunds_shouldAddFundsToWallet() {
-        var toWallet = createTestWallet(1L, "TO123", "To Wallet", BigDecimal.valueOf(500));
-        var request = createTestTransactionRequest(null, "TO123", BigDecimal.valueOf(200));
+        var request = createTestTransactionRequest("FROM123", "TO123", Money.of(200));
 
-        when(walletRepository.findByIban("TO123")).thenReturn(Optional.of(toWallet));
-        when(transactionService.create(request)).thenReturn(new CommandResponse(1L));
+        when(walletRepository.findIdByIban("FROM123")).thenReturn(Optional.of(2L));
+        when(walletRepository.findIdByIban("TO123")).thenReturn(Optional.of(1L));
+        when(walletRepository.credit(1L, Money.of(200), Money.of(200))).thenReturn(1);
+        when(transactionService.create(request, 2L, 1L)).thenReturn(new CommandResponse(1L));
 
         var result = walletService.addFunds(request);
 
         assertNotNull(result);
         assertEquals(1L, result.id());
-        assertEquals(BigDecimal.valueOf(700), toWallet.getBalance());
-        verify(walletRepository).save(toWallet);
-        verify(transactionService).create(request);
+        assertEquals(Status.APPROVED, request.getStatus());
+        verify(walletLockManager).lockForTransaction(1L);
+        verify(walletRepository).credit(1L, Money.of(200), Money.of(200));
+        verify(transactionService).create(request, 2L, 1L);
+    }
+
+    @Test
+    void addFunds_shouldOnlyAddToUsableBalanceWhenAmountExceedsLimit() {
+        var request = createTestTransactionRequest("FROM123", "TO123", Money.of(5000));
+
+        when(walletRepository.findIdByIban("FROM123")).thenReturn(Optional.of(2L));
+        when(walletRepository.findIdByIban("TO123")).thenReturn(Optional.of(1L));
+        when(walletRepository.credit(1L, Money.ZERO, Money.of(5000))).thenReturn(1);
+        when(transactionService.create(request, 2L, 1L)).thenReturn(new CommandResponse(1L));
+
+        walletService.addFunds(request);
+
+        assertEquals(Status.PENDING, request.getStatus());
+        verify(walletRepository).credit(1L, Money.ZERO, Money.of(5000));
     }
 
     @Test
     void withdrawFunds_shouldWithdrawFundsFromWallet() {
-        var fromWallet = createTestWallet(1L, "FROM123", "From Wallet", BigDecimal.valueOf(1000));
-        var request = createTestTransactionRequest("FROM123", null, BigDecimal.valueOf(200));
+        var request = createTestTransactionRequest("FROM123", "TO123", Money.of(200));
 
-        when(walletRepository.findByIban("FROM123")).thenReturn(Optional.of(fromWallet));
-        when(transactionService.create(request)).thenReturn(new CommandResponse(1L));
+        when(walletRepository.findIdByIban("FROM123")).thenReturn(Optional.of(1L));
+        when(walletRepository.findIdByIban("TO123")).thenReturn(Optional.of(2L));
+        when(walletRepository.debitIfSufficient(1L, Money.of(200), Money.of(200), Money.of(200))).thenReturn(1);
+        when(transactionService.create(request, 1L, 2L)).thenReturn(new CommandResponse(1L));
 
         var result = walletService.withdrawFunds(request);
 
         assertNotNull(result);
         assertEquals(1L, result.id());
-        assertEquals(BigDecimal.valueOf(800), fromWallet.getBalance());
-        verify(walletRepository).save(fromWallet);
-        verify(transactionService).create(request);
+        assertEquals(Status.APPROVED, request.getStatus());
+        verify(walletLockManager).lockForTransaction(1L);
+        verify(walletRepository).debitIfSufficient(1L, Money.of(200), Money.of(200), Money.of(200));
+        verify(transactionService).create(request, 1L, 2L);
+    }
+
+    @Test
+    void withdrawFunds_shouldThrowExceptionWhenInsufficientFunds() {
+        var request = createTestTransactionRequest("FROM123", "TO123", Money.of(200));
+
+        when(walletRepository.findIdByIban("FROM123")).thenReturn(Optional.of(1L));
+        when(walletRepository.findIdByIban("TO123")).thenReturn(Optional.of(2L));
+        when(walletRepository.debitIfSufficient(1L, Money.of(200), Money.of(200), Money.of(200))).thenReturn(0);
+
+        assertThrows(InsufficientFundsException.class, () -> walletService.withdrawFunds(request));
+        verify(transactionService, never()).create(any(), anyLong(), anyLong());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void transferFundsBatch_shouldReturnResultForEveryRequest() {
+        ReflectionTestUtils.setField(walletService, "batchChunkSize", 2);
+        var fromWallet = createTestWallet(1L, "FROM123", "From Wallet", Money.of(1000));
+        var toWallet = createTestWallet(2L, "TO123", "To Wallet", Money.of(100));
+        var requests = List.of(
+                createTestTransactionRequest("FROM123", "TO123", Money.of(200)),
+                createTestTransactionRequest("FROM123", "TO123", Money.of(900)),
+                createTestTransactionRequest("FROM123", "UNKNOWN", Money.of(10)));
+
+        when(walletRepository.findIdsByIbanIn(anyList()))
+                .thenReturn(List.of(createTestWalletIdView(1L, "FROM123"), createTestWalletIdView(2L, "TO123")));
+        when(conflictRetryExecutor.execute(anyString(), any()))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+        runInTransaction();
+        when(walletRepository.findAllById(anyList())).thenReturn(List.of(fromWallet, toWallet));
+        when(transactionService.createAll(anyList(), anyMap()))
+                .thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).stream().map(request -> 10L).toList());
+
+        var results = walletService.transferFundsBatch(requests);
+
+        assertEquals(3, results.size());
+        assertEquals(Status.APPROVED, results.get(0).status());
+        assertEquals(10L, results.get(0).id());
+        assertEquals(Status.DENIED, results.get(1).status());
+        assertEquals(Status.DENIED, results.get(2).status());
+        assertEquals(2, results.get(2).index());
+        assertEquals(Money.of(800), fromWallet.getBalance());
+        assertEquals(Money.of(300), toWallet.getBalance());
+        verify(walletRepository).findIdsByIbanIn(List.of("FROM123", "TO123", "UNKNOWN"));
+        verify(walletLockManager).lockForTransaction(1L, 2L);
+        verify(walletLockManager).lockForTransaction(1L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void transferFundsBatch_shouldDenyFailedChunkAndProcessOthers() {
+        ReflectionTestUtils.setField(walletService, "batchChunkSize", 1);
+        var fromWallet = createTestWallet(1L, "FROM123", "From Wallet", Money.of(1000));
+        var toWallet = createTestWallet(2L, "TO123", "To Wallet", Money.of(100));
+        var requests = List.of(
+                createTestTransactionRequest("from 123", "to123", Money.of(200)),
+                createTestTransactionRequest("FROM123", "TO123", Money.of(300)),
+                createTestTransactionRequest("FROM123", "from123", Money.of(10)));
+
+        when(walletRepository.findIdsByIbanIn(anyList()))
+                .thenReturn(List.of(createTestWalletIdView(1L, "FROM123"), createTestWalletIdView(2L, "TO123")));
+        when(conflictRetryExecutor.execute(anyString(), any()))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+        runInTransaction();
+        when(walletRepository.findAllById(anyList())).thenReturn(List.of(fromWallet, toWallet), List.of(fromWallet, toWallet), List.of(fromWallet));
+        when(transactionService.createAll(anyList(), anyMap()))
+                .thenReturn(List.of(10L))
+                .thenThrow(new IllegalStateException("failed"))
+                .thenReturn(List.of());
+
+        var results = walletService.transferFundsBatch(requests);
+
+        assertEquals(3, results.size());
+        assertEquals(Status.APPROVED, results.get(0).status());
+        assertEquals(Status.DENIED, results.get(1).status());
+        assertEquals(1, results.get(1).index());
+        assertEquals(Status.DENIED, results.get(2).status());
+        verify(walletRepository).findIdsByIbanIn(List.of("FROM123", "TO123"));
     }
 
     // Helper Methods
-    private Wallet createTestWallet(Long id, String iban, String name, BigDecimal balance) {
+    private void runInTransaction() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    private Wallet createTestWallet(Long id, String iban, String name, Money balance) {
         var wallet = new Wallet();
         wallet.setId(id);
         wallet.setIban(iban);
         wallet.setName(name);
+        wallet.setCurrency("TRY");
         wallet.setBalance(balance);
         return wallet;
     }
 
-    private WalletResponse createTestWalletResponse(Long id, String iban, String name, BigDecimal balance) {
+    private WalletResponse createTestWalletResponse(Long id, String iban, String name, Money balance) {
         var response = new WalletResponse();
         response.setId(id);
         response.setIban(iban);
@@ -293,16 +570,31 @@ class WalletServiceTest {
         return response;
     }
 
-    private WalletRequest createTestWalletRequest(Long userId, String iban, String name, BigDecimal balance) {
+    private WalletRequest createTestWalletRequest(Long userId, String iban, String name, Money balance) {
         var request = new WalletRequest();
         request.setUserId(userId);
         request.setIban(iban);
         request.setName(name);
+        request.setCurrency("TRY");
         request.setBalance(balance);
         return request;
     }
 
-    private TransactionRequest createTestTransactionRequest(String fromWalletIban, String toWalletIban, BigDecimal amount) {
+    private WalletRepository.WalletIdView createTestWalletIdView(Long id, String iban) {
+        return new WalletRepository.WalletIdView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getIban() {
+                return iban;
+            }
+        };
+    }
+
+    private TransactionRequest createTestTransactionRequest(String fromWalletIban, String toWalletIban, Money amount) {
         var request = new TransactionRequest();
         request.setFromWalletIban(fromWalletIban);
         request.setToWalletIban(toWalletIban);
@@ -0,0 +1,41 @@
+package com.github.yozdemir.validator;
+
+import com.github.yozdemir.domain.value.Money;
+import com.github.yozdemir.dto.request.TransactionRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositiveMoneyValidatorTest {
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Test
+    void validate_shouldRejectTransactionAmountThatIsNotPositive() {
+        assertEquals(Set.of("amount"), invalidFields(createRequest(Money.of(-10))));
+        assertEquals(Set.of("amount"), invalidFields(createRequest(Money.ZERO)));
+        assertEquals(Set.of(), invalidFields(createRequest(Money.of(10))));
+    }
+
+    private Set<String> invalidFields(TransactionRequest request) {
+        return validator.validate(request).stream()
+                .map(ConstraintViolation::getPropertyPath)
+                .map(Object::toString)
+                .collect(Collectors.toSet());
+    }
+
+    private TransactionRequest createRequest(Money amount) {
+        var request = new TransactionRequest();
+        request.setAmount(amount);
+        request.setFromWalletIban("TR100000000000000000000001");
+        request.setToWalletIban("TR100000000000000000000002");
+        request.setTypeId(1L);
+        return request;
+    }
+}